@@ -0,0 +1,70 @@
+/**
+ * Describes the accepted translation that a player's answer was graded against. A match
+ * made by a corpus only decodes the translation from its store when it is asked for,
+ * since most answers are graded without ever showing it.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class AnswerMatch
+{
+    // instance fields
+    private final CorpusStore store;
+    private final int key;
+    private final int language;
+    private final int answer;
+    private final int distance;
+    private String acceptedForm;
+
+    /* constructors */
+    /*
+     * Constructs a match against one accepted translation of a concept in a store, which is
+     * decoded the first time it is asked for.
+     */
+    AnswerMatch(CorpusStore store, int key, int language, int answer, int distance)
+    {
+        this.store = store;
+        this.key = key;
+        this.language = language;
+        this.answer = answer;
+        this.distance = distance;
+        acceptedForm = null;
+    } // end of constructor AnswerMatch(CorpusStore store, int key, int language, int answer, int distance)
+
+    /* accessors */
+    /**
+     * Returns the accepted translation that the answer matched.
+     *
+     * @return the accepted translation
+     */
+    public String getAcceptedForm()
+    {
+        // a race only decodes the same immutable string twice
+        if (acceptedForm == null)
+        {
+            acceptedForm = store.getAnswer(key, language, answer);
+        } // end of if (acceptedForm == null)
+
+        return acceptedForm;
+    } // end of method getAcceptedForm()
+
+    /**
+     * Returns the number of single-character edits between the answer and the translation.
+     *
+     * @return 0 for an exact match, else the edit distance
+     */
+    public int getDistance()
+    {
+        return distance;
+    } // end of method getDistance()
+
+    /**
+     * Indicates whether the answer matched the translation exactly.
+     *
+     * @return true if no edits were needed, else false
+     */
+    public boolean isExact()
+    {
+        return distance == 0;
+    } // end of method isExact()
+} // end of class AnswerMatch
@@ -0,0 +1,148 @@
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a sentence or a player's answer into the compact key used for grading: trimmed,
+ * lower case, in Unicode NFC form and, optionally, with accents removed so that
+ * "P&ecirc;che" and "peche" share a key.
+ *
+ * Answers made of Latin letters can also be folded into a caller's array one character
+ * at a time, from a table built once per normalizer, so grading them creates no strings.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class AnswerNormalizer
+{
+    // class constants
+    // the pattern is needed by the constructor, so it must be set before the normalizers are made
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final char LAST_ASCII_CHARACTER = 0x7f;
+    private static final char LAST_FOLDED_CHARACTER = 0x24f;
+    private static final char NOT_FOLDABLE = 0xffff;
+
+    /** Keeps accents, so "peche" does not match "p&ecirc;che". */
+    public static final AnswerNormalizer STRICT = new AnswerNormalizer(false);
+
+    /** Ignores accents, so "peche" matches "p&ecirc;che". */
+    public static final AnswerNormalizer ACCENT_INSENSITIVE = new AnswerNormalizer(true);
+
+    // instance fields
+    private final boolean foldAccents;
+    private final char[] foldedCharacters;
+
+    /* constructors */
+    /*
+     * Constructs a normalizer that does or does not remove accents.
+     */
+    private AnswerNormalizer(boolean foldAccents)
+    {
+        this.foldAccents = foldAccents;
+
+        // a Latin letter that folds to a single character can be folded without its neighbours
+        foldedCharacters = new char[LAST_FOLDED_CHARACTER + 1];
+        for (char character = 0; character <= LAST_FOLDED_CHARACTER; character++)
+        {
+            String folded = fold(String.valueOf(character));
+            foldedCharacters[character] = (folded.length() == 1) ? folded.charAt(0) : NOT_FOLDABLE;
+        } // end of for (char character = 0; character <= LAST_FOLDED_CHARACTER; character++)
+    } // end of constructor AnswerNormalizer(boolean foldAccents)
+
+    /* accessors */
+    /**
+     * Indicates whether this normalizer removes accents.
+     *
+     * @return true if accents are removed, else false
+     */
+    public boolean getFoldAccents()
+    {
+        return foldAccents;
+    } // end of method getFoldAccents()
+
+    /**
+     * Returns the grading key for the given text.
+     *
+     * @param text a sentence or a player's answer
+     * @return the normalized key
+     */
+    public String normalize(String text)
+    {
+        return fold(text.strip());
+    } // end of method normalize(String text)
+
+    /**
+     * Writes the grading key for the given text into an array without creating any strings,
+     * folding it one character at a time. This gives the same key as normalize() but only
+     * works for text made of Latin letters, digits and punctuation; anything else, such as an
+     * accent typed as a separate combining mark, needs normalize().
+     *
+     * @param text a player's answer
+     * @param destination an array at least as long as the text
+     * @return the length of the key, or -1 if the text can only be normalized as a whole
+     */
+    public int normalize(String text, char[] destination)
+    {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start)))
+        {
+            start++;
+        } // end of while (start < end && Character.isWhitespace(text.charAt(start)))
+        while (end > start && Character.isWhitespace(text.charAt(end - 1)))
+        {
+            end--;
+        } // end of while (end > start && Character.isWhitespace(text.charAt(end - 1)))
+
+        for (int index = start; index < end; index++)
+        {
+            char character = text.charAt(index);
+            char folded = (character <= LAST_FOLDED_CHARACTER) ? foldedCharacters[character] : NOT_FOLDABLE;
+            if (folded == NOT_FOLDABLE)
+            {
+                return -1;
+            } // end of if (folded == NOT_FOLDABLE)
+            destination[index - start] = folded;
+        } // end of for (int index = start; index < end; index++)
+
+        return end - start;
+    } // end of method normalize(String text, char[] destination)
+
+    /* private methods */
+    /*
+     * Lowers, optionally removes accents from and composes text that has already been trimmed.
+     */
+    private String fold(String text)
+    {
+        String key = text.toLowerCase(Locale.ROOT);
+
+        // plain ASCII is already in NFC form and has no accents to fold
+        if (isAscii(key))
+        {
+            return key;
+        } // end of if (isAscii(key))
+
+        if (foldAccents)
+        {
+            key = COMBINING_MARKS.matcher(Normalizer.normalize(key, Normalizer.Form.NFD)).replaceAll("");
+        } // end of if (foldAccents)
+
+        return Normalizer.normalize(key, Normalizer.Form.NFC);
+    } // end of method fold(String text)
+
+    /*
+     * Indicates whether every character of the given text is ASCII.
+     */
+    private static boolean isAscii(String text)
+    {
+        for (int index = 0; index < text.length(); index++)
+        {
+            if (text.charAt(index) > LAST_ASCII_CHARACTER)
+            {
+                return false;
+            } // end of if (text.charAt(index) > LAST_ASCII_CHARACTER)
+        } // end of for (int index = 0; index < text.length(); index++)
+
+        return true;
+    } // end of method isAscii(String text)
+} // end of class AnswerNormalizer
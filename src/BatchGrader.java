@@ -0,0 +1,1089 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Grades answer sheets offline, with the same rules the game uses: every answer goes
+ * through GameCorpus.grade(), so accents and typing mistakes are forgiven exactly as
+ * they are when a player types them.
+ *
+ * An answer sheet is a CSV file or a JSON-lines file with one answer per row: the key
+ * of the concept, the direction and the answer itself. The direction is always the
+ * language the answer is written in, as in the PROMPT lines of a GameServer: a language
+ * code of the corpus, such as "en", "fr" or "es", or "english" or "french". A CSV
+ * file may start with a header row of column names; a JSON line holds an object such as
+ * {"id": 12, "direction": "fr", "answer": "la pomme"}. A byte order mark at the start of
+ * either is skipped.
+ *
+ * Rows are read in chunks, and each chunk is graded by a fork-join pool while the next
+ * ones are read. Only a few chunks are held at once and results are written in the
+ * order of the sheet, so sheets of any length are graded in constant memory. The
+ * results file is a CSV file with one row per answer, followed by the totals for each
+ * language.
+ *
+ * <pre>
+ * java BatchGrader answers.csv results.csv
+ * </pre>
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class BatchGrader
+{
+    // class constants
+    private static final int CHUNK_ROWS = 4096;
+    private static final int SPLIT_ROWS = 256;
+    private static final int CHUNKS_PER_WORKER = 2;
+    private static final int MAXIMUM_FIELD_LENGTH = 4096;
+    private static final int MAXIMUM_LINE_LENGTH = 4 * MAXIMUM_FIELD_LENGTH;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private static final byte CORRECT = 0;
+    private static final byte INCORRECT = 1;
+    private static final byte INVALID = 2;
+    private static final String[] OUTCOME_NAMES = {"correct", "incorrect", "invalid"};
+
+    private static final String RESULT_HEADER = "row,id,direction,outcome,distance,accepted";
+    private static final String TOTALS_HEADER = "language,answered,correct,typos forgiven";
+
+    private static final String ENGLISH_SENTENCES = "./englishSentences.txt";
+    private static final String FRENCH_SENTENCES = "./frenchSentences.txt";
+    private static final String DECK_FILE = "./sentences.tsv";
+    private static final String CORPUS_FILE = "./sentences.corpus";
+    private static final AnswerNormalizer ANSWER_NORMALIZER = AnswerNormalizer.ACCENT_INSENSITIVE;
+    private static final int TYPO_TOLERANCE = 1;
+
+    // instance fields
+    private final GameCorpus corpus;
+    private final ForkJoinPool pool;
+
+    /* constructors */
+    /**
+     * Constructs a grader that grades against the given corpus on the common fork-join pool.
+     *
+     * @param corpus the corpus whose keys the answer sheets refer to
+     */
+    public BatchGrader(GameCorpus corpus)
+    {
+        this(corpus, ForkJoinPool.commonPool());
+    } // end of constructor BatchGrader(GameCorpus corpus)
+
+    /**
+     * Constructs a grader that grades against the given corpus on the given pool.
+     *
+     * @param corpus the corpus whose keys the answer sheets refer to
+     * @param pool the pool that grades the answers
+     */
+    public BatchGrader(GameCorpus corpus, ForkJoinPool pool)
+    {
+        this.corpus = corpus;
+        this.pool = pool;
+    } // end of constructor BatchGrader(GameCorpus corpus, ForkJoinPool pool)
+
+    /* mutators */
+    /**
+     * Grades an answer sheet and writes the results file. A file whose name ends in ".jsonl"
+     * or ".json", or whose first character is "{", is read as JSON lines; any other file is
+     * read as CSV. Rows that cannot be understood are reported as invalid and do not stop
+     * the grading.
+     *
+     * @param inputFileName the answer sheet
+     * @param outputFileName the results file to write
+     * @return the totals for each language
+     * @throws IOException if a file cannot be read or written
+     */
+    public Totals grade(String inputFileName, String outputFileName) throws IOException
+    {
+        Totals totals = new Totals(corpus.getLanguages());
+        int maximumChunksInFlight = Math.max(2, pool.getParallelism() * CHUNKS_PER_WORKER);
+        ArrayDeque<Chunk> chunksInFlight = new ArrayDeque<Chunk>();
+
+        try (BufferedReader input = Files.newBufferedReader(Paths.get(inputFileName), StandardCharsets.UTF_8);
+            BufferedWriter output = Files.newBufferedWriter(Paths.get(outputFileName), StandardCharsets.UTF_8))
+        {
+            skipByteOrderMark(input);
+            RowReader rowReader = isJsonLines(inputFileName, input) ? new JsonLineReader(input)
+                : new CsvReader(input);
+            output.write(RESULT_HEADER);
+            output.newLine();
+
+            Chunk chunk = rowReader.readChunk();
+            while (chunk != null)
+            {
+                chunk.task = pool.submit(new GradeTask(chunk, 0, chunk.size));
+                chunksInFlight.addLast(chunk);
+
+                // the oldest chunk is written before another is read, which bounds the memory in use
+                if (chunksInFlight.size() >= maximumChunksInFlight)
+                {
+                    writeChunk(chunksInFlight.removeFirst(), output, totals);
+                } // end of if (chunksInFlight.size() >= maximumChunksInFlight)
+                chunk = rowReader.readChunk();
+            } // end of while (chunk != null)
+
+            while (!chunksInFlight.isEmpty())
+            {
+                writeChunk(chunksInFlight.removeFirst(), output, totals);
+            } // end of while (!chunksInFlight.isEmpty())
+
+            writeTotals(output, totals);
+        }
+        finally
+        {
+            // a failed write leaves chunks behind; there is no one left to read their results
+            for (Chunk abandonedChunk : chunksInFlight)
+            {
+                abandonedChunk.task.cancel(false);
+            } // end of for (Chunk abandonedChunk : chunksInFlight)
+        } // end of finally
+
+        return totals;
+    } // end of method grade(String inputFileName, String outputFileName)
+
+    /* private methods */
+    /*
+     * Indicates whether the answer sheet is in JSON lines rather than CSV, peeking at its
+     * first character if the name does not tell.
+     */
+    private static boolean isJsonLines(String inputFileName, BufferedReader input) throws IOException
+    {
+        String lowerCaseName = inputFileName.toLowerCase(Locale.ROOT);
+        if (lowerCaseName.endsWith(".jsonl") || lowerCaseName.endsWith(".json"))
+        {
+            return true;
+        }
+        else if (lowerCaseName.endsWith(".csv"))
+        {
+            return false;
+        } // end of if (lowerCaseName.endsWith(".jsonl") || lowerCaseName.endsWith(".json"))
+
+        input.mark(1);
+        int firstCharacter = input.read();
+        input.reset();
+        return firstCharacter == '{';
+    } // end of method isJsonLines(String inputFileName, BufferedReader input)
+
+    /*
+     * Skips the byte order mark that some editors write at the start of a UTF-8 file.
+     */
+    private static void skipByteOrderMark(BufferedReader input) throws IOException
+    {
+        input.mark(1);
+        if (input.read() != BYTE_ORDER_MARK)
+        {
+            input.reset();
+        } // end of if (input.read() != BYTE_ORDER_MARK)
+    } // end of method skipByteOrderMark(BufferedReader input)
+
+    /*
+     * Grades the given rows of a chunk, turning each into a line of the results file.
+     */
+    private void gradeRows(Chunk chunk, int from, int to)
+    {
+        for (int row = from; row < to; row++)
+        {
+            byte outcome;
+            int distance = 0;
+            String accepted;
+            int key = parseKey(chunk.ids[row]);
+            int language = parseLanguage(chunk.directions[row]);
+
+            if (chunk.problems[row] != null)
+            {
+                outcome = INVALID;
+                accepted = chunk.problems[row];
+            }
+            else if (key < 0 || key >= corpus.size())
+            {
+                outcome = INVALID;
+                accepted = "no sentence pair has this id";
+            }
+            else if (language < 0 || chunk.answers[row] == null)
+            {
+                outcome = INVALID;
+                accepted = (language < 0) ? "the direction must be one of " + corpus.getLanguages()
+                    : "the answer is missing";
+            }
+            else
+            {
+                int match = corpus.grade(key, language, chunk.answers[row]);
+                if (match != GameCorpus.NO_MATCH)
+                {
+                    outcome = CORRECT;
+                    distance = corpus.getDistance(match);
+                    accepted = corpus.getAnswerMatch(key, language, match).getAcceptedForm();
+                }
+                else
+                {
+                    outcome = INCORRECT;
+                    accepted = corpus.getText(key, language);
+                } // end of if (match != GameCorpus.NO_MATCH)
+            } // end of if (key < 0 || key >= store.size())
+
+            chunk.outcomes[row] = outcome;
+            chunk.languages[row] = language;
+            chunk.distances[row] = distance;
+            chunk.lines[row] = chunk.firstRow + row + "," + csvField(chunk.ids[row]) + ","
+                + csvField(chunk.directions[row]) + "," + OUTCOME_NAMES[outcome] + "," + distance + ","
+                + csvField(accepted);
+
+            // the answer is no longer needed once its line is made
+            chunk.ids[row] = null;
+            chunk.directions[row] = null;
+            chunk.answers[row] = null;
+            chunk.problems[row] = null;
+        } // end of for (int row = from; row < to; row++)
+    } // end of method gradeRows(Chunk chunk, int from, int to)
+
+    /*
+     * Waits for a chunk to be graded, writes its lines and adds them to the totals.
+     */
+    private static void writeChunk(Chunk chunk, BufferedWriter output, Totals totals) throws IOException
+    {
+        chunk.task.join();
+        for (int row = 0; row < chunk.size; row++)
+        {
+            output.write(chunk.lines[row]);
+            output.newLine();
+            totals.count(chunk.outcomes[row], chunk.languages[row], chunk.distances[row]);
+        } // end of for (int row = 0; row < chunk.size; row++)
+    } // end of method writeChunk(Chunk chunk, BufferedWriter output, Totals totals)
+
+    /*
+     * Writes the totals for each language after a blank line.
+     */
+    private static void writeTotals(BufferedWriter output, Totals totals) throws IOException
+    {
+        output.newLine();
+        output.write(TOTALS_HEADER);
+        output.newLine();
+        for (int language = 0; language < totals.getLanguages().size(); language++)
+        {
+            output.write(totals.getLanguages().get(language) + "," + totals.getAnswered(language) + ","
+                + totals.getCorrect(language) + "," + totals.getTyposForgiven(language));
+            output.newLine();
+        } // end of for (int language = 0; language < totals.getLanguages().size(); language++)
+        output.write("invalid," + totals.getInvalid() + ",,");
+        output.newLine();
+    } // end of method writeTotals(BufferedWriter output, Totals totals)
+
+    /*
+     * Returns the key in the given id, or -1 if it is not a key.
+     */
+    private static int parseKey(String id)
+    {
+        if (id == null)
+        {
+            return -1;
+        } // end of if (id == null)
+
+        try
+        {
+            return Integer.parseInt(id.strip());
+        }
+        catch (NumberFormatException exception)
+        {
+            return -1;
+        } // end of catch (NumberFormatException exception)
+    } // end of method parseKey(String id)
+
+    /*
+     * Returns the index of the corpus language named by a direction, or -1 if the corpus does
+     * not have it. English and French may be spelled out.
+     */
+    private int parseLanguage(String direction)
+    {
+        if (direction == null)
+        {
+            return -1;
+        } // end of if (direction == null)
+
+        String languageCode = direction.strip().toLowerCase(Locale.ROOT);
+        if (languageCode.equals("english"))
+        {
+            languageCode = "en";
+        }
+        else if (languageCode.equals("french"))
+        {
+            languageCode = "fr";
+        } // end of if (languageCode.equals("english"))
+
+        return corpus.indexOfLanguage(languageCode);
+    } // end of method parseLanguage(String direction)
+
+    /*
+     * Quotes a field for CSV if it holds a comma, a quote or a line break.
+     */
+    private static String csvField(String field)
+    {
+        if (field == null)
+        {
+            return "";
+        } // end of if (field == null)
+
+        for (int index = 0; index < field.length(); index++)
+        {
+            char character = field.charAt(index);
+            if (character == ',' || character == '"' || character == '\n' || character == '\r')
+            {
+                return "\"" + field.replace("\"", "\"\"") + "\"";
+            } // end of if (character == ',' || character == '"' || character == '\n' || character == '\r')
+        } // end of for (int index = 0; index < field.length(); index++)
+
+        return field;
+    } // end of method csvField(String field)
+
+    /**
+     * Grades an answer sheet against the game's sentences.
+     *
+     * @param argument the answer sheet and the results file
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] argument) throws IOException
+    {
+        if (argument.length < 2)
+        {
+            System.err.println("Usage: java BatchGrader <answer sheet (.csv or .jsonl)> <results file>");
+            System.exit(1);
+        } // end of if (argument.length < 2)
+
+        GameCorpus corpus = new File(DECK_FILE).isFile()
+            ? GameCorpus.loadDeck(DECK_FILE, CORPUS_FILE, ANSWER_NORMALIZER, TYPO_TOLERANCE)
+            : GameCorpus.load(ENGLISH_SENTENCES, FRENCH_SENTENCES, CORPUS_FILE, ANSWER_NORMALIZER, TYPO_TOLERANCE);
+        long startTime = System.nanoTime();
+        Totals totals = new BatchGrader(corpus).grade(argument[0], argument[1]);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        System.out.println("Graded " + totals.getRows() + " rows in " + elapsedMillis + " ms into " + argument[1]);
+        System.out.println(totals);
+    } // end of method main(String[] argument)
+
+    /* public classes */
+    /**
+     * The number of answers graded in each language, and how many were accepted.
+     */
+    public static class Totals
+    {
+        // instance fields
+        private final List<String> languages;
+        private final long[] answered;
+        private final long[] correct;
+        private final long[] typosForgiven;
+        private long invalid;
+
+        /* constructors */
+        /*
+         * Constructs empty totals for the given languages.
+         */
+        private Totals(List<String> languages)
+        {
+            this.languages = languages;
+            answered = new long[languages.size()];
+            correct = new long[languages.size()];
+            typosForgiven = new long[languages.size()];
+            invalid = 0;
+        } // end of constructor Totals(List<String> languages)
+
+        /* accessors */
+        /**
+         * Returns the language codes the totals are kept for.
+         *
+         * @return the language codes of the corpus
+         */
+        public List<String> getLanguages()
+        {
+            return languages;
+        } // end of method getLanguages()
+
+        /**
+         * Returns the number of valid answers in one language.
+         *
+         * @param language an index into getLanguages()
+         * @return the number of answers
+         */
+        public long getAnswered(int language)
+        {
+            return answered[language];
+        } // end of method getAnswered(int language)
+
+        /**
+         * Returns the number of accepted answers in one language, typing mistakes included.
+         *
+         * @param language an index into getLanguages()
+         * @return the number of correct answers
+         */
+        public long getCorrect(int language)
+        {
+            return correct[language];
+        } // end of method getCorrect(int language)
+
+        /**
+         * Returns the number of answers in one language that were accepted despite a typing mistake.
+         *
+         * @param language an index into getLanguages()
+         * @return the number of forgiven answers
+         */
+        public long getTyposForgiven(int language)
+        {
+            return typosForgiven[language];
+        } // end of method getTyposForgiven(int language)
+
+        /**
+         * Returns the number of rows that could not be graded.
+         *
+         * @return the number of invalid rows
+         */
+        public long getInvalid()
+        {
+            return invalid;
+        } // end of method getInvalid()
+
+        /**
+         * Returns the number of rows read, valid or not.
+         *
+         * @return the number of rows
+         */
+        public long getRows()
+        {
+            long rows = invalid;
+            for (long languageAnswered : answered)
+            {
+                rows += languageAnswered;
+            } // end of for (long languageAnswered : answered)
+
+            return rows;
+        } // end of method getRows()
+
+        /**
+         * Returns the totals as text.
+         *
+         * @return the totals
+         */
+        public String toString()
+        {
+            StringBuilder text = new StringBuilder();
+            for (int language = 0; language < languages.size(); language++)
+            {
+                text.append(languages.get(language)).append(": ").append(correct[language]).append(" of ")
+                    .append(answered[language]).append(" correct, ");
+            } // end of for (int language = 0; language < languages.size(); language++)
+
+            return text.append(invalid).append(" invalid").toString();
+        } // end of method toString()
+
+        /* mutators */
+        /*
+         * Counts one graded row.
+         */
+        private void count(byte outcome, int language, int distance)
+        {
+            if (outcome == INVALID)
+            {
+                invalid++;
+                return;
+            } // end of if (outcome == INVALID)
+
+            answered[language]++;
+            if (outcome == CORRECT)
+            {
+                correct[language]++;
+                if (distance > 0)
+                {
+                    typosForgiven[language]++;
+                } // end of if (distance > 0)
+            } // end of if (outcome == CORRECT)
+        } // end of method count(byte outcome, int language, int distance)
+    } // end of class Totals
+
+    /* private classes */
+    /*
+     * A run of rows read from the answer sheet and, once graded, their results.
+     */
+    private static class Chunk
+    {
+        // instance fields
+        private final long firstRow;
+        private final String[] ids;
+        private final String[] directions;
+        private final String[] answers;
+        private final String[] problems;
+        private final String[] lines;
+        private final byte[] outcomes;
+        private final int[] languages;
+        private final int[] distances;
+        private int size;
+        private ForkJoinTask<?> task;
+
+        /* constructors */
+        /*
+         * Constructs an empty chunk whose first row has the given number in the sheet.
+         */
+        private Chunk(long firstRow)
+        {
+            this.firstRow = firstRow;
+            ids = new String[CHUNK_ROWS];
+            directions = new String[CHUNK_ROWS];
+            answers = new String[CHUNK_ROWS];
+            problems = new String[CHUNK_ROWS];
+            lines = new String[CHUNK_ROWS];
+            outcomes = new byte[CHUNK_ROWS];
+            languages = new int[CHUNK_ROWS];
+            distances = new int[CHUNK_ROWS];
+            size = 0;
+            task = null;
+        } // end of constructor Chunk(long firstRow)
+
+        /* mutators */
+        /*
+         * Adds a row; any field may be null if the row did not have it.
+         */
+        private void add(String id, String direction, String answer)
+        {
+            ids[size] = id;
+            directions[size] = direction;
+            answers[size] = answer;
+            size++;
+        } // end of method add(String id, String direction, String answer)
+
+        /*
+         * Adds a row that could not be read, with the reason it is reported as invalid.
+         */
+        private void addInvalid(String id, String direction, String problem)
+        {
+            problems[size] = problem;
+            add(id, direction, null);
+        } // end of method addInvalid(String id, String direction, String problem)
+    } // end of class Chunk
+
+    /*
+     * Grades a range of a chunk's rows, splitting it in half until it is small.
+     */
+    private class GradeTask extends RecursiveAction
+    {
+        // class constants
+        private static final long serialVersionUID = 1L;
+
+        // instance fields
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+
+        /* constructors */
+        /*
+         * Constructs a task for the rows from 'from' up to, but not including, 'to'.
+         */
+        private GradeTask(Chunk chunk, int from, int to)
+        {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        } // end of constructor GradeTask(Chunk chunk, int from, int to)
+
+        /* mutators */
+        /*
+         * Grades the rows, or splits them between two tasks.
+         */
+        protected void compute()
+        {
+            if (to - from <= SPLIT_ROWS)
+            {
+                gradeRows(chunk, from, to);
+                return;
+            } // end of if (to - from <= SPLIT_ROWS)
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new GradeTask(chunk, from, middle), new GradeTask(chunk, middle, to));
+        } // end of method compute()
+    } // end of class GradeTask
+
+    /*
+     * Reads the rows of an answer sheet a chunk at a time.
+     */
+    private abstract static class RowReader
+    {
+        // instance fields
+        private long rowsRead;
+
+        /* constructors */
+        /*
+         * Constructs a reader that has read no rows.
+         */
+        private RowReader()
+        {
+            rowsRead = 0;
+        } // end of constructor RowReader()
+
+        /* mutators */
+        /*
+         * Returns the next chunk of rows, or null at the end of the sheet.
+         */
+        private Chunk readChunk() throws IOException
+        {
+            Chunk chunk = new Chunk(rowsRead + 1);
+            while (chunk.size < CHUNK_ROWS && readRow(chunk))
+            {
+                rowsRead++;
+            } // end of while (chunk.size < CHUNK_ROWS && readRow(chunk))
+
+            return (chunk.size == 0) ? null : chunk;
+        } // end of method readChunk()
+
+        /*
+         * Adds the next row to the chunk, or returns false at the end of the sheet.
+         */
+        abstract boolean readRow(Chunk chunk) throws IOException;
+    } // end of class RowReader
+
+    /*
+     * Reads CSV rows of id, direction and answer. Quoted fields may hold commas, doubled
+     * quotes and line breaks. A first row whose id is not a number and whose fields look
+     * like column names is taken as a header. A field longer than MAXIMUM_FIELD_LENGTH,
+     * such as one whose opening quote is never closed, ends at the next line break and its
+     * row is reported as invalid, so one stray quote cannot swallow the rest of the sheet.
+     */
+    private static class CsvReader extends RowReader
+    {
+        // instance fields
+        private final Reader input;
+        private final ArrayList<String> fields;
+        private final StringBuilder field;
+        private boolean firstRow;
+        private boolean overlong;
+
+        /* constructors */
+        /*
+         * Constructs a reader over the given input.
+         */
+        private CsvReader(Reader input)
+        {
+            this.input = input;
+            fields = new ArrayList<String>();
+            field = new StringBuilder();
+            firstRow = true;
+            overlong = false;
+        } // end of constructor CsvReader(Reader input)
+
+        /* mutators */
+        /*
+         * Adds the next row that is not blank and not the header.
+         */
+        boolean readRow(Chunk chunk) throws IOException
+        {
+            while (readRecord())
+            {
+                boolean header = firstRow && !overlong && isHeader();
+                firstRow = false;
+                if (overlong)
+                {
+                    chunk.addInvalid(fields.get(0), (fields.size() > 1) ? fields.get(1) : null,
+                        "a field is longer than " + MAXIMUM_FIELD_LENGTH + " characters or its quote is not closed");
+                    return true;
+                }
+                else if (header || (fields.size() == 1 && fields.get(0).isBlank()))
+                {
+                    continue;
+                } // end of if (overlong)
+
+                chunk.add(fields.get(0), (fields.size() > 1) ? fields.get(1) : null,
+                    (fields.size() > 2) ? fields.get(2) : null);
+                return true;
+            } // end of while (readRecord())
+
+            return false;
+        } // end of method readRow(Chunk chunk)
+
+        /*
+         * Indicates whether the record just read is a header: at least three fields, the
+         * first not a number, and each of the first three a column name.
+         */
+        private boolean isHeader()
+        {
+            if (fields.size() < 3 || parseKey(fields.get(0)) >= 0)
+            {
+                return false;
+            } // end of if (fields.size() < 3 || parseKey(fields.get(0)) >= 0)
+
+            for (int index = 0; index < 3; index++)
+            {
+                if (!isColumnName(fields.get(index).strip()))
+                {
+                    return false;
+                } // end of if (!isColumnName(fields.get(index).strip()))
+            } // end of for (int index = 0; index < 3; index++)
+
+            return true;
+        } // end of method isHeader()
+
+        /*
+         * Indicates whether a field looks like a column name: a letter followed by letters,
+         * digits, spaces, hyphens or underscores.
+         */
+        private static boolean isColumnName(String name)
+        {
+            if (name.isEmpty() || !Character.isLetter(name.charAt(0)))
+            {
+                return false;
+            } // end of if (name.isEmpty() || !Character.isLetter(name.charAt(0)))
+
+            for (int index = 1; index < name.length(); index++)
+            {
+                char character = name.charAt(index);
+                if (!Character.isLetterOrDigit(character) && character != ' ' && character != '-' && character != '_')
+                {
+                    return false;
+                } // end of if (!Character.isLetterOrDigit(character) && ...)
+            } // end of for (int index = 1; index < name.length(); index++)
+
+            return true;
+        } // end of method isColumnName(String name)
+
+        /*
+         * Reads the fields of the next record, or returns false at the end of the input. A
+         * field that grows past the limit is cut short, the rest of its line is skipped and
+         * the record is marked overlong.
+         */
+        private boolean readRecord() throws IOException
+        {
+            fields.clear();
+            field.setLength(0);
+            overlong = false;
+            boolean quoted = false;
+            int character = input.read();
+            if (character < 0)
+            {
+                return false;
+            } // end of if (character < 0)
+
+            while (character >= 0)
+            {
+                if (field.length() >= MAXIMUM_FIELD_LENGTH)
+                {
+                    overlong = true;
+                    while (character >= 0 && character != '\n')
+                    {
+                        character = input.read();
+                    } // end of while (character >= 0 && character != '\n')
+                    break;
+                }
+                else if (quoted && character == '"')
+                {
+                    character = input.read();
+                    if (character != '"')
+                    {
+                        // a lone quote closes the field; whatever follows is read as usual
+                        quoted = false;
+                        continue;
+                    } // end of if (character != '"')
+                    field.append('"');
+                }
+                else if (quoted)
+                {
+                    field.append((char) character);
+                }
+                else if (character == '"' && field.length() == 0)
+                {
+                    quoted = true;
+                }
+                else if (character == ',')
+                {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                }
+                else if (character == '\n')
+                {
+                    break;
+                }
+                else if (character != '\r')
+                {
+                    field.append((char) character);
+                } // end of if (field.length() >= MAXIMUM_FIELD_LENGTH)
+                character = input.read();
+            } // end of while (character >= 0)
+
+            fields.add(field.toString());
+            return true;
+        } // end of method readRecord()
+    } // end of class CsvReader
+
+    /*
+     * Reads JSON lines holding flat objects with "id", "direction" and "answer" members.
+     * Other members are ignored; a line that is not such an object, or that is longer than
+     * MAXIMUM_LINE_LENGTH, becomes an invalid row with the reason.
+     */
+    private static class JsonLineReader extends RowReader
+    {
+        // instance fields
+        private final BufferedReader input;
+        private final StringBuilder lineBuffer;
+        private final StringBuilder value;
+        private String line;
+        private boolean overlong;
+        private int position;
+
+        /* constructors */
+        /*
+         * Constructs a reader over the given input.
+         */
+        private JsonLineReader(BufferedReader input)
+        {
+            this.input = input;
+            lineBuffer = new StringBuilder();
+            value = new StringBuilder();
+            line = null;
+            overlong = false;
+            position = 0;
+        } // end of constructor JsonLineReader(BufferedReader input)
+
+        /* mutators */
+        /*
+         * Adds the next line that is not blank.
+         */
+        boolean readRow(Chunk chunk) throws IOException
+        {
+            boolean read = readLine();
+            while (read && !overlong && line.isBlank())
+            {
+                read = readLine();
+            } // end of while (read && !overlong && line.isBlank())
+
+            if (!read)
+            {
+                return false;
+            }
+            else if (overlong)
+            {
+                chunk.addInvalid(null, null, "the line is longer than " + MAXIMUM_LINE_LENGTH + " characters");
+                return true;
+            } // end of if (!read)
+
+            String[] members = new String[3];
+            try
+            {
+                parseObject(members);
+            }
+            catch (IllegalArgumentException exception)
+            {
+                chunk.addInvalid(members[0], members[1], "the line is not a flat JSON object: "
+                    + exception.getMessage());
+                return true;
+            } // end of catch (IllegalArgumentException exception)
+
+            chunk.add(members[0], members[1], members[2]);
+            return true;
+        } // end of method readRow(Chunk chunk)
+
+        /*
+         * Reads the next line, or returns false at the end of the input. A line that grows
+         * past the limit is cut short, the rest of it is skipped and it is marked overlong.
+         */
+        private boolean readLine() throws IOException
+        {
+            lineBuffer.setLength(0);
+            overlong = false;
+            int character = input.read();
+            if (character < 0)
+            {
+                return false;
+            } // end of if (character < 0)
+
+            while (character >= 0 && character != '\n')
+            {
+                if (lineBuffer.length() < MAXIMUM_LINE_LENGTH)
+                {
+                    lineBuffer.append((char) character);
+                }
+                else
+                {
+                    overlong = true;
+                } // end of if (lineBuffer.length() < MAXIMUM_LINE_LENGTH)
+                character = input.read();
+            } // end of while (character >= 0 && character != '\n')
+
+            if (lineBuffer.length() > 0 && lineBuffer.charAt(lineBuffer.length() - 1) == '\r')
+            {
+                lineBuffer.setLength(lineBuffer.length() - 1);
+            } // end of if (lineBuffer.length() > 0 && ...)
+
+            line = lineBuffer.toString();
+            return true;
+        } // end of method readLine()
+
+        /*
+         * Parses the line as an object and keeps the id, direction and answer members.
+         */
+        private void parseObject(String[] members)
+        {
+            position = 0;
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}')
+            {
+                return;
+            } // end of if (peek() == '}')
+
+            while (true)
+            {
+                skipWhitespace();
+                String name = parseString();
+                expect(':');
+                skipWhitespace();
+                String memberValue = parseValue();
+
+                switch (name)
+                {
+                    case "id":
+                        members[0] = memberValue;
+                        break;
+                    case "direction":
+                        members[1] = memberValue;
+                        break;
+                    case "answer":
+                        members[2] = memberValue;
+                        break;
+                    default:
+                        break;
+                } // end of switch (name)
+
+                skipWhitespace();
+                if (peek() == '}')
+                {
+                    return;
+                } // end of if (peek() == '}')
+                expect(',');
+            } // end of while (true)
+        } // end of method parseObject(String[] members)
+
+        /*
+         * Parses a string, a number, true, false or null; null becomes a null value.
+         */
+        private String parseValue()
+        {
+            if (peek() == '"')
+            {
+                return parseString();
+            } // end of if (peek() == '"')
+
+            int start = position;
+            while (position < line.length() && ",}] \t".indexOf(line.charAt(position)) < 0)
+            {
+                position++;
+            } // end of while (position < line.length() && ...)
+
+            String literal = line.substring(start, position);
+            if (literal.isEmpty() || literal.charAt(0) == '{' || literal.charAt(0) == '[')
+            {
+                throw new IllegalArgumentException("only flat objects are supported");
+            } // end of if (literal.isEmpty() || ...)
+
+            return literal.equals("null") ? null : literal;
+        } // end of method parseValue()
+
+        /*
+         * Parses a quoted string, undoing its escapes.
+         */
+        private String parseString()
+        {
+            expect('"');
+            value.setLength(0);
+            while (true)
+            {
+                char character = next();
+                if (character == '"')
+                {
+                    return value.toString();
+                }
+                else if (character != '\\')
+                {
+                    value.append(character);
+                    continue;
+                } // end of if (character == '"')
+
+                char escape = next();
+                switch (escape)
+                {
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'u':
+                        if (position + 4 > line.length())
+                        {
+                            throw new IllegalArgumentException("truncated escape");
+                        } // end of if (position + 4 > line.length())
+                        value.append((char) Integer.parseInt(line.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default:
+                        value.append(escape);
+                        break;
+                } // end of switch (escape)
+            } // end of while (true)
+        } // end of method parseString()
+
+        /*
+         * Skips the given character, which must come next after any whitespace.
+         */
+        private void expect(char expected)
+        {
+            skipWhitespace();
+            if (next() != expected)
+            {
+                throw new IllegalArgumentException("expected " + expected);
+            } // end of if (next() != expected)
+        } // end of method expect(char expected)
+
+        /*
+         * Returns the next character without consuming it, or 0 at the end of the line.
+         */
+        private char peek()
+        {
+            return (position < line.length()) ? line.charAt(position) : 0;
+        } // end of method peek()
+
+        /*
+         * Consumes and returns the next character.
+         */
+        private char next()
+        {
+            if (position >= line.length())
+            {
+                throw new IllegalArgumentException("unexpected end of line");
+            } // end of if (position >= line.length())
+            return line.charAt(position++);
+        } // end of method next()
+
+        /*
+         * Skips spaces and tabs.
+         */
+        private void skipWhitespace()
+        {
+            while (position < line.length() && Character.isWhitespace(line.charAt(position)))
+            {
+                position++;
+            } // end of while (position < line.length() && ...)
+        } // end of method skipWhitespace()
+    } // end of class JsonLineReader
+} // end of class BatchGrader
@@ -0,0 +1,212 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * A small benchmark harness in the spirit of JMH: each benchmark is warmed up, then
+ * measured over several fixed-length iterations, reporting the average time and the
+ * bytes allocated per operation. Results can be written as JMH-style JSON so that runs
+ * can be compared with the usual tools.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class BenchmarkRunner
+{
+    /** The code being measured. */
+    public interface Operation
+    {
+        /**
+         * Runs the operation once.
+         *
+         * @param invocation the number of this invocation within the iteration
+         * @return any value derived from the work, so the JIT cannot remove it
+         */
+        long run(int invocation) throws Exception;
+    } // end of interface Operation
+
+    // class constants
+    private static final long NANOS_PER_MILLISECOND = 1000000L;
+
+    // instance fields
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final ArrayList<String> jsonResults;
+    private long sink;
+
+    /* constructors */
+    /**
+     * Constructs a runner.
+     *
+     * @param warmupIterations the number of unmeasured iterations before measuring
+     * @param measurementIterations the number of measured iterations
+     * @param iterationMillis the length of each iteration in milliseconds
+     */
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis)
+    {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * NANOS_PER_MILLISECOND;
+        jsonResults = new ArrayList<String>();
+        sink = 0;
+    } // end of constructor BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis)
+
+    /* accessors */
+    /**
+     * Returns a value derived from every operation run so far. Printing it keeps the JIT
+     * from treating the measured work as dead code.
+     *
+     * @return the combined results
+     */
+    public long getSink()
+    {
+        return sink;
+    } // end of method getSink()
+
+    /* mutators */
+    /**
+     * Warms up and measures one benchmark, prints a line for it and keeps its result for JSON export.
+     *
+     * @param benchmark the benchmark name
+     * @param parameter a description of the parameters, e.g. "size=1000"
+     * @param operation the code to measure
+     * @return the average time per operation in nanoseconds
+     * @throws Exception if the operation fails
+     */
+    public double measure(String benchmark, String parameter, Operation operation) throws Exception
+    {
+        for (int iteration = 0; iteration < warmupIterations; iteration++)
+        {
+            runIteration(operation);
+        } // end of for (int iteration = 0; iteration < warmupIterations; iteration++)
+
+        double[] nanosPerOperation = new double[measurementIterations];
+        long totalOperations = 0;
+        long allocatedBefore = allocatedBytes();
+
+        for (int iteration = 0; iteration < measurementIterations; iteration++)
+        {
+            long startTime = System.nanoTime();
+            long operations = runIteration(operation);
+            nanosPerOperation[iteration] = (double) (System.nanoTime() - startTime) / operations;
+            totalOperations += operations;
+        } // end of for (int iteration = 0; iteration < measurementIterations; iteration++)
+
+        long allocated = allocatedBytes() - allocatedBefore;
+        double bytesPerOperation = (allocated < 0) ? Double.NaN : (double) allocated / totalOperations;
+
+        double mean = 0;
+        for (double value : nanosPerOperation)
+        {
+            mean += value / nanosPerOperation.length;
+        } // end of for (double value : nanosPerOperation)
+
+        double variance = 0;
+        for (double value : nanosPerOperation)
+        {
+            variance += (value - mean) * (value - mean) / Math.max(1, nanosPerOperation.length - 1);
+        } // end of for (double value : nanosPerOperation)
+        double error = Math.sqrt(variance);
+
+        System.out.println(String.format(Locale.ROOT, "%-32s %-14s %14.1f +- %10.1f ns/op %12.1f B/op",
+                benchmark, parameter, mean, error, bytesPerOperation));
+        jsonResults.add(toJson(benchmark, parameter, mean, error, nanosPerOperation, bytesPerOperation));
+
+        return mean;
+    } // end of method measure(String benchmark, String parameter, Operation operation)
+
+    /**
+     * Writes every result measured so far to a JSON file in the layout JMH uses.
+     *
+     * @param fileName the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeJson(String fileName) throws IOException
+    {
+        try (PrintWriter output = new PrintWriter(new FileWriter(fileName)))
+        {
+            output.println("[");
+            for (int result = 0; result < jsonResults.size(); result++)
+            {
+                output.print(jsonResults.get(result));
+                output.println((result + 1 < jsonResults.size()) ? "," : "");
+            } // end of for (int result = 0; result < jsonResults.size(); result++)
+            output.println("]");
+        } // end of try
+    } // end of method writeJson(String fileName)
+
+    /* private methods */
+    /*
+     * Runs the operation repeatedly for one iteration's length and returns how many times it ran.
+     */
+    private long runIteration(Operation operation) throws Exception
+    {
+        long deadline = System.nanoTime() + iterationNanos;
+        int operations = 0;
+
+        do
+        {
+            sink += operation.run(operations);
+            operations++;
+        } while (System.nanoTime() < deadline);
+
+        return operations;
+    } // end of method runIteration(Operation operation)
+
+    /*
+     * Returns the bytes allocated so far by the current thread, or -1 if the JVM cannot tell.
+     */
+    private static long allocatedBytes()
+    {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean)
+        {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        } // end of if (threads instanceof com.sun.management.ThreadMXBean)
+
+        return -1;
+    } // end of method allocatedBytes()
+
+    /*
+     * Formats one result the way JMH's JSON output does.
+     */
+    private static String toJson(String benchmark, String parameter, double mean, double error,
+        double[] rawData, double bytesPerOperation)
+    {
+        StringBuilder json = new StringBuilder();
+        json.append("  {\"benchmark\": \"").append(benchmark).append("\", \"mode\": \"avgt\", \"params\": {");
+
+        // "size=1000" becomes {"size": "1000"}
+        int separator = parameter.indexOf('=');
+        if (separator > 0)
+        {
+            json.append('"').append(parameter, 0, separator).append("\": \"")
+                .append(parameter.substring(separator + 1)).append('"');
+        } // end of if (separator > 0)
+
+        json.append("}, \"primaryMetric\": {\"score\": ").append(format(mean))
+            .append(", \"scoreError\": ").append(format(error))
+            .append(", \"scoreUnit\": \"ns/op\", \"rawData\": [[");
+        for (int value = 0; value < rawData.length; value++)
+        {
+            json.append((value > 0) ? ", " : "").append(format(rawData[value]));
+        } // end of for (int value = 0; value < rawData.length; value++)
+        json.append("]]}, \"secondaryMetrics\": {\"gc.alloc.rate.norm\": {\"score\": ")
+            .append(Double.isNaN(bytesPerOperation) ? "null" : format(bytesPerOperation))
+            .append(", \"scoreUnit\": \"B/op\"}}}");
+
+        return json.toString();
+    } // end of method toJson(String benchmark, String parameter, ...)
+
+    /*
+     * Formats a number for JSON.
+     */
+    private static String format(double value)
+    {
+        return String.format(Locale.ROOT, "%.3f", value);
+    } // end of method format(double value)
+} // end of class BenchmarkRunner
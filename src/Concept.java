@@ -0,0 +1,119 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One entry of a corpus: the same concept written in each of the corpus's languages,
+ * with every translation that is accepted as an answer. The first translation in each
+ * language is the one shown when the concept is posed.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class Concept
+{
+    // instance fields
+    private final List<String> languages;
+    private final List<List<String>> translations;
+
+    /* constructors */
+    /**
+     * Constructs a concept from its translations, given in the same order as the languages.
+     * A language with no translations is allowed; the concept simply cannot be posed in it.
+     *
+     * @param languages the language codes of the corpus, such as "en" and "fr"
+     * @param translations the accepted translations in each language
+     * @throws IllegalArgumentException if there is not one list of translations per language
+     */
+    public Concept(List<String> languages, List<List<String>> translations)
+    {
+        if (languages.size() != translations.size())
+        {
+            throw new IllegalArgumentException("Expected translations in " + languages.size() + " languages, got "
+                + translations.size());
+        } // end of if (languages.size() != translations.size())
+
+        this.languages = languages;
+        this.translations = translations;
+    } // end of constructor Concept(List<String> languages, List<List<String>> translations)
+
+    /**
+     * Constructs a concept with one translation in each language.
+     *
+     * @param languages the language codes of the corpus, such as "en" and "fr"
+     * @param translations one translation per language, in the same order
+     */
+    public Concept(List<String> languages, String... translations)
+    {
+        this(languages, singletons(translations));
+    } // end of constructor Concept(List<String> languages, String... translations)
+
+    /* accessors */
+    /**
+     * Returns the language codes of this concept's corpus.
+     *
+     * @return the language codes
+     */
+    public List<String> getLanguages()
+    {
+        return Collections.unmodifiableList(languages);
+    } // end of method getLanguages()
+
+    /**
+     * Returns every accepted translation in the given language, the shown one first.
+     *
+     * @param language an index into getLanguages()
+     * @return the translations, possibly none
+     */
+    public List<String> getTranslations(int language)
+    {
+        return Collections.unmodifiableList(translations.get(language));
+    } // end of method getTranslations(int language)
+
+    /**
+     * Returns the translation shown when this concept is posed in the given language.
+     *
+     * @param language an index into getLanguages()
+     * @return the first translation, or null if there is none
+     */
+    public String getText(int language)
+    {
+        List<String> languageTranslations = translations.get(language);
+        return languageTranslations.isEmpty() ? null : languageTranslations.get(0);
+    } // end of method getText(int language)
+
+    /**
+     * Returns the concept as its translations, separated by " / ".
+     *
+     * @return the concept as text
+     */
+    public String toString()
+    {
+        StringBuilder text = new StringBuilder();
+        for (int language = 0; language < languages.size(); language++)
+        {
+            if (language > 0)
+            {
+                text.append(" / ");
+            } // end of if (language > 0)
+            text.append(languages.get(language)).append(": ").append(String.join("|", translations.get(language)));
+        } // end of for (int language = 0; language < languages.size(); language++)
+
+        return text.toString();
+    } // end of method toString()
+
+    /* private methods */
+    /*
+     * Wraps each translation in a list of its own.
+     */
+    private static List<List<String>> singletons(String[] translations)
+    {
+        ArrayList<List<String>> lists = new ArrayList<List<String>>(translations.length);
+        for (String translation : translations)
+        {
+            lists.add(Collections.singletonList(translation));
+        } // end of for (String translation : translations)
+
+        return lists;
+    } // end of method singletons(String[] translations)
+} // end of class Concept
@@ -0,0 +1,505 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes precompiled corpus files. A corpus file holds a CorpusStore exactly
+ * as it sits in memory, so the game can memory-map it and start without parsing a single
+ * line. The deck or sentence files stay the editable source: each corpus file records the
+ * size and modification time of the files it was compiled from, and is ignored once they
+ * change or disappear.
+ *
+ * Opening a corpus file checks the header and the tables against one checksum and the text
+ * region against another, since the store trusts both: a damaged offset or a damaged UTF-8
+ * lead byte would send it reading past a string's end. A file that fails either check is
+ * ignored and the sources are read instead.
+ *
+ * <pre>
+ * offset  size  field (little-endian)
+ *      0     8  magic "TGCORPUS"
+ *      8     4  format version
+ *     12     4  flags: 1 if the grading keys have accents removed
+ *     16     4  number of concepts
+ *     20     4  number of languages
+ *     24     4  number of answers
+ *     28     4  number of strings
+ *     32     4  length of the text region in bytes
+ *     36     4  CRC-32C of the header, with this field as 0, and the tables
+ *     40     4  number of source files, 1 for a deck or 2 for English and French files
+ *     44     4  CRC-32C of the text region
+ *     48    16  first source file size and modification time in milliseconds
+ *     64    16  second source file size and modification time, or 0 and 0
+ *     80        concept table: concepts * languages + 1 ints
+ *               answer table: 2 ints per answer
+ *               string table: strings + 1 ints
+ *               UTF-8 text region
+ * </pre>
+ *
+ * To compile the game's sentences, or a deck, ahead of time:
+ *
+ * <pre>
+ * java CorpusFile englishSentences.txt frenchSentences.txt sentences.corpus [strict]
+ * java CorpusFile sentences.tsv sentences.corpus [strict]
+ * </pre>
+ *
+ * To check every byte of a corpus file:
+ *
+ * <pre>
+ * java CorpusFile sentences.corpus
+ * </pre>
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class CorpusFile
+{
+    // class constants
+    /** The version of the format written by this class. */
+    public static final int FORMAT_VERSION = 5;
+
+    private static final byte[] MAGIC = "TGCORPUS".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_BYTES = 80;
+    private static final int FOLD_ACCENTS_FLAG = 1;
+    private static final String STRICT_OPTION = "strict";
+
+    private static final int VERSION_POSITION = 8;
+    private static final int FLAGS_POSITION = 12;
+    private static final int SIZE_POSITION = 16;
+    private static final int LANGUAGE_COUNT_POSITION = 20;
+    private static final int ANSWER_COUNT_POSITION = 24;
+    private static final int STRING_COUNT_POSITION = 28;
+    private static final int TEXT_LENGTH_POSITION = 32;
+    private static final int CHECKSUM_POSITION = 36;
+    private static final int SOURCE_COUNT_POSITION = 40;
+    private static final int TEXT_CHECKSUM_POSITION = 44;
+    private static final int FIRST_STAMP_POSITION = 48;
+    private static final int STAMP_BYTES = 16;
+
+    /* constructors */
+    /*
+     * Corpus files are only read and written through the static methods.
+     */
+    private CorpusFile()
+    {
+    } // end of constructor CorpusFile()
+
+    /**
+     * Returns the concepts from a corpus file if it is current, or else from the English and
+     * French sentence files, compiling a fresh corpus file from them for next time. A corpus
+     * file that cannot be used or written is reported and otherwise ignored.
+     *
+     * @param corpusFileName the precompiled corpus file
+     * @param englishFileName the file holding one English sentence per line
+     * @param frenchFileName the file holding the matching French sentence on each line
+     * @param normalizer the normalizer used to grade answers
+     * @return the store
+     * @throws IOException if the sentence files are needed and cannot be read
+     */
+    public static CorpusStore load(String corpusFileName, String englishFileName, String frenchFileName,
+        AnswerNormalizer normalizer) throws IOException
+    {
+        return load(corpusFileName, normalizer, englishFileName, frenchFileName);
+    } // end of method load(String corpusFileName, String englishFileName, String frenchFileName, ...)
+
+    /**
+     * Returns the concepts from a corpus file if it is current, or else from the deck file,
+     * compiling a fresh corpus file from it for next time.
+     *
+     * @param corpusFileName the precompiled corpus file
+     * @param deckFileName the tab-separated deck
+     * @param normalizer the normalizer used to grade answers
+     * @return the store
+     * @throws IOException if the deck is needed and cannot be read
+     */
+    public static CorpusStore loadDeck(String corpusFileName, String deckFileName, AnswerNormalizer normalizer)
+        throws IOException
+    {
+        return load(corpusFileName, normalizer, deckFileName);
+    } // end of method loadDeck(String corpusFileName, String deckFileName, AnswerNormalizer normalizer)
+
+    /**
+     * Memory-maps a corpus file, provided it was compiled with the given normalizer from the
+     * current versions of the given source files: a deck, or English and French sentence files.
+     *
+     * @param corpusFileName the precompiled corpus file
+     * @param normalizer the normalizer the grading keys should have been made with
+     * @param sourceFileNames the deck, or the English and French files, it should have been compiled from
+     * @return the store, or null if the corpus file is missing or stale
+     * @throws IOException if the corpus file cannot be read or its header or tables are damaged
+     */
+    public static CorpusStore open(String corpusFileName, AnswerNormalizer normalizer, String... sourceFileNames)
+        throws IOException
+    {
+        Path corpusPath = Paths.get(corpusFileName);
+        if (!Files.isRegularFile(corpusPath))
+        {
+            return null;
+        } // end of if (!Files.isRegularFile(corpusPath))
+
+        try (FileChannel channel = FileChannel.open(corpusPath, StandardOpenOption.READ))
+        {
+            ByteBuffer header = readHeader(channel, corpusFileName);
+            if (header.getInt(VERSION_POSITION) != FORMAT_VERSION
+                || (header.getInt(FLAGS_POSITION) == FOLD_ACCENTS_FLAG) != normalizer.getFoldAccents()
+                || header.getInt(SOURCE_COUNT_POSITION) != sourceFileNames.length)
+            {
+                return null;
+            } // end of if (header.getInt(VERSION_POSITION) != FORMAT_VERSION ...)
+
+            for (int source = 0; source < sourceFileNames.length; source++)
+            {
+                if (!stampMatches(header, FIRST_STAMP_POSITION + source * STAMP_BYTES, sourceFileNames[source]))
+                {
+                    return null;
+                } // end of if (!stampMatches(header, ...))
+            } // end of for (int source = 0; source < sourceFileNames.length; source++)
+
+            return map(channel, header);
+        } // end of try
+    } // end of method open(String corpusFileName, AnswerNormalizer normalizer, String... sourceFileNames)
+
+    /**
+     * Checks every byte of a corpus file against its checksums, whichever files it was
+     * compiled from.
+     *
+     * @param corpusFileName the corpus file to check
+     * @return the store the file holds
+     * @throws IOException if the corpus file cannot be read or is damaged
+     */
+    public static CorpusStore verify(String corpusFileName) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(Paths.get(corpusFileName), StandardOpenOption.READ))
+        {
+            return map(channel, readHeader(channel, corpusFileName));
+        } // end of try
+    } // end of method verify(String corpusFileName)
+
+    /**
+     * Compiles a pair of sentence files into a corpus file.
+     *
+     * @param englishFileName the file holding one English sentence per line
+     * @param frenchFileName the file holding the matching French sentence on each line
+     * @param normalizer the normalizer used to grade answers
+     * @param corpusFileName the corpus file to write
+     * @return the compiled store
+     * @throws IOException if a file cannot be read or written
+     */
+    public static CorpusStore compile(String englishFileName, String frenchFileName, AnswerNormalizer normalizer,
+        String corpusFileName) throws IOException
+    {
+        return compile(normalizer, corpusFileName, englishFileName, frenchFileName);
+    } // end of method compile(String englishFileName, String frenchFileName, AnswerNormalizer normalizer, ...)
+
+    /**
+     * Compiles a deck file into a corpus file.
+     *
+     * @param deckFileName the tab-separated deck
+     * @param normalizer the normalizer used to grade answers
+     * @param corpusFileName the corpus file to write
+     * @return the compiled store
+     * @throws IOException if a file cannot be read or written
+     */
+    public static CorpusStore compileDeck(String deckFileName, AnswerNormalizer normalizer, String corpusFileName)
+        throws IOException
+    {
+        return compile(normalizer, corpusFileName, deckFileName);
+    } // end of method compileDeck(String deckFileName, AnswerNormalizer normalizer, String corpusFileName)
+
+    /* private methods */
+    /*
+     * Opens the corpus file if it is current, else reads the sources and compiles it again.
+     */
+    private static CorpusStore load(String corpusFileName, AnswerNormalizer normalizer, String... sourceFileNames)
+        throws IOException
+    {
+        try
+        {
+            CorpusStore store = open(corpusFileName, normalizer, sourceFileNames);
+            if (store != null)
+            {
+                return store;
+            } // end of if (store != null)
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Ignoring corpus file " + corpusFileName + ": " + exception.getMessage());
+        } // end of catch (IOException exception)
+
+        // stamp the sources before reading them, so an edit made meanwhile leaves the file stale
+        long[][] stamps = stamps(sourceFileNames);
+        CorpusStore store = readSources(normalizer, sourceFileNames);
+
+        try
+        {
+            write(store, normalizer, stamps, corpusFileName);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Could not write corpus file " + corpusFileName + ": " + exception.getMessage());
+        } // end of catch (IOException exception)
+
+        return store;
+    } // end of method load(String corpusFileName, AnswerNormalizer normalizer, String... sourceFileNames)
+
+    /*
+     * Reads the sources and writes the corpus file, failing if either cannot be done.
+     */
+    private static CorpusStore compile(AnswerNormalizer normalizer, String corpusFileName,
+        String... sourceFileNames) throws IOException
+    {
+        long[][] stamps = stamps(sourceFileNames);
+        CorpusStore store = readSources(normalizer, sourceFileNames);
+
+        write(store, normalizer, stamps, corpusFileName);
+        return store;
+    } // end of method compile(AnswerNormalizer normalizer, String corpusFileName, String... sourceFileNames)
+
+    /*
+     * Reads a deck, or a pair of English and French files, into a store.
+     */
+    private static CorpusStore readSources(AnswerNormalizer normalizer, String... sourceFileNames)
+        throws IOException
+    {
+        return (sourceFileNames.length == 1) ? CorpusLoader.loadStore(sourceFileNames[0], normalizer)
+            : CorpusLoader.loadStore(sourceFileNames[0], sourceFileNames[1], normalizer);
+    } // end of method readSources(AnswerNormalizer normalizer, String... sourceFileNames)
+
+    /*
+     * Returns the size and modification time of each source file.
+     */
+    private static long[][] stamps(String... sourceFileNames) throws IOException
+    {
+        long[][] stamps = new long[sourceFileNames.length][];
+        for (int source = 0; source < sourceFileNames.length; source++)
+        {
+            stamps[source] = stamp(sourceFileNames[source]);
+        } // end of for (int source = 0; source < sourceFileNames.length; source++)
+
+        return stamps;
+    } // end of method stamps(String... sourceFileNames)
+
+    /*
+     * Maps the tables and text region described by a header, checking the header and the
+     * tables against one checksum and the text region against the other.
+     */
+    private static CorpusStore map(FileChannel channel, ByteBuffer header) throws IOException
+    {
+        int size = header.getInt(SIZE_POSITION);
+        int languageCount = header.getInt(LANGUAGE_COUNT_POSITION);
+        int answerCount = header.getInt(ANSWER_COUNT_POSITION);
+        int stringCount = header.getInt(STRING_COUNT_POSITION);
+        int textLength = header.getInt(TEXT_LENGTH_POSITION);
+        long conceptBytes = ((long) size * languageCount + 1) * Integer.BYTES;
+        long answerBytes = (long) answerCount * CorpusStore.INTS_PER_ANSWER * Integer.BYTES;
+        long stringBytes = ((long) stringCount + 1) * Integer.BYTES;
+        if (size < 0 || languageCount < 0 || answerCount < 0 || stringCount < languageCount || textLength < 0
+            || channel.size() != HEADER_BYTES + conceptBytes + answerBytes + stringBytes + textLength)
+        {
+            throw new IOException("its size does not match its header");
+        } // end of if (size < 0 || ...)
+
+        // the mappings stay valid after the channel is closed
+        ByteBuffer tableRegion = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+            conceptBytes + answerBytes + stringBytes).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer textRegion = channel.map(FileChannel.MapMode.READ_ONLY,
+            HEADER_BYTES + conceptBytes + answerBytes + stringBytes, textLength);
+
+        if (indexChecksum(header, tableRegion) != header.getInt(CHECKSUM_POSITION))
+        {
+            throw new IOException("the checksum of the header and tables does not match");
+        } // end of if (indexChecksum(header, tableRegion) != header.getInt(CHECKSUM_POSITION))
+
+        CRC32C textChecksum = new CRC32C();
+        textChecksum.update(textRegion.duplicate());
+        if ((int) textChecksum.getValue() != header.getInt(TEXT_CHECKSUM_POSITION))
+        {
+            throw new IOException("the checksum of the text does not match");
+        } // end of if ((int) textChecksum.getValue() != header.getInt(TEXT_CHECKSUM_POSITION))
+
+        return new CorpusStore(languageCount, slice(tableRegion, 0, conceptBytes),
+            slice(tableRegion, conceptBytes, answerBytes), slice(tableRegion, conceptBytes + answerBytes,
+            stringBytes), textRegion, size);
+    } // end of method map(FileChannel channel, ByteBuffer header)
+
+    /*
+     * Returns the checksum of a header, with its checksum field taken as 0, and the tables.
+     */
+    private static int indexChecksum(ByteBuffer header, ByteBuffer tableRegion)
+    {
+        CRC32C checksum = new CRC32C();
+        checksum.update(header.duplicate().clear().limit(CHECKSUM_POSITION));
+        checksum.update(new byte[Integer.BYTES]);
+        checksum.update(header.duplicate().clear().position(CHECKSUM_POSITION + Integer.BYTES));
+        checksum.update(tableRegion.duplicate());
+        return (int) checksum.getValue();
+    } // end of method indexChecksum(ByteBuffer header, ByteBuffer tableRegion)
+
+    /*
+     * Returns an int view of part of the little-endian table region.
+     */
+    private static IntBuffer slice(ByteBuffer tableRegion, long start, long length)
+    {
+        return tableRegion.duplicate().position((int) start).limit((int) (start + length)).slice()
+            .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    } // end of method slice(ByteBuffer tableRegion, long start, long length)
+
+    /*
+     * Returns the size and modification time of a source file.
+     */
+    private static long[] stamp(String fileName) throws IOException
+    {
+        BasicFileAttributes attributes = Files.readAttributes(Paths.get(fileName), BasicFileAttributes.class);
+        return new long[] {attributes.size(), attributes.lastModifiedTime().toMillis()};
+    } // end of method stamp(String fileName)
+
+    /*
+     * Indicates whether a source file still exists with the size and modification time
+     * recorded in the header.
+     */
+    private static boolean stampMatches(ByteBuffer header, int position, String fileName)
+    {
+        try
+        {
+            long[] current = stamp(fileName);
+            return header.getLong(position) == current[0] && header.getLong(position + Long.BYTES) == current[1];
+        }
+        catch (IOException exception)
+        {
+            return false;
+        } // end of catch (IOException exception)
+    } // end of method stampMatches(ByteBuffer header, int position, String fileName)
+
+    /*
+     * Reads and checks the fixed-size header of a corpus file.
+     */
+    private static ByteBuffer readHeader(FileChannel channel, String corpusFileName) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header) >= 0)
+        {
+            // keep reading until the header is full or the file ends
+        } // end of while (header.hasRemaining() && channel.read(header) >= 0)
+
+        for (int index = 0; index < MAGIC.length; index++)
+        {
+            if (header.hasRemaining() || header.get(index) != MAGIC[index])
+            {
+                throw new IOException(corpusFileName + " is not a corpus file");
+            } // end of if (header.hasRemaining() || header.get(index) != MAGIC[index])
+        } // end of for (int index = 0; index < MAGIC.length; index++)
+
+        return header;
+    } // end of method readHeader(FileChannel channel, String corpusFileName)
+
+    /*
+     * Writes a store to a temporary file beside the corpus file, then moves it into place so
+     * that readers never see a half-written corpus.
+     */
+    private static void write(CorpusStore store, AnswerNormalizer normalizer, long[][] stamps,
+        String corpusFileName) throws IOException
+    {
+        IntBuffer conceptTable = store.getConceptTable();
+        IntBuffer answerTable = store.getAnswerTable();
+        IntBuffer stringTable = store.getStringTable();
+        ByteBuffer tableRegion = ByteBuffer.allocate((conceptTable.remaining() + answerTable.remaining()
+            + stringTable.remaining()) * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        tableRegion.asIntBuffer().put(conceptTable).put(answerTable).put(stringTable);
+        ByteBuffer textRegion = store.getTextRegion();
+
+        CRC32C textChecksum = new CRC32C();
+        textChecksum.update(textRegion.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC)
+            .putInt(FORMAT_VERSION)
+            .putInt(normalizer.getFoldAccents() ? FOLD_ACCENTS_FLAG : 0)
+            .putInt(store.size())
+            .putInt(store.getLanguages().size())
+            .putInt(store.getAnswerTable().remaining() / CorpusStore.INTS_PER_ANSWER)
+            .putInt(store.getStringCount())
+            .putInt(textRegion.remaining())
+            .putInt(0)
+            .putInt(stamps.length)
+            .putInt((int) textChecksum.getValue());
+        for (long[] stamp : stamps)
+        {
+            header.putLong(stamp[0]).putLong(stamp[1]);
+        } // end of for (long[] stamp : stamps)
+        header.putInt(CHECKSUM_POSITION, indexChecksum(header, tableRegion));
+        header.position(HEADER_BYTES).flip();
+
+        Path corpusPath = Paths.get(corpusFileName).toAbsolutePath();
+        Path temporaryPath = Files.createTempFile(corpusPath.getParent(), corpusPath.getFileName().toString(), ".tmp");
+        try
+        {
+            try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE))
+            {
+                ByteBuffer[] regions = {header, tableRegion, textRegion};
+                while (header.hasRemaining() || tableRegion.hasRemaining() || textRegion.hasRemaining())
+                {
+                    channel.write(regions);
+                } // end of while (header.hasRemaining() || ...)
+                channel.force(true);
+            } // end of try
+
+            try
+            {
+                Files.move(temporaryPath, corpusPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException exception)
+            {
+                Files.move(temporaryPath, corpusPath, StandardCopyOption.REPLACE_EXISTING);
+            } // end of catch (AtomicMoveNotSupportedException exception)
+        }
+        finally
+        {
+            Files.deleteIfExists(temporaryPath);
+        } // end of finally
+    } // end of method write(CorpusStore store, AnswerNormalizer normalizer, long[][] stamps, ...)
+
+    /**
+     * Compiles a deck, or a pair of English and French sentence files, into a corpus file, with
+     * accent-insensitive grading keys unless "strict" is given, or checks a corpus file given alone.
+     *
+     * @param argument the deck or the English and French files, the corpus file and optionally "strict",
+     *     or just a corpus file to check
+     */
+    public static void main(String[] argument) throws IOException
+    {
+        boolean strict = argument.length > 0 && argument[argument.length - 1].equalsIgnoreCase(STRICT_OPTION);
+        int fileCount = strict ? argument.length - 1 : argument.length;
+        if (fileCount < 1 || fileCount > 3 || (fileCount == 1 && strict))
+        {
+            System.err.println("Usage: java CorpusFile <english file> <french file> <corpus file> [strict]");
+            System.err.println("       java CorpusFile <deck file> <corpus file> [strict]");
+            System.err.println("       java CorpusFile <corpus file>");
+            System.exit(1);
+        } // end of if (fileCount < 1 || fileCount > 3 || (fileCount == 1 && strict))
+
+        if (fileCount == 1)
+        {
+            CorpusStore store = verify(argument[0]);
+            System.out.println(argument[0] + " is intact: " + store.size() + " concepts in " + store.getLanguages());
+            return;
+        } // end of if (fileCount == 1)
+
+        AnswerNormalizer normalizer = strict ? AnswerNormalizer.STRICT : AnswerNormalizer.ACCENT_INSENSITIVE;
+        String corpusFileName = argument[fileCount - 1];
+        CorpusStore store = (fileCount == 2) ? compileDeck(argument[0], normalizer, corpusFileName)
+            : compile(argument[0], argument[1], normalizer, corpusFileName);
+        System.out.println("Compiled " + store.size() + " concepts in " + store.getLanguages() + " ("
+            + store.getStringCount() + " distinct strings, " + store.getTextBytes() + " bytes of text) into "
+            + corpusFileName);
+    } // end of method main(String[] argument)
+} // end of class CorpusFile
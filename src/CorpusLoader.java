@@ -0,0 +1,393 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads a corpus as one stream of concepts, from either of two sources:
+ *
+ * <ul>
+ * <li>a deck: one tab-separated file whose first line names the languages, such as
+ * "en", "fr" and "es", and whose other lines hold one concept each, a column per
+ * language;</li>
+ * <li>the game's original pair of files, one English and one French sentence per line,
+ * read in lockstep as a deck in "en" and "fr".</li>
+ * </ul>
+ *
+ * In a deck a cell may list several accepted translations separated by "|"; the first is
+ * the one shown. The original sentence files are read literally, one accepted translation
+ * per line, so a "|" in them is part of the sentence as it always was. A deck of any
+ * number of languages is one file, one mapping and one pass. Files are memory-mapped, so
+ * no line is copied more than once on its way into a Concept.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class CorpusLoader implements Closeable
+{
+    // class constants
+    /** The language codes of the game's English and French sentence files. */
+    public static final List<String> ENGLISH_AND_FRENCH = Collections.unmodifiableList(Arrays.asList("en", "fr"));
+
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final String COLUMN_SEPARATOR = "\t";
+    private static final String ANSWER_SEPARATOR = "|";
+    private static final String COMMENT_PREFIX = "#";
+
+    // instance fields
+    private final String[] fileNames;
+    private final FileChannel[] channels;
+    private final MappedByteBuffer[] buffers;
+    private final List<String> languages;
+    private final boolean deck;
+    private int lineNumber;
+
+    /* constructors */
+    /**
+     * Constructs a loader over the game's English and French sentence files.
+     *
+     * @param englishFileName the file holding one English sentence per line
+     * @param frenchFileName the file holding the matching French sentence on each line
+     * @throws IOException if either file cannot be opened or mapped
+     */
+    public CorpusLoader(String englishFileName, String frenchFileName) throws IOException
+    {
+        this(new String[] {englishFileName, frenchFileName}, false);
+    } // end of constructor CorpusLoader(String englishFileName, String frenchFileName)
+
+    /**
+     * Constructs a loader over a deck file, reading its header line of language codes.
+     *
+     * @param deckFileName the tab-separated deck
+     * @throws IOException if the file cannot be opened or mapped, or has no header line
+     */
+    public CorpusLoader(String deckFileName) throws IOException
+    {
+        this(new String[] {deckFileName}, true);
+    } // end of constructor CorpusLoader(String deckFileName)
+
+    /*
+     * Opens and maps every file, closing those already open if one fails.
+     */
+    private CorpusLoader(String[] fileNames, boolean deck) throws IOException
+    {
+        this.fileNames = fileNames;
+        this.deck = deck;
+        channels = new FileChannel[fileNames.length];
+        buffers = new MappedByteBuffer[fileNames.length];
+        lineNumber = 0;
+
+        try
+        {
+            for (int file = 0; file < fileNames.length; file++)
+            {
+                channels[file] = FileChannel.open(Paths.get(fileNames[file]), StandardOpenOption.READ);
+                buffers[file] = channels[file].map(FileChannel.MapMode.READ_ONLY, 0, channels[file].size());
+            } // end of for (int file = 0; file < fileNames.length; file++)
+            languages = deck ? readHeader() : ENGLISH_AND_FRENCH;
+        }
+        catch (IOException exception)
+        {
+            close();
+            throw exception;
+        } // end of catch (IOException exception)
+    } // end of constructor CorpusLoader(String[] fileNames, boolean deck)
+
+    /* accessors */
+    /**
+     * Returns the language codes of the concepts this loader reads.
+     *
+     * @return the language codes, in column order
+     */
+    public List<String> getLanguages()
+    {
+        return languages;
+    } // end of method getLanguages()
+
+    /**
+     * Returns the number of the line most recently read, starting at 1.
+     *
+     * @return the current line number, or 0 if nothing has been read yet
+     */
+    public int getLineNumber()
+    {
+        return lineNumber;
+    } // end of method getLineNumber()
+
+    /* mutators */
+    /**
+     * Reads the next concept.
+     *
+     * @return the next concept, or null once the source is exhausted
+     * @throws IOException if the English and French files have different lengths, or a deck
+     *     line has more columns than the deck has languages
+     */
+    public Concept nextConcept() throws IOException
+    {
+        return deck ? nextDeckConcept() : nextPairedConcept();
+    } // end of method nextConcept()
+
+    /**
+     * Reads every remaining concept into the given compact store builder, in source order.
+     *
+     * @param builder the builder to fill, made for this loader's languages
+     * @return the number of concepts read
+     * @throws IOException if the source is malformed
+     */
+    public int loadInto(CorpusStore.Builder builder) throws IOException
+    {
+        int conceptsRead = 0;
+        Concept concept = nextConcept();
+
+        while (concept != null)
+        {
+            builder.add(concept);
+            conceptsRead++;
+            concept = nextConcept();
+        } // end of while (concept != null)
+
+        return conceptsRead;
+    } // end of method loadInto(CorpusStore.Builder builder)
+
+    /**
+     * Reads a whole pair of sentence files into a compact store.
+     *
+     * @param englishFileName the file holding one English sentence per line
+     * @param frenchFileName the file holding the matching French sentence on each line
+     * @param normalizer the normalizer used to grade answers
+     * @return the store
+     * @throws IOException if a file cannot be read or the files have different lengths
+     */
+    public static CorpusStore loadStore(String englishFileName, String frenchFileName, AnswerNormalizer normalizer)
+        throws IOException
+    {
+        // read both files in lockstep, packing each concept straight into the store
+        try (CorpusLoader loader = new CorpusLoader(englishFileName, frenchFileName))
+        {
+            return loadStore(loader, normalizer);
+        } // end of try
+    } // end of method loadStore(String englishFileName, String frenchFileName, AnswerNormalizer normalizer)
+
+    /**
+     * Reads a whole deck file into a compact store.
+     *
+     * @param deckFileName the tab-separated deck
+     * @param normalizer the normalizer used to grade answers
+     * @return the store
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static CorpusStore loadStore(String deckFileName, AnswerNormalizer normalizer) throws IOException
+    {
+        try (CorpusLoader loader = new CorpusLoader(deckFileName))
+        {
+            return loadStore(loader, normalizer);
+        } // end of try
+    } // end of method loadStore(String deckFileName, AnswerNormalizer normalizer)
+
+    /**
+     * Releases every mapped file.
+     */
+    public void close() throws IOException
+    {
+        IOException firstException = null;
+        for (FileChannel channel : channels)
+        {
+            try
+            {
+                if (channel != null)
+                {
+                    channel.close();
+                } // end of if (channel != null)
+            }
+            catch (IOException exception)
+            {
+                firstException = (firstException == null) ? exception : firstException;
+            } // end of catch (IOException exception)
+        } // end of for (FileChannel channel : channels)
+
+        if (firstException != null)
+        {
+            throw firstException;
+        } // end of if (firstException != null)
+    } // end of method close()
+
+    /* private methods */
+    /*
+     * Packs every concept of an open loader into a store.
+     */
+    private static CorpusStore loadStore(CorpusLoader loader, AnswerNormalizer normalizer) throws IOException
+    {
+        CorpusStore.Builder builder = new CorpusStore.Builder(normalizer, loader.getLanguages());
+        loader.loadInto(builder);
+        return builder.build();
+    } // end of method loadStore(CorpusLoader loader, AnswerNormalizer normalizer)
+
+    /*
+     * Reads the deck's header line of language codes.
+     */
+    private List<String> readHeader() throws IOException
+    {
+        String header = nextContentLine();
+        if (header == null)
+        {
+            throw new IOException(fileNames[0] + " has no header line of language codes");
+        } // end of if (header == null)
+
+        ArrayList<String> languageCodes = new ArrayList<String>();
+        for (String column : header.split(COLUMN_SEPARATOR, -1))
+        {
+            String languageCode = column.strip().toLowerCase(Locale.ROOT);
+            if (languageCode.isEmpty() || languageCodes.contains(languageCode))
+            {
+                throw new IOException(fileNames[0] + " has a blank or repeated language in its header");
+            } // end of if (languageCode.isEmpty() || languageCodes.contains(languageCode))
+            languageCodes.add(languageCode);
+        } // end of for (String column : header.split(COLUMN_SEPARATOR, -1))
+
+        return Collections.unmodifiableList(languageCodes);
+    } // end of method readHeader()
+
+    /*
+     * Reads the next deck line as a concept. Missing trailing columns are languages the
+     * concept has no translation in.
+     */
+    private Concept nextDeckConcept() throws IOException
+    {
+        String line = nextContentLine();
+        if (line == null)
+        {
+            return null;
+        } // end of if (line == null)
+
+        String[] columns = line.split(COLUMN_SEPARATOR, -1);
+        if (columns.length > languages.size())
+        {
+            throw new IOException("Line " + lineNumber + " of " + fileNames[0] + " has " + columns.length
+                + " columns, but the deck has " + languages.size() + " languages");
+        } // end of if (columns.length > languages.size())
+
+        ArrayList<List<String>> translations = new ArrayList<List<String>>(languages.size());
+        for (int language = 0; language < languages.size(); language++)
+        {
+            translations.add((language < columns.length) ? splitAnswers(columns[language])
+                : Collections.<String>emptyList());
+        } // end of for (int language = 0; language < languages.size(); language++)
+
+        return new Concept(languages, translations);
+    } // end of method nextDeckConcept()
+
+    /*
+     * Reads the next line of the English and French files as a concept. Every line counts,
+     * blank or not, so that a line's number stays the key of its image.
+     */
+    private Concept nextPairedConcept() throws IOException
+    {
+        boolean englishRemaining = buffers[0].hasRemaining();
+        boolean frenchRemaining = buffers[1].hasRemaining();
+
+        if (!englishRemaining && !frenchRemaining)
+        {
+            return null;
+        } // end of if (!englishRemaining && !frenchRemaining)
+
+        lineNumber++;
+        if (!englishRemaining || !frenchRemaining)
+        {
+            String shorterFile = englishRemaining ? fileNames[1] : fileNames[0];
+            String longerFile = englishRemaining ? fileNames[0] : fileNames[1];
+            throw new IOException(shorterFile + " ends before line " + lineNumber + " of " + longerFile);
+        } // end of if (!englishRemaining || !frenchRemaining)
+
+        List<String> englishAnswers = Collections.singletonList(readLine(buffers[0]));
+        List<String> frenchAnswers = Collections.singletonList(readLine(buffers[1]));
+        return new Concept(languages, Arrays.asList(englishAnswers, frenchAnswers));
+    } // end of method nextPairedConcept()
+
+    /*
+     * Returns the next line of the deck that is neither blank nor a comment, or null at its end.
+     */
+    private String nextContentLine()
+    {
+        while (buffers[0].hasRemaining())
+        {
+            lineNumber++;
+            String line = readLine(buffers[0]);
+            if (!line.isBlank() && !line.startsWith(COMMENT_PREFIX))
+            {
+                return line;
+            } // end of if (!line.isBlank() && !line.startsWith(COMMENT_PREFIX))
+        } // end of while (buffers[0].hasRemaining())
+
+        return null;
+    } // end of method nextContentLine()
+
+    /*
+     * Splits a cell into its accepted translations, dropping blank ones, so a blank cell means
+     * the concept has no translation in that language. A cell without a separator is otherwise
+     * kept exactly as written.
+     */
+    private static List<String> splitAnswers(String cell)
+    {
+        if (cell.isBlank())
+        {
+            return Collections.<String>emptyList();
+        }
+        else if (!cell.contains(ANSWER_SEPARATOR))
+        {
+            return Collections.singletonList(cell);
+        } // end of if (cell.isBlank())
+
+        ArrayList<String> answers = new ArrayList<String>();
+        int start = 0;
+        while (start <= cell.length())
+        {
+            int end = cell.indexOf(ANSWER_SEPARATOR, start);
+            end = (end < 0) ? cell.length() : end;
+            String answer = cell.substring(start, end).strip();
+            if (!answer.isEmpty())
+            {
+                answers.add(answer);
+            } // end of if (!answer.isEmpty())
+            start = end + ANSWER_SEPARATOR.length();
+        } // end of while (start <= cell.length())
+
+        return answers;
+    } // end of method splitAnswers(String cell)
+
+    /*
+     * Decodes the bytes up to the next line break as UTF-8 and moves the buffer past the break.
+     */
+    private static String readLine(MappedByteBuffer buffer)
+    {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        int end = start;
+
+        while (end < limit && buffer.get(end) != LINE_FEED)
+        {
+            end++;
+        } // end of while (end < limit && buffer.get(end) != LINE_FEED)
+
+        // skip the line feed itself, if there is one
+        buffer.position(end < limit ? end + 1 : end);
+
+        // tolerate files saved with Windows line endings
+        if (end > start && buffer.get(end - 1) == CARRIAGE_RETURN)
+        {
+            end--;
+        } // end of if (end > start && buffer.get(end - 1) == CARRIAGE_RETURN)
+
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    } // end of method readLine(MappedByteBuffer buffer)
+} // end of class CorpusLoader
@@ -0,0 +1,121 @@
+import java.util.Arrays;
+
+/**
+ * A reloaded corpus made ready for a session to move to. Everything that takes time in
+ * proportion to the corpus, such as the distractor index and the lookup that finds a
+ * concept by its English sentence, is built by the constructor on the thread that loaded
+ * the corpus, so the session's own thread only has to look up the few pairs its player
+ * has answered.
+ *
+ * A replacement holds a question selector for one session, so each session needs its own.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class CorpusReplacement
+{
+    // class constants
+    private static final long KEY_MASK = 0xffffffffL;
+
+    // instance fields
+    private final GameCorpus corpus;
+    private final QuestionSelector questionSelector;
+    private final DistractorIndex distractorIndex;
+    private final long[] englishIndex;
+
+    /* constructors */
+    /**
+     * Prepares a reloaded corpus, indexing its posable concepts by their English sentence.
+     *
+     * @param corpus the reloaded corpus
+     * @param questionSelector a fresh selector over the reloaded corpus
+     * @param distractorIndex the look-alikes of the reloaded corpus, or null if the session
+     *     should stop offering choices
+     * @throws IllegalArgumentException if the distractor index was built over another corpus
+     */
+    public CorpusReplacement(GameCorpus corpus, QuestionSelector questionSelector, DistractorIndex distractorIndex)
+    {
+        if (distractorIndex != null && distractorIndex.getCorpus() != corpus)
+        {
+            throw new IllegalArgumentException("The distractor index was built over another corpus");
+        } // end of if (distractorIndex != null && distractorIndex.getCorpus() != corpus)
+
+        this.corpus = corpus;
+        this.questionSelector = questionSelector;
+        this.distractorIndex = distractorIndex;
+
+        // each entry is a sentence's hash above its key, so sorting groups equal sentences
+        englishIndex = new long[corpus.getPosableCount()];
+        for (int index = 0; index < englishIndex.length; index++)
+        {
+            int key = corpus.getPosableKey(index);
+            englishIndex[index] = ((long) corpus.getEnglish(key).hashCode() << Integer.SIZE) | key;
+        } // end of for (int index = 0; index < englishIndex.length; index++)
+        Arrays.sort(englishIndex);
+    } // end of constructor CorpusReplacement(GameCorpus corpus, QuestionSelector questionSelector, ...)
+
+    /* accessors */
+    /**
+     * Returns the reloaded corpus.
+     *
+     * @return the corpus
+     */
+    public GameCorpus getCorpus()
+    {
+        return corpus;
+    } // end of method getCorpus()
+
+    /**
+     * Returns the selector that chooses which pair of the reloaded corpus is posed next.
+     *
+     * @return the question selector
+     */
+    public QuestionSelector getQuestionSelector()
+    {
+        return questionSelector;
+    } // end of method getQuestionSelector()
+
+    /**
+     * Returns the look-alikes of the reloaded corpus.
+     *
+     * @return the distractor index, or null if none was built
+     */
+    public DistractorIndex getDistractorIndex()
+    {
+        return distractorIndex;
+    } // end of method getDistractorIndex()
+
+    /**
+     * Returns the key a concept of the old corpus has in the reloaded one, found by its English
+     * sentence.
+     *
+     * @param oldCorpus the corpus the key belongs to
+     * @param oldKey a key of the old corpus
+     * @return the key in the reloaded corpus, or QuestionSelector.NO_MORE_QUESTIONS if the
+     *     reloaded corpus has no posable concept with that sentence
+     */
+    public int findKey(GameCorpus oldCorpus, int oldKey)
+    {
+        String english = oldCorpus.isPosable(oldKey) ? oldCorpus.getEnglish(oldKey) : null;
+        if (english == null)
+        {
+            return QuestionSelector.NO_MORE_QUESTIONS;
+        } // end of if (english == null)
+
+        // find the first entry with the sentence's hash, then compare the sentences that share it
+        long hash = (long) english.hashCode() << Integer.SIZE;
+        int entry = Arrays.binarySearch(englishIndex, hash);
+        entry = (entry < 0) ? -entry - 1 : entry;
+        while (entry < englishIndex.length && (englishIndex[entry] & ~KEY_MASK) == hash)
+        {
+            int key = (int) englishIndex[entry];
+            if (english.equals(corpus.getEnglish(key)))
+            {
+                return key;
+            } // end of if (english.equals(corpus.getEnglish(key)))
+            entry++;
+        } // end of while (entry < englishIndex.length && ...)
+
+        return QuestionSelector.NO_MORE_QUESTIONS;
+    } // end of method findKey(GameCorpus oldCorpus, int oldKey)
+} // end of class CorpusReplacement
@@ -0,0 +1,668 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * An immutable, compact store of concepts in any number of languages, each with one or
+ * more accepted translations per language. Every distinct string is packed once into a
+ * single UTF-8 byte region; everything else is int tables indexed directly, so a deck of
+ * millions of concepts costs little more than its text and strings are only created when
+ * a translation is asked for.
+ *
+ * <pre>
+ * concept table  concept * languages + language  ->  first answer of that cell
+ * answer table   2 ints per answer: the translation's string and its grading key's string
+ * string table   string  ->  offset of its UTF-8 bytes in the text region
+ * </pre>
+ *
+ * Strings are interned per language: a translation that appears in many concepts, or
+ * whose grading key is the same as the translation itself, is stored once. Strings 0 to
+ * languages - 1 are the language codes.
+ *
+ * The tables and text may live on the heap or in a memory-mapped corpus file; the store
+ * reads both the same way, and its fingerprint is the same whichever it came from.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class CorpusStore
+{
+    // class constants
+    static final int INTS_PER_ANSWER = 2;
+    private static final int FORM = 0;
+    private static final int KEY = 1;
+    private static final int FINGERPRINT_CHUNK_INTS = 2048;
+
+    // instance fields
+    private final List<String> languages;
+    private final IntBuffer concepts;
+    private final IntBuffer answers;
+    private final IntBuffer strings;
+    private final ByteBuffer text;
+    private final int size;
+    private final int fingerprint;
+
+    /* constructors */
+    /*
+     * Constructs a store over the given tables and text region, whose first strings are the
+     * language codes. Only absolute reads are made, so the buffers' positions never change.
+     * The fingerprint is taken here, on the thread that loads the store.
+     */
+    CorpusStore(int languageCount, IntBuffer concepts, IntBuffer answers, IntBuffer strings, ByteBuffer text,
+        int size)
+    {
+        this.concepts = concepts;
+        this.answers = answers;
+        this.strings = strings;
+        this.text = text;
+        this.size = size;
+
+        String[] languageCodes = new String[languageCount];
+        for (int language = 0; language < languageCount; language++)
+        {
+            languageCodes[language] = decode(language);
+        } // end of for (int language = 0; language < languageCount; language++)
+        languages = Collections.unmodifiableList(Arrays.asList(languageCodes));
+        fingerprint = takeFingerprint();
+    } // end of constructor CorpusStore(int languageCount, IntBuffer concepts, ...)
+
+    /* accessors */
+    /**
+     * Returns the number of concepts in this store.
+     *
+     * @return the number of concepts
+     */
+    public int size()
+    {
+        return size;
+    } // end of method size()
+
+    /**
+     * Returns the language codes of this store, such as "en" and "fr".
+     *
+     * @return the language codes, in column order
+     */
+    public List<String> getLanguages()
+    {
+        return languages;
+    } // end of method getLanguages()
+
+    /**
+     * Returns the column of the given language.
+     *
+     * @param languageCode a language code, such as "fr"
+     * @return the index of the language, or -1 if this store does not have it
+     */
+    public int indexOfLanguage(String languageCode)
+    {
+        return languages.indexOf(languageCode);
+    } // end of method indexOfLanguage(String languageCode)
+
+    /**
+     * Returns the number of translations of a concept accepted in a language.
+     *
+     * @param key a concept number from 0 to size() - 1
+     * @param language a language index
+     * @return the number of accepted translations, possibly 0
+     */
+    public int getAnswerCount(int key, int language)
+    {
+        int cell = cell(key, language);
+        return concepts.get(cell + 1) - concepts.get(cell);
+    } // end of method getAnswerCount(int key, int language)
+
+    /**
+     * Returns the translation of a concept that is shown in a language: its first accepted one.
+     *
+     * @param key a concept number from 0 to size() - 1
+     * @param language a language index
+     * @return the translation, or null if the concept has none in this language
+     */
+    public String getText(int key, int language)
+    {
+        return (getAnswerCount(key, language) == 0) ? null : getAnswer(key, language, 0);
+    } // end of method getText(int key, int language)
+
+    /**
+     * Returns one accepted translation of a concept.
+     *
+     * @param key a concept number from 0 to size() - 1
+     * @param language a language index
+     * @param answer an index from 0 to getAnswerCount(key, language) - 1
+     * @return the translation, as written in the corpus
+     */
+    public String getAnswer(int key, int language, int answer)
+    {
+        return decode(answers.get(answerSlot(key, language, answer) + FORM));
+    } // end of method getAnswer(int key, int language, int answer)
+
+    /**
+     * Returns the grading key of one accepted translation of a concept.
+     *
+     * @param key a concept number from 0 to size() - 1
+     * @param language a language index
+     * @param answer an index from 0 to getAnswerCount(key, language) - 1
+     * @return the normalized translation
+     */
+    public String getAnswerKey(int key, int language, int answer)
+    {
+        return decode(answers.get(answerSlot(key, language, answer) + KEY));
+    } // end of method getAnswerKey(int key, int language, int answer)
+
+    /**
+     * Copies the grading key of one accepted translation into an array without creating a
+     * string. A key never has more characters than the bytes it is stored in.
+     *
+     * @param key a concept number from 0 to size() - 1
+     * @param language a language index
+     * @param answer an index from 0 to getAnswerCount(key, language) - 1
+     * @param destination the array to copy into
+     * @return the length of the key, or if the array might be too short, minus the length it needs
+     */
+    public int getAnswerKey(int key, int language, int answer, char[] destination)
+    {
+        int string = answers.get(answerSlot(key, language, answer) + KEY);
+        int position = strings.get(string);
+        int end = strings.get(string + 1);
+        if (end - position > destination.length)
+        {
+            return position - end;
+        } // end of if (end - position > destination.length)
+
+        int length = 0;
+        while (position < end)
+        {
+            int leadByte = text.get(position) & 0xff;
+            length += Character.toChars(codePointAt(position, leadByte), destination, length);
+            position += sequenceLength(leadByte);
+        } // end of while (position < end)
+
+        return length;
+    } // end of method getAnswerKey(int key, int language, int answer, char[] destination)
+
+    /**
+     * Finds the accepted translation whose grading key equals a normalized answer, comparing
+     * against the stored bytes without decoding them.
+     *
+     * @param key a concept number from 0 to size() - 1
+     * @param language a language index
+     * @param answerKey the normalized answer
+     * @return the index of the matching translation, or -1 if none matches
+     */
+    public int indexOfAnswerKey(int key, int language, CharSequence answerKey)
+    {
+        int cell = cell(key, language);
+        int firstAnswer = concepts.get(cell);
+        int endAnswer = concepts.get(cell + 1);
+
+        for (int answer = firstAnswer; answer < endAnswer; answer++)
+        {
+            if (stringEquals(answers.get(answer * INTS_PER_ANSWER + KEY), answerKey))
+            {
+                return answer - firstAnswer;
+            } // end of if (stringEquals(answers.get(answer * INTS_PER_ANSWER + KEY), answerKey))
+        } // end of for (int answer = firstAnswer; answer < endAnswer; answer++)
+
+        return -1;
+    } // end of method indexOfAnswerKey(int key, int language, CharSequence answerKey)
+
+    /**
+     * Returns a concept with all of its translations.
+     *
+     * @param key a concept number from 0 to size() - 1
+     * @return the concept
+     */
+    public Concept getConcept(int key)
+    {
+        ArrayList<List<String>> translations = new ArrayList<List<String>>(languages.size());
+        for (int language = 0; language < languages.size(); language++)
+        {
+            int answerCount = getAnswerCount(key, language);
+            ArrayList<String> languageTranslations = new ArrayList<String>(answerCount);
+            for (int answer = 0; answer < answerCount; answer++)
+            {
+                languageTranslations.add(getAnswer(key, language, answer));
+            } // end of for (int answer = 0; answer < answerCount; answer++)
+            translations.add(languageTranslations);
+        } // end of for (int language = 0; language < languages.size(); language++)
+
+        return new Concept(languages, translations);
+    } // end of method getConcept(int key)
+
+    /**
+     * Returns the number of distinct strings held by this store after interning.
+     *
+     * @return the number of strings, language codes included
+     */
+    public int getStringCount()
+    {
+        return strings.capacity() - 1;
+    } // end of method getStringCount()
+
+    /**
+     * Returns the number of bytes of text held by this store.
+     *
+     * @return the size of the text region
+     */
+    public int getTextBytes()
+    {
+        return text.capacity();
+    } // end of method getTextBytes()
+
+    /**
+     * Returns a checksum of every table and the text, which tells apart stores whose keys
+     * name different concepts.
+     *
+     * @return the CRC-32C of the tables, as little-endian ints, followed by the text
+     */
+    public int getFingerprint()
+    {
+        return fingerprint;
+    } // end of method getFingerprint()
+
+    /*
+     * Returns a read-only view of the concept table, positioned at its start.
+     */
+    IntBuffer getConceptTable()
+    {
+        return concepts.asReadOnlyBuffer();
+    } // end of method getConceptTable()
+
+    /*
+     * Returns a read-only view of the answer table, positioned at its start.
+     */
+    IntBuffer getAnswerTable()
+    {
+        return answers.asReadOnlyBuffer();
+    } // end of method getAnswerTable()
+
+    /*
+     * Returns a read-only view of the string table, positioned at its start.
+     */
+    IntBuffer getStringTable()
+    {
+        return strings.asReadOnlyBuffer();
+    } // end of method getStringTable()
+
+    /*
+     * Returns a read-only view of the text region, positioned at its start.
+     */
+    ByteBuffer getTextRegion()
+    {
+        return text.asReadOnlyBuffer();
+    } // end of method getTextRegion()
+
+    /* private methods */
+    /*
+     * Returns the CRC-32C of the tables, in the byte order of a corpus file, followed by the text.
+     */
+    private int takeFingerprint()
+    {
+        CRC32C checksum = new CRC32C();
+        ByteBuffer chunk = ByteBuffer.allocate(FINGERPRINT_CHUNK_INTS * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        IntBuffer chunkInts = chunk.asIntBuffer();
+
+        for (IntBuffer table : new IntBuffer[] {getConceptTable(), getAnswerTable(), getStringTable()})
+        {
+            while (table.hasRemaining())
+            {
+                int count = Math.min(FINGERPRINT_CHUNK_INTS, table.remaining());
+                chunkInts.clear();
+                chunkInts.put(table.slice().limit(count));
+                table.position(table.position() + count);
+                checksum.update(chunk.array(), 0, count * Integer.BYTES);
+            } // end of while (table.hasRemaining())
+        } // end of for (IntBuffer table : ...)
+
+        checksum.update(getTextRegion());
+        return (int) checksum.getValue();
+    } // end of method takeFingerprint()
+
+    /*
+     * Returns the concept table entry of one concept in one language.
+     */
+    private int cell(int key, int language)
+    {
+        if (key < 0 || key >= size)
+        {
+            throw new IndexOutOfBoundsException("No concept " + key + " in a corpus of " + size);
+        }
+        else if (language < 0 || language >= languages.size())
+        {
+            throw new IndexOutOfBoundsException("No language " + language + " in a corpus in " + languages);
+        } // end of if (key < 0 || key >= size)
+
+        return key * languages.size() + language;
+    } // end of method cell(int key, int language)
+
+    /*
+     * Returns the answer table entry of one accepted translation.
+     */
+    private int answerSlot(int key, int language, int answer)
+    {
+        if (answer < 0 || answer >= getAnswerCount(key, language))
+        {
+            throw new IndexOutOfBoundsException("No translation " + answer + " of concept " + key + " in "
+                + languages.get(language));
+        } // end of if (answer < 0 || answer >= getAnswerCount(key, language))
+
+        return (concepts.get(cell(key, language)) + answer) * INTS_PER_ANSWER;
+    } // end of method answerSlot(int key, int language, int answer)
+
+    /*
+     * Decodes one string.
+     */
+    private String decode(int string)
+    {
+        int start = strings.get(string);
+        int length = strings.get(string + 1) - start;
+
+        if (text.hasArray())
+        {
+            return new String(text.array(), text.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        } // end of if (text.hasArray())
+
+        byte[] bytes = new byte[length];
+        text.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    } // end of method decode(int string)
+
+    /*
+     * Compares the UTF-8 bytes of one string with a sequence of characters, one code point at a time.
+     */
+    private boolean stringEquals(int string, CharSequence answerKey)
+    {
+        int position = strings.get(string);
+        int end = strings.get(string + 1);
+        int index = 0;
+
+        while (position < end && index < answerKey.length())
+        {
+            int leadByte = text.get(position) & 0xff;
+            int answerCodePoint = Character.codePointAt(answerKey, index);
+            if (codePointAt(position, leadByte) != answerCodePoint)
+            {
+                return false;
+            } // end of if (codePointAt(position, leadByte) != answerCodePoint)
+
+            position += sequenceLength(leadByte);
+            index += Character.charCount(answerCodePoint);
+        } // end of while (position < end && index < answerKey.length())
+
+        return position == end && index == answerKey.length();
+    } // end of method stringEquals(int string, CharSequence answerKey)
+
+    /*
+     * Returns the length of the UTF-8 sequence that starts with the given byte.
+     */
+    private static int sequenceLength(int leadByte)
+    {
+        if (leadByte < 0x80)
+        {
+            return 1;
+        }
+        else if (leadByte < 0xe0)
+        {
+            return 2;
+        }
+        else if (leadByte < 0xf0)
+        {
+            return 3;
+        } // end of if (leadByte < 0x80)
+
+        return 4;
+    } // end of method sequenceLength(int leadByte)
+
+    /*
+     * Decodes the code point whose UTF-8 sequence starts at the given position with the given byte.
+     */
+    private int codePointAt(int position, int leadByte)
+    {
+        if (leadByte < 0x80)
+        {
+            return leadByte;
+        }
+        else if (leadByte < 0xe0)
+        {
+            return ((leadByte & 0x1f) << 6) | (text.get(position + 1) & 0x3f);
+        }
+        else if (leadByte < 0xf0)
+        {
+            return ((leadByte & 0x0f) << 12) | ((text.get(position + 1) & 0x3f) << 6)
+                | (text.get(position + 2) & 0x3f);
+        } // end of if (leadByte < 0x80)
+
+        return ((leadByte & 0x07) << 18) | ((text.get(position + 1) & 0x3f) << 12)
+            | ((text.get(position + 2) & 0x3f) << 6) | (text.get(position + 3) & 0x3f);
+    } // end of method codePointAt(int position, int leadByte)
+
+    /* public classes */
+    /**
+     * Collects concepts in order and packs them into a CorpusStore. Each language keeps an
+     * open-addressing table of the strings already stored for it, so a string that repeats
+     * is added once and found again by hashing its bytes, without a map of Java strings.
+     */
+    public static class Builder
+    {
+        // class constants
+        private static final int INITIAL_TEXT_CAPACITY = 1024;
+        private static final int INITIAL_CAPACITY = 64;
+
+        // instance fields
+        private final AnswerNormalizer normalizer;
+        private final List<String> languages;
+        private final int[][] internTables;
+        private final int[] internedCounts;
+        private byte[] text;
+        private int textLength;
+        private int[] stringOffsets;
+        private int stringCount;
+        private int[] conceptStarts;
+        private int[] answerStrings;
+        private int answerCount;
+        private int size;
+
+        /* constructors */
+        /**
+         * Constructs an empty builder for the given languages whose grading keys are made with
+         * the given normalizer.
+         *
+         * @param normalizer the normalizer used to grade answers
+         * @param languages the language codes, such as "en" and "fr", in column order
+         */
+        public Builder(AnswerNormalizer normalizer, List<String> languages)
+        {
+            this.normalizer = normalizer;
+            this.languages = new ArrayList<String>(languages);
+            internTables = new int[languages.size()][INITIAL_CAPACITY];
+            internedCounts = new int[languages.size()];
+            text = new byte[INITIAL_TEXT_CAPACITY];
+            textLength = 0;
+            stringOffsets = new int[INITIAL_CAPACITY + 1];
+            stringCount = 0;
+            conceptStarts = new int[INITIAL_CAPACITY * Math.max(1, languages.size()) + 1];
+            answerStrings = new int[INITIAL_CAPACITY * INTS_PER_ANSWER];
+            answerCount = 0;
+            size = 0;
+
+            for (String language : languages)
+            {
+                appendString(language.getBytes(StandardCharsets.UTF_8));
+            } // end of for (String language : languages)
+        } // end of constructor Builder(AnswerNormalizer normalizer, List<String> languages)
+
+        /* mutators */
+        /**
+         * Adds the next concept, whose languages must be those of this builder.
+         *
+         * @param concept the concept
+         * @return this builder
+         * @throws IllegalArgumentException if the concept's languages differ
+         */
+        public Builder add(Concept concept)
+        {
+            if (!concept.getLanguages().equals(languages))
+            {
+                throw new IllegalArgumentException("Concept in " + concept.getLanguages() + " added to a corpus in "
+                    + languages);
+            } // end of if (!concept.getLanguages().equals(languages))
+
+            if ((size + 1) * languages.size() + 1 > conceptStarts.length)
+            {
+                conceptStarts = Arrays.copyOf(conceptStarts, (conceptStarts.length - 1) * 2 + 1);
+            } // end of if ((size + 1) * languages.size() + 1 > conceptStarts.length)
+
+            for (int language = 0; language < languages.size(); language++)
+            {
+                conceptStarts[size * languages.size() + language] = answerCount;
+                for (String translation : concept.getTranslations(language))
+                {
+                    addAnswer(language, translation);
+                } // end of for (String translation : concept.getTranslations(language))
+            } // end of for (int language = 0; language < languages.size(); language++)
+            size++;
+
+            return this;
+        } // end of method add(Concept concept)
+
+        /**
+         * Packs every concept added so far into a store. The builder should not be used afterwards.
+         *
+         * @return the store
+         */
+        public CorpusStore build()
+        {
+            conceptStarts[size * languages.size()] = answerCount;
+            stringOffsets[stringCount] = textLength;
+            return new CorpusStore(languages.size(),
+                IntBuffer.wrap(Arrays.copyOf(conceptStarts, size * languages.size() + 1)),
+                IntBuffer.wrap(Arrays.copyOf(answerStrings, answerCount * INTS_PER_ANSWER)),
+                IntBuffer.wrap(Arrays.copyOf(stringOffsets, stringCount + 1)),
+                ByteBuffer.wrap(Arrays.copyOf(text, textLength)), size);
+        } // end of method build()
+
+        /* private methods */
+        /*
+         * Adds one accepted translation and its grading key to the current concept.
+         */
+        private void addAnswer(int language, String translation)
+        {
+            if ((answerCount + 1) * INTS_PER_ANSWER > answerStrings.length)
+            {
+                answerStrings = Arrays.copyOf(answerStrings, answerStrings.length * 2);
+            } // end of if ((answerCount + 1) * INTS_PER_ANSWER > answerStrings.length)
+
+            int slot = answerCount * INTS_PER_ANSWER;
+            answerStrings[slot + FORM] = intern(language, translation);
+            answerStrings[slot + KEY] = intern(language, normalizer.normalize(translation));
+            answerCount++;
+        } // end of method addAnswer(int language, String translation)
+
+        /*
+         * Returns the number of the given string in the given language, storing it first if it
+         * is new. Table entries hold string numbers plus one, so 0 marks an empty entry.
+         */
+        private int intern(int language, String value)
+        {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int[] table = internTables[language];
+            int mask = table.length - 1;
+            int index = Arrays.hashCode(bytes) & mask;
+
+            while (table[index] != 0)
+            {
+                int string = table[index] - 1;
+                if (Arrays.equals(text, stringOffsets[string], stringOffsets[string + 1], bytes, 0, bytes.length))
+                {
+                    return string;
+                } // end of if (Arrays.equals(text, stringOffsets[string], ...))
+                index = (index + 1) & mask;
+            } // end of while (table[index] != 0)
+
+            int string = appendString(bytes);
+            table[index] = string + 1;
+            internedCounts[language]++;
+
+            // keep the table at most half full so probes stay short
+            if (internedCounts[language] * 2 > table.length)
+            {
+                internTables[language] = rehash(table);
+            } // end of if (internedCounts[language] * 2 > table.length)
+
+            return string;
+        } // end of method intern(int language, String value)
+
+        /*
+         * Returns a table twice the size holding the same strings.
+         */
+        private int[] rehash(int[] table)
+        {
+            int[] newTable = new int[table.length * 2];
+            int mask = newTable.length - 1;
+
+            for (int entry : table)
+            {
+                if (entry != 0)
+                {
+                    int string = entry - 1;
+                    int index = hashString(string) & mask;
+                    while (newTable[index] != 0)
+                    {
+                        index = (index + 1) & mask;
+                    } // end of while (newTable[index] != 0)
+                    newTable[index] = entry;
+                } // end of if (entry != 0)
+            } // end of for (int entry : table)
+
+            return newTable;
+        } // end of method rehash(int[] table)
+
+        /*
+         * Hashes a stored string's bytes the same way Arrays.hashCode() hashes a byte array.
+         */
+        private int hashString(int string)
+        {
+            int hash = 1;
+            for (int position = stringOffsets[string]; position < stringOffsets[string + 1]; position++)
+            {
+                hash = 31 * hash + text[position];
+            } // end of for (int position = stringOffsets[string]; ...)
+
+            return hash;
+        } // end of method hashString(int string)
+
+        /*
+         * Appends a string's UTF-8 bytes to the text region and returns its number.
+         */
+        private int appendString(byte[] bytes)
+        {
+            if (textLength + bytes.length > text.length)
+            {
+                long capacity = Math.max((long) text.length * 2, (long) textLength + bytes.length);
+                if (capacity > Integer.MAX_VALUE - 8)
+                {
+                    throw new IllegalStateException("Corpus text exceeds 2 GB");
+                } // end of if (capacity > Integer.MAX_VALUE - 8)
+                text = Arrays.copyOf(text, (int) capacity);
+            } // end of if (textLength + bytes.length > text.length)
+
+            if (stringCount + 2 > stringOffsets.length)
+            {
+                stringOffsets = Arrays.copyOf(stringOffsets, stringOffsets.length * 2);
+            } // end of if (stringCount + 2 > stringOffsets.length)
+
+            stringOffsets[stringCount] = textLength;
+            stringOffsets[stringCount + 1] = textLength + bytes.length;
+            System.arraycopy(bytes, 0, text, textLength, bytes.length);
+            textLength += bytes.length;
+
+            return stringCount++;
+        } // end of method appendString(byte[] bytes)
+    } // end of class Builder
+} // end of class CorpusStore
@@ -0,0 +1,411 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * Plausible wrong answers for multiple-choice questions. For every concept and language
+ * the index keeps a short list of the other concepts whose translations look most alike,
+ * so "Poire" is offered against "Pomme" rather than something no learner would pick.
+ *
+ * Likeness is the overlap of the character trigrams of the grading keys, estimated from
+ * MinHash signatures. The lists are worked out once, when the index is built: a small
+ * corpus compares every pair of signatures, and a large one only compares concepts that
+ * share a locality-sensitive hashing band. Concepts with too few look-alikes are topped
+ * up with a few tries at others that have a translation, so a language that few concepts
+ * are translated into costs no more than a full one, and a concept that would grade as a
+ * correct answer is never offered as a distractor. Drawing the distractors for a question
+ * then reads one list, so its cost does not depend on the size of the corpus.
+ *
+ * An index is only read after it is built, so any number of sessions may share it.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class DistractorIndex
+{
+    // class constants
+    /** The number of look-alikes kept for each concept unless another number is given. */
+    public static final int DEFAULT_NEIGHBOR_COUNT = 8;
+
+    private static final int NO_NEIGHBOR = -1;
+    private static final int HASH_COUNT = 32;
+    private static final int ROWS_PER_BAND = 2;
+    private static final int BAND_COUNT = HASH_COUNT / ROWS_PER_BAND;
+    private static final int GRAM_LENGTH = 3;
+    private static final char PADDING = ' ';
+    private static final int BRUTE_FORCE_LIMIT = 2048;
+    private static final int BUCKET_REACH = 8;
+    private static final int TOP_UP_TRIES_PER_NEIGHBOR = 4;
+    private static final int GOLDEN_RATIO = 0x9e3779b9;
+
+    // instance fields
+    private final GameCorpus corpus;
+    private final int neighborCount;
+    private final int[][] neighbors;
+
+    /* constructors */
+    /**
+     * Builds an index that keeps the default number of look-alikes for each concept.
+     *
+     * @param corpus the corpus to offer distractors from
+     */
+    public DistractorIndex(GameCorpus corpus)
+    {
+        this(corpus, DEFAULT_NEIGHBOR_COUNT);
+    } // end of constructor DistractorIndex(GameCorpus corpus)
+
+    /**
+     * Builds an index that keeps the given number of look-alikes for each concept and
+     * language, most alike first.
+     *
+     * @param corpus the corpus to offer distractors from
+     * @param neighborCount the most distractors a question can be offered
+     * @throws IllegalArgumentException if neighborCount is less than 1
+     */
+    public DistractorIndex(GameCorpus corpus, int neighborCount)
+    {
+        if (neighborCount < 1)
+        {
+            throw new IllegalArgumentException("A distractor index needs at least one neighbor: " + neighborCount);
+        } // end of if (neighborCount < 1)
+
+        this.corpus = corpus;
+        this.neighborCount = neighborCount;
+        neighbors = new int[corpus.getLanguages().size()][];
+        for (int language = 0; language < neighbors.length; language++)
+        {
+            neighbors[language] = findNeighbors(language);
+        } // end of for (int language = 0; language < neighbors.length; language++)
+    } // end of constructor DistractorIndex(GameCorpus corpus, int neighborCount)
+
+    /* accessors */
+    /**
+     * Returns the corpus this index offers distractors from.
+     *
+     * @return the corpus
+     */
+    public GameCorpus getCorpus()
+    {
+        return corpus;
+    } // end of method getCorpus()
+
+    /**
+     * Returns the number of look-alikes kept for each concept.
+     *
+     * @return the most distractors a question can be offered
+     */
+    public int getNeighborCount()
+    {
+        return neighborCount;
+    } // end of method getNeighborCount()
+
+    /**
+     * Returns the keys of the concepts to offer against the given one, most alike first.
+     *
+     * @param key the key of the concept being asked
+     * @param language the index of the language the answer is given in
+     * @param count the number of distractors wanted
+     * @return up to count keys; fewer if the corpus is too small
+     */
+    public int[] getDistractors(int key, int language, int count)
+    {
+        return getDistractors(key, language, count, null);
+    } // end of method getDistractors(int key, int language, int count)
+
+    /**
+     * Returns the keys of the concepts to offer against the given one, most alike first,
+     * passing over those the caller cannot show, such as concepts without a picture.
+     *
+     * @param key the key of the concept being asked
+     * @param language the index of the language the answer is given in
+     * @param count the number of distractors wanted
+     * @param eligibleKeys accepts the keys that may be offered, or null to accept them all
+     * @return up to count keys; fewer if too few look-alikes are eligible
+     * @throws IndexOutOfBoundsException if the key or language is out of range
+     */
+    public int[] getDistractors(int key, int language, int count, IntPredicate eligibleKeys)
+    {
+        if (key < 0 || key >= corpus.size())
+        {
+            throw new IndexOutOfBoundsException("No concept has the key " + key);
+        } // end of if (key < 0 || key >= corpus.size())
+
+        int[] row = neighbors[language];
+        int[] distractors = new int[Math.min(count, neighborCount)];
+        int found = 0;
+        for (int slot = key * neighborCount; slot < (key + 1) * neighborCount && found < distractors.length; slot++)
+        {
+            int neighbor = row[slot];
+            if (neighbor != NO_NEIGHBOR && (eligibleKeys == null || eligibleKeys.test(neighbor)))
+            {
+                distractors[found++] = neighbor;
+            } // end of if (neighbor != NO_NEIGHBOR && ...)
+        } // end of for (int slot = key * neighborCount; ...)
+
+        return (found == distractors.length) ? distractors : Arrays.copyOf(distractors, found);
+    } // end of method getDistractors(int key, int language, int count, IntPredicate eligibleKeys)
+
+    /* private methods */
+    /*
+     * Works out the look-alikes of every concept in one language: neighborCount keys per
+     * concept, most alike first.
+     */
+    private int[] findNeighbors(int language)
+    {
+        int size = corpus.size();
+        int[] signatures = new int[size * HASH_COUNT];
+        boolean[] signed = new boolean[size];
+        int[] translatedKeys = new int[size];
+        int translatedCount = 0;
+        for (int key = 0; key < size; key++)
+        {
+            if (corpus.getStore().getAnswerCount(key, language) > 0)
+            {
+                translatedKeys[translatedCount++] = key;
+                signed[key] = sign(corpus.getStore().getAnswerKey(key, language, 0), signatures, key * HASH_COUNT);
+            } // end of if (corpus.getStore().getAnswerCount(key, language) > 0)
+        } // end of for (int key = 0; key < size; key++)
+
+        int[] row = new int[size * neighborCount];
+        int[] similarities = new int[size * neighborCount];
+        Arrays.fill(row, NO_NEIGHBOR);
+
+        if (size <= BRUTE_FORCE_LIMIT)
+        {
+            for (int key = 0; key < size; key++)
+            {
+                for (int other = key + 1; other < size && signed[key]; other++)
+                {
+                    if (signed[other])
+                    {
+                        compare(language, key, other, signatures, row, similarities);
+                    } // end of if (signed[other])
+                } // end of for (int other = key + 1; ...)
+            } // end of for (int key = 0; key < size; key++)
+        }
+        else
+        {
+            for (int band = 0; band < BAND_COUNT; band++)
+            {
+                compareBand(language, band, signatures, signed, row, similarities);
+            } // end of for (int band = 0; band < BAND_COUNT; band++)
+        } // end of if (size <= BRUTE_FORCE_LIMIT)
+
+        // a concept without a translation is never asked in this language, so it needs no look-alikes
+        for (int index = 0; index < translatedCount; index++)
+        {
+            int key = translatedKeys[index];
+            weedOut(language, key, row);
+            topUp(language, key, row, translatedKeys, translatedCount);
+        } // end of for (int index = 0; index < translatedCount; index++)
+
+        return row;
+    } // end of method findNeighbors(int language)
+
+    /*
+     * Compares the concepts whose signatures agree on one band. The band's hashes are sorted
+     * with their keys, so each bucket is a run, and each concept is compared with the few that
+     * follow it in its run; a bucket full of near-identical concepts costs no more than a small one.
+     */
+    private void compareBand(int language, int band, int[] signatures, boolean[] signed, int[] row,
+        int[] similarities)
+    {
+        long[] entries = new long[signed.length];
+        int entryCount = 0;
+        for (int key = 0; key < signed.length; key++)
+        {
+            if (signed[key])
+            {
+                int bandHash = 1;
+                for (int hash = band * ROWS_PER_BAND; hash < (band + 1) * ROWS_PER_BAND; hash++)
+                {
+                    bandHash = 31 * bandHash + signatures[key * HASH_COUNT + hash];
+                } // end of for (int hash = band * ROWS_PER_BAND; ...)
+                entries[entryCount++] = ((long) mix(bandHash) << Integer.SIZE) | key;
+            } // end of if (signed[key])
+        } // end of for (int key = 0; key < signed.length; key++)
+        Arrays.sort(entries, 0, entryCount);
+
+        for (int entry = 0; entry < entryCount; entry++)
+        {
+            int key = (int) entries[entry];
+            int last = Math.min(entryCount - 1, entry + BUCKET_REACH);
+            for (int other = entry + 1; other <= last && (entries[other] >>> Integer.SIZE)
+                == (entries[entry] >>> Integer.SIZE); other++)
+            {
+                compare(language, key, (int) entries[other], signatures, row, similarities);
+            } // end of for (int other = entry + 1; ...)
+        } // end of for (int entry = 0; entry < entryCount; entry++)
+    } // end of method compareBand(int language, int band, ...)
+
+    /*
+     * Estimates how alike two concepts are, as the number of hash functions on which their
+     * signatures agree, and offers each as a look-alike of the other.
+     */
+    private void compare(int language, int key, int otherKey, int[] signatures, int[] row, int[] similarities)
+    {
+        int similarity = 0;
+        for (int hash = 0; hash < HASH_COUNT; hash++)
+        {
+            if (signatures[key * HASH_COUNT + hash] == signatures[otherKey * HASH_COUNT + hash])
+            {
+                similarity++;
+            } // end of if (signatures[...] == signatures[...])
+        } // end of for (int hash = 0; hash < HASH_COUNT; hash++)
+
+        if (similarity > 0)
+        {
+            consider(language, key, otherKey, similarity, row, similarities);
+            consider(language, otherKey, key, similarity, row, similarities);
+        } // end of if (similarity > 0)
+    } // end of method compare(int language, int key, int otherKey, ...)
+
+    /*
+     * Adds a candidate to a concept's look-alikes if it is more alike than the least alike kept
+     * so far and it is not already there. Whether it would be graded as a correct answer is only
+     * checked once the list is final, as most candidates are pushed out again.
+     */
+    private void consider(int language, int key, int candidate, int similarity, int[] row, int[] similarities)
+    {
+        int first = key * neighborCount;
+        int last = first + neighborCount - 1;
+        if (row[last] != NO_NEIGHBOR && similarity <= similarities[last])
+        {
+            return;
+        } // end of if (row[last] != NO_NEIGHBOR && similarity <= similarities[last])
+
+        for (int slot = first; slot <= last && row[slot] != NO_NEIGHBOR; slot++)
+        {
+            if (row[slot] == candidate)
+            {
+                return;
+            } // end of if (row[slot] == candidate)
+        } // end of for (int slot = first; ...)
+
+        // keep the list sorted, most alike first, dropping the least alike if it is full
+        int slot = last;
+        while (slot > first && (row[slot - 1] == NO_NEIGHBOR || similarities[slot - 1] < similarity))
+        {
+            row[slot] = row[slot - 1];
+            similarities[slot] = similarities[slot - 1];
+            slot--;
+        } // end of while (slot > first && ...)
+        row[slot] = candidate;
+        similarities[slot] = similarity;
+    } // end of method consider(int language, int key, int candidate, ...)
+
+    /*
+     * Drops the look-alikes of a concept that would be graded as a correct answer, such as a
+     * second concept with the same translation, closing up the gaps they leave.
+     */
+    private void weedOut(int language, int key, int[] row)
+    {
+        int first = key * neighborCount;
+        int kept = first;
+        for (int slot = first; slot < first + neighborCount && row[slot] != NO_NEIGHBOR; slot++)
+        {
+            if (isDistractor(language, key, row[slot]))
+            {
+                row[kept++] = row[slot];
+            } // end of if (isDistractor(language, key, row[slot]))
+        } // end of for (int slot = first; ...)
+
+        Arrays.fill(row, kept, first + neighborCount, NO_NEIGHBOR);
+    } // end of method weedOut(int language, int key, int[] row)
+
+    /*
+     * Fills the empty places in a concept's look-alikes with other concepts that have a
+     * translation, walking them from a starting point fixed by the key so that the same corpus
+     * always gets the same index. The walk gives up after a few tries per empty place, so a
+     * corpus full of concepts that share a translation leaves lists short rather than taking
+     * time proportional to its size for every concept.
+     */
+    private void topUp(int language, int key, int[] row, int[] translatedKeys, int translatedCount)
+    {
+        int first = key * neighborCount;
+        int slot = first;
+        while (slot < first + neighborCount && row[slot] != NO_NEIGHBOR)
+        {
+            slot++;
+        } // end of while (slot < first + neighborCount && row[slot] != NO_NEIGHBOR)
+
+        int start = new SplittableRandom(key).nextInt(translatedCount);
+        int tries = Math.min(translatedCount, (first + neighborCount - slot) * TOP_UP_TRIES_PER_NEIGHBOR);
+        for (int step = 0; step < tries && slot < first + neighborCount; step++)
+        {
+            int candidate = translatedKeys[(start + step) % translatedCount];
+            boolean kept = false;
+            for (int other = first; other < slot && !kept; other++)
+            {
+                kept = (row[other] == candidate);
+            } // end of for (int other = first; other < slot && !kept; other++)
+
+            if (candidate != key && !kept && isDistractor(language, key, candidate))
+            {
+                row[slot++] = candidate;
+            } // end of if (candidate != key && !kept && isDistractor(language, key, candidate))
+        } // end of for (int step = 0; step < tries && slot < first + neighborCount; step++)
+    } // end of method topUp(int language, int key, int[] row, int[] translatedKeys, int translatedCount)
+
+    /*
+     * Indicates whether a candidate can be offered against a concept: it has a translation in
+     * the language, and that translation would be marked wrong.
+     */
+    private boolean isDistractor(int language, int key, int candidate)
+    {
+        String text = corpus.getText(candidate, language);
+        return text != null && !corpus.accepts(key, language, text);
+    } // end of method isDistractor(int language, int key, int candidate)
+
+    /*
+     * Writes the MinHash signature of a grading key: for each of the hash functions, the
+     * smallest hash of any of its trigrams. The key is padded with a space at each end so
+     * that short words still have trigrams and their first and last letters weigh more.
+     * Returns false if the key is empty.
+     */
+    private static boolean sign(String answerKey, int[] signatures, int offset)
+    {
+        if (answerKey.isEmpty())
+        {
+            return false;
+        } // end of if (answerKey.isEmpty())
+
+        Arrays.fill(signatures, offset, offset + HASH_COUNT, Integer.MAX_VALUE);
+        int length = answerKey.length() + 2;
+        for (int start = 0; start + GRAM_LENGTH <= length; start++)
+        {
+            int gram = 0;
+            for (int index = start; index < start + GRAM_LENGTH; index++)
+            {
+                char character = (index == 0 || index == length - 1) ? PADDING : answerKey.charAt(index - 1);
+                gram = 31 * gram + character;
+            } // end of for (int index = start; index < start + GRAM_LENGTH; index++)
+
+            for (int hash = 0; hash < HASH_COUNT; hash++)
+            {
+                int value = mix(gram + hash * GOLDEN_RATIO);
+                if (value < signatures[offset + hash])
+                {
+                    signatures[offset + hash] = value;
+                } // end of if (value < signatures[offset + hash])
+            } // end of for (int hash = 0; hash < HASH_COUNT; hash++)
+        } // end of for (int start = 0; start + GRAM_LENGTH <= length; start++)
+
+        return true;
+    } // end of method sign(String answerKey, int[] signatures, int offset)
+
+    /*
+     * Scrambles the bits of a value with the MurmurHash3 finalizer, so that nearby values get
+     * unrelated hashes.
+     */
+    private static int mix(int value)
+    {
+        int hash = value;
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    } // end of method mix(int value)
+} // end of class DistractorIndex
@@ -0,0 +1,91 @@
+/**
+ * Measures how many single-character edits apart two grading keys are, for accepting
+ * answers with a few typing mistakes. Only the diagonal band of the edit table that can
+ * stay within the limit is filled, and the comparison stops as soon as the whole band
+ * exceeds it.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class EditDistance
+{
+    /* constructors */
+    /*
+     * Distances are only measured through the static method.
+     */
+    private EditDistance()
+    {
+    } // end of constructor EditDistance()
+
+    /* accessors */
+    /**
+     * Indicates whether two keys are within the given number of single-character edits of
+     * each other, filling the band of the edit table in rows supplied by the caller so that
+     * repeated comparisons need not allocate.
+     *
+     * @param first one key
+     * @param second the other key
+     * @param maxDistance the largest number of edits allowed
+     * @param previousRow a scratch row longer than the second key
+     * @param currentRow another scratch row longer than the second key
+     * @return the edit distance, or maxDistance + 1 if it is larger than maxDistance
+     */
+    public static int bounded(CharSequence first, CharSequence second, int maxDistance,
+        int[] previousRow, int[] currentRow)
+    {
+        int firstLength = first.length();
+        int secondLength = second.length();
+        if (Math.abs(firstLength - secondLength) > maxDistance)
+        {
+            return maxDistance + 1;
+        } // end of if (Math.abs(firstLength - secondLength) > maxDistance)
+
+        int beyondLimit = maxDistance + 1;
+
+        for (int column = 0; column <= secondLength; column++)
+        {
+            previousRow[column] = Math.min(column, beyondLimit);
+        } // end of for (int column = 0; column <= secondLength; column++)
+
+        for (int row = 1; row <= firstLength; row++)
+        {
+            int firstColumn = Math.max(1, row - maxDistance);
+            int lastColumn = Math.min(secondLength, row + maxDistance);
+            int rowMinimum = beyondLimit;
+
+            currentRow[0] = Math.min(row, beyondLimit);
+            if (firstColumn > 1)
+            {
+                currentRow[firstColumn - 1] = beyondLimit;
+            } // end of if (firstColumn > 1)
+
+            char firstCharacter = first.charAt(row - 1);
+            for (int column = firstColumn; column <= lastColumn; column++)
+            {
+                int substitution = previousRow[column - 1]
+                    + ((firstCharacter == second.charAt(column - 1)) ? 0 : 1);
+                int deletion = previousRow[column] + 1;
+                int insertion = currentRow[column - 1] + 1;
+                int distance = Math.min(beyondLimit, Math.min(substitution, Math.min(deletion, insertion)));
+                currentRow[column] = distance;
+                rowMinimum = Math.min(rowMinimum, distance);
+            } // end of for (int column = firstColumn; column <= lastColumn; column++)
+
+            if (lastColumn < secondLength)
+            {
+                currentRow[lastColumn + 1] = beyondLimit;
+            } // end of if (lastColumn < secondLength)
+
+            if (rowMinimum > maxDistance)
+            {
+                return beyondLimit;
+            } // end of if (rowMinimum > maxDistance)
+
+            int[] swap = previousRow;
+            previousRow = currentRow;
+            currentRow = swap;
+        } // end of for (int row = 1; row <= firstLength; row++)
+
+        return previousRow[secondLength];
+    } // end of method bounded(CharSequence first, CharSequence second, int maxDistance, ...)
+} // end of class EditDistance
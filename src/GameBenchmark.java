@@ -0,0 +1,335 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import javax.imageio.ImageIO;
+
+/**
+ * Benchmarks the game's hot paths: loading a corpus, selecting questions, grading
+ * answers, decoding images and painting them. Corpus benchmarks run against synthetic
+ * decks of each requested size.
+ *
+ * <pre>
+ * java -Djava.awt.headless=true GameBenchmark [sizes] [json file]
+ * java GameBenchmark 10,1000,100000,1000000,10000000 benchmark-results.json
+ * </pre>
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class GameBenchmark
+{
+    // class constants
+    private static final String DEFAULT_SIZES = "10,1000,100000,1000000";
+    private static final String DEFAULT_JSON_FILE = "benchmark-results.json";
+    private static final String IMAGE_DIRECTORY = "TGame Images";
+    private static final int NUMBER_OF_PHRASES = 10;
+    private static final int TYPO_TOLERANCE = 1;
+    private static final int VIEW_WIDTH = 700;
+    private static final int VIEW_HEIGHT = 400;
+    private static final long SEED = 2017;
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_MILLIS = 500;
+
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String ACCENTED_LETTERS = "\u00e9\u00e8\u00ea\u00e0\u00e7\u00f4\u00fb";
+
+    /* private methods */
+    /*
+     * Writes a synthetic English and French corpus of the given size and returns its directory.
+     */
+    private static Path writeCorpus(int size) throws IOException
+    {
+        Path directory = Files.createTempDirectory("corpus-" + size + "-");
+        Random randomizer = new Random(SEED + size);
+
+        try (BufferedWriter english = Files.newBufferedWriter(directory.resolve("english.txt"), StandardCharsets.UTF_8);
+            BufferedWriter french = Files.newBufferedWriter(directory.resolve("french.txt"), StandardCharsets.UTF_8))
+        {
+            for (int line = 0; line < size; line++)
+            {
+                english.write(randomWord(randomizer, false));
+                english.newLine();
+                french.write(randomWord(randomizer, true));
+                french.newLine();
+            } // end of for (int line = 0; line < size; line++)
+        } // end of try
+
+        return directory;
+    } // end of method writeCorpus(int size)
+
+    /*
+     * Returns a capitalized word of 4 to 12 letters, with the odd accent in French.
+     */
+    private static String randomWord(Random randomizer, boolean french)
+    {
+        int length = 4 + randomizer.nextInt(9);
+        StringBuilder word = new StringBuilder(length);
+
+        for (int letter = 0; letter < length; letter++)
+        {
+            if (french && randomizer.nextInt(8) == 0)
+            {
+                word.append(ACCENTED_LETTERS.charAt(randomizer.nextInt(ACCENTED_LETTERS.length())));
+            }
+            else
+            {
+                word.append(LETTERS.charAt(randomizer.nextInt(LETTERS.length())));
+            } // end of if (french && randomizer.nextInt(8) == 0)
+        } // end of for (int letter = 0; letter < length; letter++)
+
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    } // end of method randomWord(Random randomizer, boolean french)
+
+    /*
+     * Deletes a synthetic corpus.
+     */
+    private static void deleteCorpus(Path directory) throws IOException
+    {
+        Files.deleteIfExists(directory.resolve("english.txt"));
+        Files.deleteIfExists(directory.resolve("french.txt"));
+        Files.deleteIfExists(directory);
+    } // end of method deleteCorpus(Path directory)
+
+    /*
+     * Measures loading, question selection and grading against a corpus of the given size.
+     */
+    private static void benchmarkCorpus(BenchmarkRunner runner, int size) throws Exception
+    {
+        String parameter = "size=" + size;
+        Path directory = writeCorpus(size);
+        String englishFile = directory.resolve("english.txt").toString();
+        String frenchFile = directory.resolve("french.txt").toString();
+
+        try
+        {
+            runner.measure("loadSentences", parameter, invocation ->
+                GameCorpus.load(englishFile, frenchFile, AnswerNormalizer.ACCENT_INSENSITIVE, 0).size());
+
+            GameCorpus corpus = GameCorpus.load(englishFile, frenchFile, AnswerNormalizer.ACCENT_INSENSITIVE,
+                    TYPO_TOLERANCE);
+            Random randomizer = new Random(SEED);
+
+            // one session's worth of draws, the way the game asks for keys
+            runner.measure("generateValidIntegerKey", parameter, invocation ->
+            {
+                QuestionSelector questionSelector = new ShuffledQuestionSelector(size, invocation);
+                long keys = 0;
+                for (int phrase = 0; phrase < NUMBER_OF_PHRASES; phrase++)
+                {
+                    keys += questionSelector.nextKey();
+                } // end of for (int phrase = 0; phrase < NUMBER_OF_PHRASES; phrase++)
+                return keys;
+            });
+
+            int[] keys = new int[1024];
+            String[] correctAnswers = new String[keys.length];
+            String[] typoAnswers = new String[keys.length];
+            String[] accentedAnswers = new String[keys.length];
+            String[] wrongAnswers = new String[keys.length];
+            for (int answer = 0; answer < keys.length; answer++)
+            {
+                keys[answer] = randomizer.nextInt(size);
+                correctAnswers[answer] = " " + corpus.getEnglish(keys[answer]).toUpperCase() + " ";
+                typoAnswers[answer] = corpus.getEnglish(keys[answer]).substring(1);
+                accentedAnswers[answer] = " " + corpus.getFrench(keys[answer]).toUpperCase() + " ";
+                wrongAnswers[answer] = corpus.getEnglish(randomizer.nextInt(size)) + LETTERS;
+            } // end of for (int answer = 0; answer < keys.length; answer++)
+
+            // grading runs on every answer, so each of these should report 0 B/op once warmed up
+            runner.measure("checkTranslation.correct", parameter, invocation ->
+            {
+                int answer = invocation & (keys.length - 1);
+                return corpus.grade(keys[answer], true, correctAnswers[answer]);
+            });
+
+            runner.measure("checkTranslation.typo", parameter, invocation ->
+            {
+                int answer = invocation & (keys.length - 1);
+                return corpus.grade(keys[answer], true, typoAnswers[answer]);
+            });
+
+            runner.measure("checkTranslation.accented", parameter, invocation ->
+            {
+                int answer = invocation & (keys.length - 1);
+                return corpus.grade(keys[answer], false, accentedAnswers[answer]);
+            });
+
+            runner.measure("checkTranslation.wrong", parameter, invocation ->
+            {
+                int answer = invocation & (keys.length - 1);
+                return corpus.grade(keys[answer], true, wrongAnswers[answer]);
+            });
+
+            // a player's answer loop: each operation poses a prompt and grades a correct answer to it
+            int[] sessionKeys = keys.clone();
+            Arrays.sort(sessionKeys);
+            String[] englishAnswers = new String[sessionKeys.length];
+            String[] frenchAnswers = new String[sessionKeys.length];
+            for (int answer = 0; answer < sessionKeys.length; answer++)
+            {
+                englishAnswers[answer] = " " + corpus.getEnglish(sessionKeys[answer]).toUpperCase() + " ";
+                frenchAnswers[answer] = " " + corpus.getFrench(sessionKeys[answer]).toUpperCase() + " ";
+            } // end of for (int answer = 0; answer < sessionKeys.length; answer++)
+
+            GameSession gradingSession = new GameSession(corpus, new RepeatingSelector(sessionKeys),
+                new Random(SEED), Integer.MAX_VALUE);
+            runner.measure("GameSession.grade", parameter, invocation ->
+            {
+                Prompt prompt = gradingSession.nextPrompt();
+                int answer = Arrays.binarySearch(sessionKeys, prompt.getKey());
+                return gradingSession.grade(prompt.getPromptEnglishOrFrench() ? englishAnswers[answer]
+                    : frenchAnswers[answer]).ordinal();
+            });
+
+            // the same loop for a client that shows every result
+            GameSession submittingSession = new GameSession(corpus, new RepeatingSelector(sessionKeys),
+                new Random(SEED), Integer.MAX_VALUE);
+            runner.measure("GameSession.submit", parameter, invocation ->
+            {
+                Prompt prompt = submittingSession.nextPrompt();
+                int answer = Arrays.binarySearch(sessionKeys, prompt.getKey());
+                return submittingSession.submit(prompt.getPromptEnglishOrFrench() ? englishAnswers[answer]
+                    : frenchAnswers[answer]).getScore().getPhrasesPosed();
+            });
+        }
+        finally
+        {
+            deleteCorpus(directory);
+        } // end of finally
+    } // end of method benchmarkCorpus(BenchmarkRunner runner, int size)
+
+    /*
+     * Measures decoding the game's images and painting them on a headless graphics context.
+     */
+    private static void benchmarkImages(BenchmarkRunner runner) throws Exception
+    {
+        File[] imageFiles = new File(IMAGE_DIRECTORY).listFiles((directory, name) ->
+            name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".png"));
+        if (imageFiles == null || imageFiles.length == 0)
+        {
+            System.out.println("No images found in " + IMAGE_DIRECTORY + "; skipping image benchmarks");
+            return;
+        } // end of if (imageFiles == null || imageFiles.length == 0)
+
+        String parameter = "images=" + imageFiles.length;
+        runner.measure("ImageComponent.decode", parameter, invocation ->
+            ImageIO.read(imageFiles[invocation % imageFiles.length]).getWidth());
+
+        BufferedImage[] images = new BufferedImage[imageFiles.length];
+        for (int image = 0; image < images.length; image++)
+        {
+            images[image] = ImageIO.read(imageFiles[image]);
+        } // end of for (int image = 0; image < images.length; image++)
+
+        BufferedImage screen = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphicsContext = screen.createGraphics();
+        try
+        {
+            runner.measure("ImageComponent.paint.fullSize", parameter, invocation ->
+            {
+                BufferedImage image = images[invocation % images.length];
+                graphicsContext.drawImage(image, (VIEW_WIDTH - image.getWidth()) / 2,
+                    (VIEW_HEIGHT - image.getHeight()) / 2, null);
+                return image.getWidth();
+            });
+
+            // a new renderer every time measures the one-off cost of scaling after a swap or resize
+            runner.measure("ImageComponent.paint.rescale", parameter, invocation ->
+                new ScaledImageRenderer().render(images[invocation % images.length], VIEW_WIDTH / 2,
+                    VIEW_HEIGHT / 2, null).getWidth());
+
+            ScaledImageRenderer[] renderers = new ScaledImageRenderer[images.length];
+            for (int image = 0; image < images.length; image++)
+            {
+                renderers[image] = new ScaledImageRenderer();
+            } // end of for (int image = 0; image < images.length; image++)
+
+            runner.measure("ImageComponent.paint.scaled", parameter, invocation ->
+            {
+                int image = invocation % images.length;
+                BufferedImage scaledImage = renderers[image].render(images[image], VIEW_WIDTH / 2,
+                        VIEW_HEIGHT / 2, null);
+                graphicsContext.drawImage(scaledImage, 0, 0, null);
+                return scaledImage.getWidth();
+            });
+        }
+        finally
+        {
+            graphicsContext.dispose();
+        } // end of finally
+    } // end of method benchmarkImages(BenchmarkRunner runner)
+
+    /* private classes */
+    /*
+     * Draws the same keys over and over, so that a benchmarked session never runs out of questions.
+     */
+    private static class RepeatingSelector implements QuestionSelector
+    {
+        // instance fields
+        private final int[] keys;
+        private int drawn;
+
+        /* constructors */
+        /*
+         * Creates a selector that draws the given keys in order, then starts again.
+         */
+        public RepeatingSelector(int[] keys)
+        {
+            this.keys = keys;
+            drawn = 0;
+        } // end of constructor RepeatingSelector(int[] keys)
+
+        /* accessors */
+        /*
+         * Returns the number of questions that can still be drawn, which never runs out.
+         */
+        public int remaining()
+        {
+            return Integer.MAX_VALUE;
+        } // end of method remaining()
+
+        /* mutators */
+        /*
+         * Returns the next key in order.
+         */
+        public int nextKey()
+        {
+            int key = keys[drawn];
+            drawn = (drawn + 1) % keys.length;
+            return key;
+        } // end of method nextKey()
+    } // end of class RepeatingSelector implements QuestionSelector
+
+    /**
+     * Runs every benchmark and writes the results as JSON.
+     *
+     * @param argument optional comma-separated corpus sizes, then an optional JSON file name
+     */
+    public static void main(String[] argument) throws Exception
+    {
+        System.setProperty("java.awt.headless", "true");
+
+        String sizes = (argument.length > 0) ? argument[0] : DEFAULT_SIZES;
+        String jsonFile = (argument.length > 1) ? argument[1] : DEFAULT_JSON_FILE;
+        BenchmarkRunner runner = new BenchmarkRunner(WARMUP_ITERATIONS, MEASUREMENT_ITERATIONS, ITERATION_MILLIS);
+
+        for (String size : sizes.split(","))
+        {
+            benchmarkCorpus(runner, Integer.parseInt(size.trim()));
+        } // end of for (String size : sizes.split(","))
+        benchmarkImages(runner);
+
+        runner.writeJson(jsonFile);
+        System.out.println("Results written to " + jsonFile + " (" + runner.getSink() + ")");
+    } // end of method main(String[] argument)
+} // end of class GameBenchmark
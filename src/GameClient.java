@@ -0,0 +1,100 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Plays a game against a GameServer over its line-based protocol. Used to try out a
+ * server from the same machine.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class GameClient implements Closeable
+{
+    // instance fields
+    private final Socket socket;
+    private final BufferedReader input;
+    private final PrintWriter output;
+    private final int numberOfPhrases;
+
+    /* constructors */
+    /**
+     * Connects to a game server and reads its welcome line.
+     *
+     * @param host the server's host name
+     * @param port the server's port
+     * @throws IOException if the connection fails or the server does not greet the client
+     */
+    public GameClient(String host, int port) throws IOException
+    {
+        socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        output = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+
+        String welcome = input.readLine();
+        if (welcome == null || !welcome.startsWith("WELCOME "))
+        {
+            socket.close();
+            throw new IOException("Unexpected greeting from server: " + welcome);
+        } // end of if (welcome == null || !welcome.startsWith("WELCOME "))
+        numberOfPhrases = Integer.parseInt(welcome.substring("WELCOME ".length()));
+    } // end of constructor GameClient(String host, int port)
+
+    /* accessors */
+    /**
+     * Returns the number of phrases in the server's games.
+     *
+     * @return the number of phrases
+     */
+    public int getNumberOfPhrases()
+    {
+        return numberOfPhrases;
+    } // end of method getNumberOfPhrases()
+
+    /* mutators */
+    /**
+     * Reads the next prompt from the server.
+     *
+     * @return the prompt, or null once the server has ended the game
+     * @throws IOException if the connection fails
+     */
+    public Prompt readPrompt() throws IOException
+    {
+        String line = input.readLine();
+        if (line == null || !line.startsWith("PROMPT "))
+        {
+            return null;
+        } // end of if (line == null || !line.startsWith("PROMPT "))
+
+        // PROMPT <key> <en|fr> <sentence>, where the direction is the language to answer in
+        String[] fields = line.split(" ", 4);
+        return new Prompt(Integer.parseInt(fields[1]), fields[2].equals("en"), (fields.length > 3) ? fields[3] : "");
+    } // end of method readPrompt()
+
+    /**
+     * Sends an answer to the current prompt and returns the server's reply.
+     *
+     * @param answer the answer
+     * @return the reply line, e.g. "CORRECT Pomme", "INCORRECT" or "BYE 3/10 - 30%"
+     * @throws IOException if the connection fails
+     */
+    public String answer(String answer) throws IOException
+    {
+        output.println(answer);
+        return input.readLine();
+    } // end of method answer(String answer)
+
+    /**
+     * Closes the connection.
+     */
+    public void close() throws IOException
+    {
+        socket.close();
+    } // end of method close()
+} // end of class GameClient
@@ -0,0 +1,628 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The concepts of a game together with everything needed to grade answers against
+ * them. A corpus may hold any number of languages; the game poses French and English,
+ * so a deck is only loaded if it has "en" and "fr" columns, and the English-and-French
+ * methods of a corpus built without them throw an exception naming the missing column.
+ * Only a concept with both an English and a French translation can be posed; the posable
+ * concepts are listed once, when the corpus is built, so question selectors never draw
+ * the others.
+ * A corpus is built once and only read afterwards.
+ *
+ * Grading is on every player's answer loop, so it creates no objects: an answer is folded
+ * into a per-thread buffer and compared with the stored keys in place, and the result is a
+ * packed int. Only a client that shows the accepted translation asks for an AnswerMatch.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class GameCorpus
+{
+    // class constants
+    /** Returned by grade() for an answer that matches no accepted translation. */
+    public static final int NO_MATCH = -1;
+
+    private static final ThreadLocal<GradingBuffer> GRADING_BUFFERS = ThreadLocal.withInitial(GradingBuffer::new);
+
+    // instance fields
+    private final CorpusStore store;
+    private final AnswerNormalizer normalizer;
+    private final int typoTolerance;
+    private final int englishLanguage;
+    private final int frenchLanguage;
+    private final int[] posableKeys;
+    private final int posableCount;
+
+    /* constructors */
+    /**
+     * Constructs a corpus over the given store.
+     *
+     * @param store the concepts, with grading keys made by the normalizer
+     * @param normalizer the normalizer the store was built with
+     * @param typoTolerance the number of typing mistakes to forgive, or 0 for exact grading
+     */
+    public GameCorpus(CorpusStore store, AnswerNormalizer normalizer, int typoTolerance)
+    {
+        this.store = store;
+        this.normalizer = normalizer;
+        this.typoTolerance = typoTolerance;
+        englishLanguage = store.indexOfLanguage("en");
+        frenchLanguage = store.indexOfLanguage("fr");
+
+        // most decks translate every concept, and then no list is kept at all
+        int[] keys = findPosableKeys();
+        posableCount = (keys == null) ? store.size() : keys.length;
+        posableKeys = keys;
+    } // end of constructor GameCorpus(CorpusStore store, AnswerNormalizer normalizer, int typoTolerance)
+
+    /**
+     * Loads a corpus from an English and a French sentence file.
+     *
+     * @param englishFileName the file holding one English sentence per line
+     * @param frenchFileName the file holding the matching French sentence on each line
+     * @param normalizer the normalizer used to grade answers
+     * @param typoTolerance the number of typing mistakes to forgive, or 0 for exact grading
+     * @return the loaded corpus
+     * @throws IOException if a file cannot be read or the files have different lengths
+     */
+    public static GameCorpus load(String englishFileName, String frenchFileName, AnswerNormalizer normalizer,
+        int typoTolerance) throws IOException
+    {
+        long start = GameMetrics.start();
+        CorpusStore store = CorpusLoader.loadStore(englishFileName, frenchFileName, normalizer);
+        GameMetrics.CORPUS_LOAD.stop(start);
+        return new GameCorpus(store, normalizer, typoTolerance);
+    } // end of method load(String englishFileName, String frenchFileName, ...)
+
+    /**
+     * Loads a corpus from a precompiled corpus file, or from the sentence files it was compiled
+     * from if the corpus file is missing, damaged or older than them. In that case the corpus
+     * file is compiled again for the next start.
+     *
+     * @param englishFileName the file holding one English sentence per line
+     * @param frenchFileName the file holding the matching French sentence on each line
+     * @param corpusFileName the precompiled corpus file
+     * @param normalizer the normalizer used to grade answers
+     * @param typoTolerance the number of typing mistakes to forgive, or 0 for exact grading
+     * @return the loaded corpus
+     * @throws IOException if the sentence files are needed and cannot be read
+     */
+    public static GameCorpus load(String englishFileName, String frenchFileName, String corpusFileName,
+        AnswerNormalizer normalizer, int typoTolerance) throws IOException
+    {
+        long start = GameMetrics.start();
+        CorpusStore store = CorpusFile.load(corpusFileName, englishFileName, frenchFileName, normalizer);
+        GameMetrics.CORPUS_LOAD.stop(start);
+        return new GameCorpus(store, normalizer, typoTolerance);
+    } // end of method load(String englishFileName, String frenchFileName, String corpusFileName, ...)
+
+    /**
+     * Loads a corpus from a tab-separated deck file of any number of languages.
+     *
+     * @param deckFileName the deck, whose first line names its languages
+     * @param normalizer the normalizer used to grade answers
+     * @param typoTolerance the number of typing mistakes to forgive, or 0 for exact grading
+     * @return the loaded corpus
+     * @throws IOException if the deck cannot be read, is malformed or lacks an "en" or "fr" column
+     */
+    public static GameCorpus loadDeck(String deckFileName, AnswerNormalizer normalizer, int typoTolerance)
+        throws IOException
+    {
+        long start = GameMetrics.start();
+        CorpusStore store = CorpusLoader.loadStore(deckFileName, normalizer);
+        checkEnglishAndFrench(store, deckFileName);
+        GameMetrics.CORPUS_LOAD.stop(start);
+        return new GameCorpus(store, normalizer, typoTolerance);
+    } // end of method loadDeck(String deckFileName, AnswerNormalizer normalizer, int typoTolerance)
+
+    /**
+     * Loads a corpus from a precompiled corpus file, or from the deck it was compiled from if
+     * the corpus file is missing, damaged or older than the deck.
+     *
+     * @param deckFileName the deck, whose first line names its languages
+     * @param corpusFileName the precompiled corpus file
+     * @param normalizer the normalizer used to grade answers
+     * @param typoTolerance the number of typing mistakes to forgive, or 0 for exact grading
+     * @return the loaded corpus
+     * @throws IOException if the deck is needed and cannot be read, or it lacks an "en" or "fr" column
+     */
+    public static GameCorpus loadDeck(String deckFileName, String corpusFileName, AnswerNormalizer normalizer,
+        int typoTolerance) throws IOException
+    {
+        long start = GameMetrics.start();
+        CorpusStore store = CorpusFile.loadDeck(corpusFileName, deckFileName, normalizer);
+        checkEnglishAndFrench(store, deckFileName);
+        GameMetrics.CORPUS_LOAD.stop(start);
+        return new GameCorpus(store, normalizer, typoTolerance);
+    } // end of method loadDeck(String deckFileName, String corpusFileName, AnswerNormalizer normalizer, ...)
+
+    /* accessors */
+    /**
+     * Returns the number of concepts in this corpus.
+     *
+     * @return the number of concepts
+     */
+    public int size()
+    {
+        return store.size();
+    } // end of method size()
+
+    /**
+     * Returns the language codes of this corpus, such as "en" and "fr".
+     *
+     * @return the language codes, in column order
+     */
+    public List<String> getLanguages()
+    {
+        return store.getLanguages();
+    } // end of method getLanguages()
+
+    /**
+     * Returns the index of the given language.
+     *
+     * @param languageCode a language code, such as "fr"
+     * @return the index of the language, or -1 if this corpus does not have it
+     */
+    public int indexOfLanguage(String languageCode)
+    {
+        return store.indexOfLanguage(languageCode);
+    } // end of method indexOfLanguage(String languageCode)
+
+    /**
+     * Returns a checksum of this corpus's concepts, so that keys saved while playing one
+     * corpus are not taken to name the same pairs in another.
+     *
+     * @return the fingerprint of the store
+     */
+    public int getFingerprint()
+    {
+        return store.getFingerprint();
+    } // end of method getFingerprint()
+
+    /**
+     * Returns the number of concepts that can be posed: those with both an English and a
+     * French translation.
+     *
+     * @return the number of posable concepts
+     */
+    public int getPosableCount()
+    {
+        return posableCount;
+    } // end of method getPosableCount()
+
+    /**
+     * Returns the key of a posable concept, counting only the posable ones in key order.
+     *
+     * @param index an index from 0 to getPosableCount() - 1
+     * @return the key of the concept
+     */
+    public int getPosableKey(int index)
+    {
+        if (index < 0 || index >= posableCount)
+        {
+            throw new IndexOutOfBoundsException("No posable concept has the index " + index);
+        } // end of if (index < 0 || index >= posableCount)
+        return (posableKeys == null) ? index : posableKeys[index];
+    } // end of method getPosableKey(int index)
+
+    /**
+     * Indicates whether the concept with the given key has both an English and a French
+     * translation, and so can be posed in either direction.
+     *
+     * @param key a key from 0 to size() - 1
+     * @return true if the concept can be posed, else false
+     */
+    public boolean isPosable(int key)
+    {
+        return (posableKeys == null) ? key >= 0 && key < posableCount
+            : Arrays.binarySearch(posableKeys, key) >= 0;
+    } // end of method isPosable(int key)
+
+    /**
+     * Returns the translation of the concept with the given key that is shown in a language.
+     *
+     * @param key a key from 0 to size() - 1
+     * @param language a language index
+     * @return the translation, or null if the concept has none in this language
+     */
+    public String getText(int key, int language)
+    {
+        return store.getText(key, language);
+    } // end of method getText(int key, int language)
+
+    /**
+     * Returns the English sentence of the concept with the given key.
+     *
+     * @param key a key from 0 to size() - 1
+     * @return the English sentence
+     * @throws IllegalStateException if this corpus has no "en" column
+     */
+    public String getEnglish(int key)
+    {
+        return store.getText(key, requireLanguage(englishLanguage, "en"));
+    } // end of method getEnglish(int key)
+
+    /**
+     * Returns the French sentence of the concept with the given key.
+     *
+     * @param key a key from 0 to size() - 1
+     * @return the French sentence
+     * @throws IllegalStateException if this corpus has no "fr" column
+     */
+    public String getFrench(int key)
+    {
+        return store.getText(key, requireLanguage(frenchLanguage, "fr"));
+    } // end of method getFrench(int key)
+
+    /**
+     * Returns the compact store holding this corpus's sentences.
+     *
+     * @return the store
+     */
+    public CorpusStore getStore()
+    {
+        return store;
+    } // end of method getStore()
+
+    /**
+     * Returns the normalizer answers are graded with.
+     *
+     * @return the normalizer
+     */
+    public AnswerNormalizer getNormalizer()
+    {
+        return normalizer;
+    } // end of method getNormalizer()
+
+    /**
+     * Returns the number of typing mistakes this corpus forgives when grading.
+     *
+     * @return the typo tolerance
+     */
+    public int getTypoTolerance()
+    {
+        return typoTolerance;
+    } // end of method getTypoTolerance()
+
+    /**
+     * Returns the index of the language an answer is expected in when a prompt is in English
+     * or French.
+     *
+     * @param promptEnglishOrFrench true if the French sentence is shown and English is expected, else false
+     * @return the index of English or of French
+     * @throws IllegalStateException if this corpus has no column for the expected language
+     */
+    public int getAnswerLanguage(boolean promptEnglishOrFrench)
+    {
+        return promptEnglishOrFrench ? requireLanguage(englishLanguage, "en") : requireLanguage(frenchLanguage, "fr");
+    } // end of method getAnswerLanguage(boolean promptEnglishOrFrench)
+
+    /**
+     * Grades an answer to the concept with the given key in English or French.
+     *
+     * @param key the key of the concept
+     * @param promptEnglishOrFrench true if the French sentence was shown and English is expected, else false
+     * @param answer the player's answer
+     * @return the match, packed as described for grade(int, int, String), or NO_MATCH if it is wrong
+     */
+    public int grade(int key, boolean promptEnglishOrFrench, String answer)
+    {
+        return grade(key, getAnswerLanguage(promptEnglishOrFrench), answer);
+    } // end of method grade(int key, boolean promptEnglishOrFrench, String answer)
+
+    /**
+     * Grades an answer to the concept with the given key, accepting any of its translations in
+     * the expected language. The match is packed into an int so that grading creates no
+     * objects: the index of the accepted translation times (typo tolerance + 1), plus the
+     * number of typing mistakes forgiven.
+     *
+     * @param key the key of the concept
+     * @param language the index of the language the answer should be in
+     * @param answer the player's answer
+     * @return the match, or NO_MATCH if the answer is wrong
+     */
+    public int grade(int key, int language, String answer)
+    {
+        long start = GameMetrics.start();
+        int match = match(key, language, answer);
+        GameMetrics.GRADING.stop(start);
+
+        if (match == NO_MATCH)
+        {
+            GameMetrics.INCORRECT_ANSWERS.increment();
+        }
+        else
+        {
+            GameMetrics.CORRECT_ANSWERS.increment();
+        } // end of if (match == NO_MATCH)
+
+        return match;
+    } // end of method grade(int key, int language, String answer)
+
+    /**
+     * Returns the number of typing mistakes forgiven in a match returned by grade().
+     *
+     * @param match a match other than NO_MATCH
+     * @return 0 for an exact match, else the edit distance
+     */
+    public int getDistance(int match)
+    {
+        return match % (typoTolerance + 1);
+    } // end of method getDistance(int match)
+
+    /**
+     * Describes a match returned by grade(), for a client that shows the accepted translation.
+     * The translation is only decoded when it is asked for.
+     *
+     * @param key the key of the concept that was graded
+     * @param language the index of the language the answer was graded in
+     * @param match the match returned by grade()
+     * @return the match, or null for NO_MATCH
+     */
+    public AnswerMatch getAnswerMatch(int key, int language, int match)
+    {
+        return (match == NO_MATCH) ? null
+            : new AnswerMatch(store, key, language, match / (typoTolerance + 1), getDistance(match));
+    } // end of method getAnswerMatch(int key, int language, int match)
+
+    /**
+     * Indicates whether an answer to the concept with the given key would be graded correct,
+     * without counting it as a graded answer.
+     *
+     * @param key the key of the concept
+     * @param language the index of the language the answer should be in
+     * @param answer a possible answer
+     * @return true if the answer would be accepted, else false
+     */
+    public boolean accepts(int key, int language, String answer)
+    {
+        return match(key, language, answer) != NO_MATCH;
+    } // end of method accepts(int key, int language, String answer)
+
+    /* private methods */
+    /*
+     * Grades an answer: an exact comparison against every accepted key first, then the
+     * closest accepted key within the typo tolerance. Returns the matching translation's
+     * index times (typo tolerance + 1) plus the distance, or NO_MATCH.
+     */
+    private int match(int key, int language, String answer)
+    {
+        GradingBuffer buffer = GRADING_BUFFERS.get();
+        KeyBuffer answerKey = buffer.answerKey;
+        answerKey.normalize(answer, normalizer);
+        int exactAnswer = store.indexOfAnswerKey(key, language, answerKey);
+
+        if (exactAnswer >= 0)
+        {
+            return exactAnswer * (typoTolerance + 1);
+        }
+        else if (typoTolerance == 0)
+        {
+            return NO_MATCH;
+        } // end of if (exactAnswer >= 0)
+
+        // a concept accepts a handful of translations, so bounded comparisons beat any shared index
+        KeyBuffer acceptedKey = buffer.acceptedKey;
+        int closestAnswer = -1;
+        int closestDistance = typoTolerance + 1;
+        int answerCount = store.getAnswerCount(key, language);
+        for (int acceptedAnswer = 0; acceptedAnswer < answerCount && closestDistance > 1; acceptedAnswer++)
+        {
+            acceptedKey.copyAnswerKey(store, key, language, acceptedAnswer);
+            buffer.ensureRowCapacity(acceptedKey.length() + 1);
+            int distance = EditDistance.bounded(answerKey, acceptedKey, closestDistance - 1, buffer.previousRow,
+                buffer.currentRow);
+            if (distance < closestDistance)
+            {
+                closestAnswer = acceptedAnswer;
+                closestDistance = distance;
+            } // end of if (distance < closestDistance)
+        } // end of for (int acceptedAnswer = 0; ...)
+
+        return (closestAnswer < 0) ? NO_MATCH : closestAnswer * (typoTolerance + 1) + closestDistance;
+    } // end of method match(int key, int language, String answer)
+
+    /*
+     * Lists the keys of the concepts with both an English and a French translation, or returns
+     * null if that is every concept.
+     */
+    private int[] findPosableKeys()
+    {
+        if (englishLanguage < 0 || frenchLanguage < 0)
+        {
+            return new int[0];
+        } // end of if (englishLanguage < 0 || frenchLanguage < 0)
+
+        int[] keys = null;
+        int count = 0;
+        for (int key = 0; key < store.size(); key++)
+        {
+            boolean posable = store.getAnswerCount(key, englishLanguage) > 0
+                && store.getAnswerCount(key, frenchLanguage) > 0;
+            if (!posable && keys == null)
+            {
+                // the first gap: every key before it is posable
+                keys = new int[store.size() - 1];
+                for (int earlierKey = 0; earlierKey < key; earlierKey++)
+                {
+                    keys[earlierKey] = earlierKey;
+                } // end of for (int earlierKey = 0; earlierKey < key; earlierKey++)
+                count = key;
+            }
+            else if (posable && keys != null)
+            {
+                keys[count++] = key;
+            } // end of if (!posable && keys == null)
+        } // end of for (int key = 0; key < store.size(); key++)
+
+        return (keys == null) ? null : Arrays.copyOf(keys, count);
+    } // end of method findPosableKeys()
+
+    /*
+     * Returns the given language index, or throws naming the column if this corpus lacks it.
+     */
+    private int requireLanguage(int language, String languageCode)
+    {
+        if (language < 0)
+        {
+            throw new IllegalStateException("The corpus has no \"" + languageCode + "\" column; its languages are "
+                + store.getLanguages());
+        } // end of if (language < 0)
+        return language;
+    } // end of method requireLanguage(int language, String languageCode)
+
+    /*
+     * Rejects a deck the game cannot pose, naming the first of "en" and "fr" it lacks.
+     */
+    private static void checkEnglishAndFrench(CorpusStore store, String deckFileName) throws IOException
+    {
+        for (String languageCode : new String[] { "en", "fr" })
+        {
+            if (store.indexOfLanguage(languageCode) < 0)
+            {
+                throw new IOException("The deck " + deckFileName + " has no \"" + languageCode
+                    + "\" column; its languages are " + store.getLanguages());
+            } // end of if (store.indexOfLanguage(languageCode) < 0)
+        } // end of for (String languageCode : new String[] { "en", "fr" })
+    } // end of method checkEnglishAndFrench(CorpusStore store, String deckFileName)
+
+    /* private classes */
+    /*
+     * A grading key held in a reusable array, which only grows.
+     */
+    private static class KeyBuffer implements CharSequence
+    {
+        // class constants
+        private static final int INITIAL_CAPACITY = 64;
+
+        // instance fields
+        private char[] characters;
+        private int length;
+
+        /* constructors */
+        /*
+         * Creates an empty buffer.
+         */
+        public KeyBuffer()
+        {
+            characters = new char[INITIAL_CAPACITY];
+            length = 0;
+        } // end of constructor KeyBuffer()
+
+        /* accessors */
+        /*
+         * Returns the number of characters in the key.
+         */
+        public int length()
+        {
+            return length;
+        } // end of method length()
+
+        /*
+         * Returns one character of the key.
+         */
+        public char charAt(int index)
+        {
+            if (index < 0 || index >= length)
+            {
+                throw new IndexOutOfBoundsException("No character " + index + " in a key of " + length);
+            } // end of if (index < 0 || index >= length)
+
+            return characters[index];
+        } // end of method charAt(int index)
+
+        /*
+         * Returns part of the key as a string.
+         */
+        public CharSequence subSequence(int start, int end)
+        {
+            return toString().substring(start, end);
+        } // end of method subSequence(int start, int end)
+
+        /*
+         * Returns the key as a string.
+         */
+        public String toString()
+        {
+            return new String(characters, 0, length);
+        } // end of method toString()
+
+        /* mutators */
+        /*
+         * Holds the grading key of a player's answer, folded in place when the normalizer can,
+         * else normalized as a whole.
+         */
+        public void normalize(String answer, AnswerNormalizer normalizer)
+        {
+            if (answer.length() > characters.length)
+            {
+                characters = new char[answer.length()];
+            } // end of if (answer.length() > characters.length)
+
+            length = normalizer.normalize(answer, characters);
+            if (length < 0)
+            {
+                String answerKey = normalizer.normalize(answer);
+                if (answerKey.length() > characters.length)
+                {
+                    characters = new char[answerKey.length()];
+                } // end of if (answerKey.length() > characters.length)
+                answerKey.getChars(0, answerKey.length(), characters, 0);
+                length = answerKey.length();
+            } // end of if (length < 0)
+        } // end of method normalize(String answer, AnswerNormalizer normalizer)
+
+        /*
+         * Holds the grading key of one accepted translation, copied from the store.
+         */
+        public void copyAnswerKey(CorpusStore store, int key, int language, int answer)
+        {
+            length = store.getAnswerKey(key, language, answer, characters);
+            if (length < 0)
+            {
+                characters = new char[-length];
+                length = store.getAnswerKey(key, language, answer, characters);
+            } // end of if (length < 0)
+        } // end of method copyAnswerKey(CorpusStore store, int key, int language, int answer)
+    } // end of class KeyBuffer implements CharSequence
+
+    /*
+     * The keys and edit-table rows one thread grades with.
+     */
+    private static class GradingBuffer
+    {
+        // instance fields
+        private final KeyBuffer answerKey;
+        private final KeyBuffer acceptedKey;
+        private int[] previousRow;
+        private int[] currentRow;
+
+        /* constructors */
+        /*
+         * Creates empty buffers.
+         */
+        public GradingBuffer()
+        {
+            answerKey = new KeyBuffer();
+            acceptedKey = new KeyBuffer();
+            previousRow = new int[KeyBuffer.INITIAL_CAPACITY + 1];
+            currentRow = new int[KeyBuffer.INITIAL_CAPACITY + 1];
+        } // end of constructor GradingBuffer()
+
+        /* mutators */
+        /*
+         * Makes both rows at least the given length.
+         */
+        public void ensureRowCapacity(int rowLength)
+        {
+            if (rowLength > previousRow.length)
+            {
+                previousRow = new int[rowLength];
+                currentRow = new int[rowLength];
+            } // end of if (rowLength > previousRow.length)
+        } // end of method ensureRowCapacity(int rowLength)
+    } // end of class GradingBuffer
+} // end of class GameCorpus
@@ -0,0 +1,437 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and latency histograms for the game's hot paths: loading the corpus,
+ * choosing keys, decoding, swapping and painting images, grading answers and how long
+ * the player waits for feedback.
+ *
+ * Metrics are off unless the game is started with -Dtgame.metrics=true. The switch is
+ * read once into a constant, so when it is off every timer and counter call reduces to
+ * a test the JIT removes, and nothing is measured or allocated. When it is on, call
+ * startReporting() to publish the metrics as MXBeans under "TranslationGame" and, if
+ * -Dtgame.metrics.dump=seconds is given, to print them periodically to standard error
+ * or to the file named by -Dtgame.metrics.file.
+ *
+ * <pre>
+ * long start = GameMetrics.start();
+ * ... timed work ...
+ * GameMetrics.GRADING.stop(start);
+ * </pre>
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class GameMetrics
+{
+    // class constants
+    /** Whether metrics are recorded, read from the tgame.metrics system property. */
+    public static final boolean ENABLED = Boolean.getBoolean("tgame.metrics");
+
+    private static final String DOMAIN = "TranslationGame";
+    private static final List<Timer> TIMERS = new ArrayList<Timer>();
+    private static final List<Counter> COUNTERS = new ArrayList<Counter>();
+
+    /** Loading a corpus from its sentence files or corpus file. */
+    public static final Timer CORPUS_LOAD = timer("corpusLoad");
+    /** Drawing the key of the next question from the selector. */
+    public static final Timer KEY_SELECTION = timer("keySelection");
+    /** Decoding an image file, on the decoder thread. */
+    public static final Timer IMAGE_DECODE = timer("imageDecode");
+    /** Swapping the image on show for the next question's. */
+    public static final Timer IMAGE_SWAP = timer("imageSwap");
+    /** Painting the image component, scaling included. */
+    public static final Timer IMAGE_PAINT = timer("imagePaint");
+    /** Grading one answer against the corpus. */
+    public static final Timer GRADING = timer("grading");
+    /** From the player submitting an answer to the feedback being shown. */
+    public static final Timer ANSWER_FEEDBACK = timer("answerFeedback");
+
+    /** Answers accepted. */
+    public static final Counter CORRECT_ANSWERS = counter("correctAnswers");
+    /** Answers rejected. */
+    public static final Counter INCORRECT_ANSWERS = counter("incorrectAnswers");
+    /** Image requests served from the cache. */
+    public static final Counter IMAGE_CACHE_HITS = counter("imageCacheHits");
+    /** Image requests that started or joined a decode. */
+    public static final Counter IMAGE_CACHE_MISSES = counter("imageCacheMisses");
+    /** Corpora loaded again because their files changed. */
+    public static final Counter CORPUS_RELOADS = counter("corpusReloads");
+
+    private static boolean reporting = false;
+
+    /* constructors */
+    /*
+     * Metrics are only reached through the class constants.
+     */
+    private GameMetrics()
+    {
+    } // end of constructor GameMetrics()
+
+    /* accessors */
+    /**
+     * Returns the start time to pass to Timer.stop().
+     *
+     * @return the current time in nanoseconds, or 0 if metrics are off
+     */
+    public static long start()
+    {
+        return ENABLED ? System.nanoTime() : 0;
+    } // end of method start()
+
+    /**
+     * Returns every timer, in the order they were declared.
+     *
+     * @return the timers
+     */
+    public static List<Timer> getTimers()
+    {
+        return Collections.unmodifiableList(TIMERS);
+    } // end of method getTimers()
+
+    /**
+     * Returns every counter, in the order they were declared.
+     *
+     * @return the counters
+     */
+    public static List<Counter> getCounters()
+    {
+        return Collections.unmodifiableList(COUNTERS);
+    } // end of method getCounters()
+
+    /**
+     * Returns every metric as text, one per line.
+     *
+     * @return the metrics
+     */
+    public static String dump()
+    {
+        StringBuilder text = new StringBuilder();
+        for (Timer timer : TIMERS)
+        {
+            text.append(timer).append(System.lineSeparator());
+        } // end of for (Timer timer : TIMERS)
+        for (Counter counter : COUNTERS)
+        {
+            text.append(counter).append(System.lineSeparator());
+        } // end of for (Counter counter : COUNTERS)
+
+        return text.toString();
+    } // end of method dump()
+
+    /* mutators */
+    /**
+     * Publishes the metrics through JMX and starts the periodic dump, if metrics are on. Does
+     * nothing if they are off or if reporting has already started.
+     */
+    public static synchronized void startReporting()
+    {
+        if (!ENABLED || reporting)
+        {
+            return;
+        } // end of if (!ENABLED || reporting)
+        reporting = true;
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try
+        {
+            for (Timer timer : TIMERS)
+            {
+                server.registerMBean(timer, new ObjectName(DOMAIN + ":type=Timer,name=" + timer.getName()));
+            } // end of for (Timer timer : TIMERS)
+            for (Counter counter : COUNTERS)
+            {
+                server.registerMBean(counter, new ObjectName(DOMAIN + ":type=Counter,name=" + counter.getName()));
+            } // end of for (Counter counter : COUNTERS)
+        }
+        catch (JMException exception)
+        {
+            System.err.println("Could not publish metrics through JMX: " + exception.getMessage());
+        } // end of catch (JMException exception)
+
+        long dumpSeconds = Long.getLong("tgame.metrics.dump", 0);
+        if (dumpSeconds > 0)
+        {
+            startDump(dumpSeconds, System.getProperty("tgame.metrics.file"));
+        } // end of if (dumpSeconds > 0)
+    } // end of method startReporting()
+
+    /* private methods */
+    /*
+     * Declares a timer.
+     */
+    private static Timer timer(String name)
+    {
+        Timer timer = new Timer(name);
+        TIMERS.add(timer);
+        return timer;
+    } // end of method timer(String name)
+
+    /*
+     * Declares a counter.
+     */
+    private static Counter counter(String name)
+    {
+        Counter counter = new Counter(name);
+        COUNTERS.add(counter);
+        return counter;
+    } // end of method counter(String name)
+
+    /*
+     * Prints the metrics every few seconds on a daemon thread, appending to the given file or,
+     * if there is none, to standard error.
+     */
+    private static void startDump(long dumpSeconds, String fileName)
+    {
+        PrintWriter output;
+        try
+        {
+            output = (fileName == null) ? new PrintWriter(System.err, true)
+                : new PrintWriter(new OutputStreamWriter(new FileOutputStream(fileName, true),
+                    StandardCharsets.UTF_8), true);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Could not open the metrics file: " + exception.getMessage());
+            return;
+        } // end of catch (IOException exception)
+
+        ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() ->
+        {
+            output.println("# metrics at " + Instant.now());
+            output.print(dump());
+            output.flush();
+        }, dumpSeconds, dumpSeconds, TimeUnit.SECONDS);
+    } // end of method startDump(long dumpSeconds, String fileName)
+
+    /* public classes */
+    /**
+     * The JMX view of a timer. Latencies are in microseconds.
+     */
+    public interface TimerMXBean
+    {
+        /**
+         * Returns the number of timed events.
+         *
+         * @return the count
+         */
+        long getCount();
+
+        /**
+         * Returns the mean latency.
+         *
+         * @return the mean in microseconds
+         */
+        double getMeanMicros();
+
+        /**
+         * Returns the median latency.
+         *
+         * @return the median in microseconds
+         */
+        double getMedianMicros();
+
+        /**
+         * Returns the 99th percentile latency.
+         *
+         * @return the 99th percentile in microseconds
+         */
+        double getPercentile99Micros();
+
+        /**
+         * Returns the 99.9th percentile latency.
+         *
+         * @return the 99.9th percentile in microseconds
+         */
+        double getPercentile999Micros();
+
+        /**
+         * Returns the longest latency.
+         *
+         * @return the maximum in microseconds
+         */
+        double getMaximumMicros();
+    } // end of interface TimerMXBean
+
+    /**
+     * The JMX view of a counter.
+     */
+    public interface CounterMXBean
+    {
+        /**
+         * Returns the number of events counted.
+         *
+         * @return the count
+         */
+        long getValue();
+    } // end of interface CounterMXBean
+
+    /**
+     * A named latency histogram.
+     */
+    public static class Timer implements TimerMXBean
+    {
+        // class constants
+        private static final double NANOS_PER_MICRO = 1000.0;
+
+        // instance fields
+        private final String name;
+        private final LatencyHistogram histogram;
+
+        /* constructors */
+        /*
+         * Constructs an empty timer. The histogram is only allocated if metrics are on.
+         */
+        private Timer(String name)
+        {
+            this.name = name;
+            histogram = ENABLED ? new LatencyHistogram() : null;
+        } // end of constructor Timer(String name)
+
+        /* accessors */
+        /**
+         * Returns the name of this timer.
+         *
+         * @return the name
+         */
+        public String getName()
+        {
+            return name;
+        } // end of method getName()
+
+        public long getCount()
+        {
+            return ENABLED ? histogram.getCount() : 0;
+        } // end of method getCount()
+
+        public double getMeanMicros()
+        {
+            return ENABLED ? histogram.getMeanNanos() / NANOS_PER_MICRO : 0;
+        } // end of method getMeanMicros()
+
+        public double getMedianMicros()
+        {
+            return ENABLED ? histogram.getNanosAtPercentile(50) / NANOS_PER_MICRO : 0;
+        } // end of method getMedianMicros()
+
+        public double getPercentile99Micros()
+        {
+            return ENABLED ? histogram.getNanosAtPercentile(99) / NANOS_PER_MICRO : 0;
+        } // end of method getPercentile99Micros()
+
+        public double getPercentile999Micros()
+        {
+            return ENABLED ? histogram.getNanosAtPercentile(99.9) / NANOS_PER_MICRO : 0;
+        } // end of method getPercentile999Micros()
+
+        public double getMaximumMicros()
+        {
+            return ENABLED ? histogram.getMaximumNanos() / NANOS_PER_MICRO : 0;
+        } // end of method getMaximumMicros()
+
+        /**
+         * Returns the timer as one line of text, with latencies in microseconds.
+         *
+         * @return the timer as text
+         */
+        public String toString()
+        {
+            return String.format("%-18s count=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus", name,
+                getCount(), getMeanMicros(), getMedianMicros(), getPercentile99Micros(), getPercentile999Micros(),
+                getMaximumMicros());
+        } // end of method toString()
+
+        /* mutators */
+        /**
+         * Records the time since the given start.
+         *
+         * @param start a time returned by GameMetrics.start()
+         */
+        public void stop(long start)
+        {
+            if (ENABLED)
+            {
+                histogram.record(System.nanoTime() - start);
+            } // end of if (ENABLED)
+        } // end of method stop(long start)
+    } // end of class Timer
+
+    /**
+     * A named count of events.
+     */
+    public static class Counter implements CounterMXBean
+    {
+        // instance fields
+        private final String name;
+        private final LongAdder value;
+
+        /* constructors */
+        /*
+         * Constructs a counter at 0.
+         */
+        private Counter(String name)
+        {
+            this.name = name;
+            value = ENABLED ? new LongAdder() : null;
+        } // end of constructor Counter(String name)
+
+        /* accessors */
+        /**
+         * Returns the name of this counter.
+         *
+         * @return the name
+         */
+        public String getName()
+        {
+            return name;
+        } // end of method getName()
+
+        public long getValue()
+        {
+            return ENABLED ? value.sum() : 0;
+        } // end of method getValue()
+
+        /**
+         * Returns the counter as text.
+         *
+         * @return "name=value"
+         */
+        public String toString()
+        {
+            return name + "=" + getValue();
+        } // end of method toString()
+
+        /* mutators */
+        /**
+         * Counts one event.
+         */
+        public void increment()
+        {
+            if (ENABLED)
+            {
+                value.increment();
+            } // end of if (ENABLED)
+        } // end of method increment()
+    } // end of class Counter
+} // end of class GameMetrics
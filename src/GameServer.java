@@ -0,0 +1,400 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts many independent game sessions over one shared, read-only corpus. Each
+ * connection gets its own GameSession, run on its own thread, and talks a simple
+ * line-based protocol:
+ *
+ * <pre>
+ * server: WELCOME &lt;number of phrases&gt;
+ * server: PROMPT &lt;key&gt; &lt;en|fr&gt; &lt;sentence&gt;      the language to answer in
+ * client: &lt;answer&gt;                                   EXIT ends the session
+ * server: CORRECT &lt;accepted form&gt; | INCORRECT
+ * ...
+ * server: GAMEOVER &lt;score&gt; | BYE &lt;score&gt;
+ * </pre>
+ *
+ * The direction of a prompt is the language the answer is to be written in, as in the
+ * direction column of a BatchGrader answer sheet: "en" shows a French sentence to be
+ * translated into English.
+ *
+ * An answer longer than 1024 characters gets "ERROR answer too long" and ends the session,
+ * and a player who sends nothing for five minutes is disconnected, so no client can hold a
+ * session, or its memory, without bound.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class GameServer implements Closeable
+{
+    // class constants
+    private static final int DEFAULT_PORT = 4040;
+    private static final int MAX_ANSWER_LENGTH = 1024;
+    private static final int IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    private static final int NUMBER_OF_PHRASES = 10;
+    private static final String ENGLISH_SENTENCES = "./englishSentences.txt";
+    private static final String FRENCH_SENTENCES = "./frenchSentences.txt";
+    private static final String DECK_FILE = "./sentences.tsv";
+    private static final String CORPUS_FILE = "./sentences.corpus";
+
+    // instance fields
+    private volatile GameCorpus corpus;
+    private final int numberOfPhrases;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessionThreads;
+    private final AtomicInteger activeSessions;
+    private final AtomicInteger completedSessions;
+    private final Set<Socket> openConnections;
+    private volatile boolean closed;
+    private Thread acceptThread;
+
+    /* constructors */
+    /**
+     * Constructs a server over the given corpus, listening on the loopback address.
+     *
+     * @param corpus the shared corpus; it is only read
+     * @param port the port to listen on, or 0 for any free port
+     * @param numberOfPhrases the number of phrases in each game
+     * @throws IOException if the port cannot be bound
+     */
+    public GameServer(GameCorpus corpus, int port, int numberOfPhrases) throws IOException
+    {
+        this(corpus, InetAddress.getLoopbackAddress(), port, numberOfPhrases);
+    } // end of constructor GameServer(GameCorpus corpus, int port, int numberOfPhrases)
+
+    /**
+     * Constructs a server over the given corpus, listening on the given address.
+     *
+     * @param corpus the shared corpus; it is only read
+     * @param bindAddress the local address to listen on, such as the wildcard address to host
+     *     players on other machines, or null for every local address
+     * @param port the port to listen on, or 0 for any free port
+     * @param numberOfPhrases the number of phrases in each game
+     * @throws IOException if the port cannot be bound
+     */
+    public GameServer(GameCorpus corpus, InetAddress bindAddress, int port, int numberOfPhrases) throws IOException
+    {
+        this(corpus, new ServerSocket(port, 0, bindAddress), numberOfPhrases);
+    } // end of constructor GameServer(GameCorpus corpus, InetAddress bindAddress, int port, int numberOfPhrases)
+
+    /**
+     * Constructs a server over the given corpus that accepts players on the given socket.
+     *
+     * @param corpus the shared corpus; it is only read
+     * @param serverSocket a bound server socket
+     * @param numberOfPhrases the number of phrases in each game
+     */
+    public GameServer(GameCorpus corpus, ServerSocket serverSocket, int numberOfPhrases)
+    {
+        this.corpus = corpus;
+        this.serverSocket = serverSocket;
+        this.numberOfPhrases = numberOfPhrases;
+        sessionThreads = newThreadPerSessionExecutor();
+        activeSessions = new AtomicInteger();
+        completedSessions = new AtomicInteger();
+        openConnections = ConcurrentHashMap.newKeySet();
+        closed = false;
+        acceptThread = null;
+    } // end of constructor GameServer(GameCorpus corpus, ServerSocket serverSocket, int numberOfPhrases)
+
+    /* accessors */
+    /**
+     * Returns the port this server listens on.
+     *
+     * @return the local port
+     */
+    public int getPort()
+    {
+        return serverSocket.getLocalPort();
+    } // end of method getPort()
+
+    /**
+     * Returns the number of sessions currently being played.
+     *
+     * @return the active session count
+     */
+    public int getActiveSessions()
+    {
+        return activeSessions.get();
+    } // end of method getActiveSessions()
+
+    /**
+     * Returns the number of sessions that have ended.
+     *
+     * @return the completed session count
+     */
+    public int getCompletedSessions()
+    {
+        return completedSessions.get();
+    } // end of method getCompletedSessions()
+
+    /* mutators */
+    /**
+     * Replaces the corpus that new sessions are played over. Sessions already under way finish
+     * with the corpus they started with.
+     *
+     * @param corpus the new corpus
+     */
+    public void setCorpus(GameCorpus corpus)
+    {
+        this.corpus = corpus;
+    } // end of method setCorpus(GameCorpus corpus)
+
+    /**
+     * Starts accepting players in the background.
+     */
+    public synchronized void start()
+    {
+        if (acceptThread != null)
+        {
+            return;
+        } // end of if (acceptThread != null)
+
+        acceptThread = new Thread(this::acceptPlayers, "game-server-accept");
+        acceptThread.start();
+    } // end of method start()
+
+    /**
+     * Stops accepting players and ends every session in progress.
+     */
+    public void close() throws IOException
+    {
+        closed = true;
+        serverSocket.close();
+        sessionThreads.shutdownNow();
+
+        // sessions blocked reading an answer only wake up when their socket is closed
+        for (Socket connection : openConnections)
+        {
+            connection.close();
+        } // end of for (Socket connection : openConnections)
+    } // end of method close()
+
+    /* private methods */
+    /*
+     * Hands each new connection to its own session thread until the server socket is closed.
+     */
+    private void acceptPlayers()
+    {
+        while (!serverSocket.isClosed())
+        {
+            try
+            {
+                Socket socket = serverSocket.accept();
+                try
+                {
+                    sessionThreads.execute(() -> playSession(socket));
+                }
+                catch (RejectedExecutionException exception)
+                {
+                    // the server closed between accepting the player and starting the session
+                    socket.close();
+                    return;
+                } // end of catch (RejectedExecutionException exception)
+            }
+            catch (SocketException exception)
+            {
+                // the server socket was closed
+                return;
+            }
+            catch (IOException exception)
+            {
+                System.err.println("Could not accept a player: " + exception.getMessage());
+            } // end of catch (IOException exception)
+        } // end of while (!serverSocket.isClosed())
+    } // end of method acceptPlayers()
+
+    /*
+     * Plays one game over the given connection.
+     */
+    private void playSession(Socket socket)
+    {
+        activeSessions.incrementAndGet();
+        openConnections.add(socket);
+        try (Socket connection = configure(socket);
+            BufferedReader input = new BufferedReader(new InputStreamReader(connection.getInputStream(),
+                    StandardCharsets.UTF_8));
+            PrintWriter output = new PrintWriter(new OutputStreamWriter(connection.getOutputStream(),
+                    StandardCharsets.UTF_8), true))
+        {
+            // a player accepted while close() ran may have been missed by its walk over the connections
+            if (closed)
+            {
+                return;
+            } // end of if (closed)
+
+            GameSession session = new GameSession(corpus, numberOfPhrases);
+            output.println("WELCOME " + numberOfPhrases);
+
+            Prompt prompt = session.nextPrompt();
+            while (prompt != null)
+            {
+                output.println("PROMPT " + prompt.getKey() + " " + (prompt.getPromptEnglishOrFrench() ? "en" : "fr")
+                    + " " + prompt.getSentence());
+
+                String answer;
+                try
+                {
+                    answer = readAnswer(input);
+                }
+                catch (ProtocolException exception)
+                {
+                    output.println("ERROR " + exception.getMessage());
+                    return;
+                } // end of catch (ProtocolException exception)
+
+                if (answer == null)
+                {
+                    // the player hung up
+                    return;
+                } // end of if (answer == null)
+
+                // the details of a result are only built for the replies that show them
+                GradeResult.Outcome outcome = session.grade(answer);
+                if (outcome == GradeResult.Outcome.EXIT)
+                {
+                    output.println("BYE " + session.score());
+                    return;
+                }
+                else if (outcome == GradeResult.Outcome.CORRECT)
+                {
+                    output.println("CORRECT " + session.getLastResult().getAnswerMatch().getAcceptedForm());
+                }
+                else
+                {
+                    output.println("INCORRECT");
+                } // end of if (outcome == GradeResult.Outcome.EXIT)
+
+                prompt = session.nextPrompt();
+            } // end of while (prompt != null)
+
+            output.println("GAMEOVER " + session.score());
+        }
+        catch (IOException exception)
+        {
+            // a dropped or idle connection only ends that player's session
+        }
+        finally
+        {
+            openConnections.remove(socket);
+            activeSessions.decrementAndGet();
+            completedSessions.incrementAndGet();
+        } // end of finally
+    } // end of method playSession(Socket socket)
+
+    /*
+     * Reads one answer line without its line terminator, reading no further than
+     * MAX_ANSWER_LENGTH characters. Returns null at the end of the stream, and throws a
+     * ProtocolException for a longer line.
+     */
+    private static String readAnswer(BufferedReader input) throws IOException
+    {
+        int character = input.read();
+        if (character < 0)
+        {
+            return null;
+        } // end of if (character < 0)
+
+        StringBuilder answer = new StringBuilder();
+        while (character >= 0 && character != '\n')
+        {
+            if (answer.length() == MAX_ANSWER_LENGTH)
+            {
+                throw new ProtocolException("answer too long");
+            } // end of if (answer.length() == MAX_ANSWER_LENGTH)
+
+            answer.append((char) character);
+            character = input.read();
+        } // end of while (character >= 0 && character != '\n')
+
+        if (answer.length() > 0 && answer.charAt(answer.length() - 1) == '\r')
+        {
+            answer.setLength(answer.length() - 1);
+        } // end of if (answer.length() > 0 && answer.charAt(answer.length() - 1) == '\r')
+
+        return answer.toString();
+    } // end of method readAnswer(BufferedReader input)
+
+    /*
+     * Sends each line as soon as it is written. The grade and the next prompt go out as two
+     * small writes, and with Nagle's algorithm the second would wait for the client's delayed
+     * acknowledgement of the first, some 40 ms. A player who stays silent too long is dropped.
+     */
+    private static Socket configure(Socket socket) throws IOException
+    {
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+        return socket;
+    } // end of method configure(Socket socket)
+
+    /*
+     * Returns an executor that runs each session on a new virtual thread where the runtime
+     * supports them, and on a new pooled platform thread otherwise.
+     */
+    private static ExecutorService newThreadPerSessionExecutor()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException exception)
+        {
+            return Executors.newCachedThreadPool(runnable ->
+            {
+                Thread thread = new Thread(runnable, "game-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } // end of catch (ReflectiveOperationException exception)
+    } // end of method newThreadPerSessionExecutor()
+
+    /**
+     * Runs a game server on the given port, or on port 4040 by default. The server only
+     * listens on the loopback address unless it is given another address, such as 0.0.0.0
+     * to host players on other machines.
+     *
+     * <pre>
+     * java GameServer [port] [bind address]
+     * </pre>
+     *
+     * @param argument an optional port number and an optional address to listen on
+     */
+    public static void main(String[] argument) throws IOException
+    {
+        int port = (argument.length > 0) ? Integer.parseInt(argument[0]) : DEFAULT_PORT;
+        InetAddress bindAddress = (argument.length > 1) ? InetAddress.getByName(argument[1])
+            : InetAddress.getLoopbackAddress();
+        GameMetrics.startReporting();
+        boolean deck = new File(DECK_FILE).isFile();
+        GameCorpus corpus = deck
+            ? GameCorpus.loadDeck(DECK_FILE, CORPUS_FILE, AnswerNormalizer.ACCENT_INSENSITIVE, 1)
+            : GameCorpus.load(ENGLISH_SENTENCES, FRENCH_SENTENCES, CORPUS_FILE, AnswerNormalizer.ACCENT_INSENSITIVE, 1);
+
+        GameServer server = new GameServer(corpus, bindAddress, port, NUMBER_OF_PHRASES);
+        HotReloader hotReloader = deck ? new HotReloader(corpus, DECK_FILE, CORPUS_FILE, null)
+            : new HotReloader(corpus, ENGLISH_SENTENCES, FRENCH_SENTENCES, CORPUS_FILE, null);
+        hotReloader.addCorpusListener(server::setCorpus);
+        hotReloader.start();
+        server.start();
+        System.out.println("Translation game server listening on " + bindAddress.getHostAddress() + " port "
+            + server.getPort());
+    } // end of method main(String[] argument)
+} // end of class GameServer
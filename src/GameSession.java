@@ -0,0 +1,532 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * One player's run through a translation game, with no user interface attached. A
+ * client repeatedly asks for the next prompt, submits the player's answer and shows
+ * the result however it likes.
+ *
+ * All of a player's progress lives in the session and its question selector; the
+ * corpus is only read, so any number of sessions can share one corpus across threads.
+ * A session can be moved to a reloaded corpus part way through; pairs already answered
+ * are found again in it by their English sentence. The reloaded corpus arrives as a
+ * CorpusReplacement that was made ready on another thread, so moving to it costs the
+ * session's thread time in proportion to the pairs answered, not to the corpus.
+ * Which pairs a player has answered is kept in one bit per pair rather than in the
+ * shared sentences. Only concepts with both an English and a French translation are
+ * posed; a selector that draws any other is passed over.
+ *
+ * A session given a ProgressLog saves every graded answer to it and, when constructed,
+ * picks up where an unfinished session with the same identifier left off.
+ *
+ * Grading an answer creates no objects, so a server can grade many players' answers without
+ * churning the heap; a client that shows the result asks for it as a GradeResult afterwards.
+ *
+ * A session given a DistractorIndex poses multiple-choice prompts: each offers the
+ * translation among a few look-alikes drawn from the index, in a random order.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class GameSession
+{
+    // class constants
+    /** The answer that ends a session early. */
+    public static final String SENTINEL_EXIT_VALUE = "EXIT";
+
+    // instance fields
+    private GameCorpus corpus;
+    private QuestionSelector questionSelector;
+    private final Random randomizer;
+    private final int numberOfPhrases;
+    private final BitSet askedKeys;
+    private final BitSet resumedKeys;
+    private final ProgressLog progressLog;
+    private final String sessionId;
+    private CorpusReplacement pendingReplacement;
+    private DistractorIndex distractorIndex;
+    private int distractorCount;
+    private IntPredicate choosableKeys;
+    private Prompt currentPrompt;
+    private Prompt lastPrompt;
+    private GradeResult.Outcome lastOutcome;
+    private int lastMatch;
+    private int upcomingKey;
+    private boolean started;
+    private boolean over;
+    private int correctEnglishSentences;
+    private int correctFrenchSentences;
+    private int phrasesPosed;
+
+    /* constructors */
+    /**
+     * Constructs a session that poses the given number of phrases in a random order.
+     *
+     * @param corpus the sentence pairs to draw from
+     * @param numberOfPhrases the number of phrases in a full game
+     */
+    public GameSession(GameCorpus corpus, int numberOfPhrases)
+    {
+        this(corpus, new ShuffledQuestionSelector(corpus), new Random(), numberOfPhrases);
+    } // end of constructor GameSession(GameCorpus corpus, int numberOfPhrases)
+
+    /**
+     * Constructs a session whose questions and directions are fixed by the given seed.
+     *
+     * @param corpus the sentence pairs to draw from
+     * @param numberOfPhrases the number of phrases in a full game
+     * @param seed the seed for question selection
+     */
+    public GameSession(GameCorpus corpus, int numberOfPhrases, long seed)
+    {
+        this(corpus, new ShuffledQuestionSelector(corpus, seed), new Random(seed), numberOfPhrases);
+    } // end of constructor GameSession(GameCorpus corpus, int numberOfPhrases, long seed)
+
+    /**
+     * Constructs a session that draws its questions from the given selector.
+     *
+     * @param corpus the sentence pairs to draw from
+     * @param questionSelector chooses which pair is posed next
+     * @param randomizer chooses the direction of each translation
+     * @param numberOfPhrases the number of phrases in a full game
+     */
+    public GameSession(GameCorpus corpus, QuestionSelector questionSelector, Random randomizer, int numberOfPhrases)
+    {
+        this(corpus, questionSelector, randomizer, numberOfPhrases, null, null);
+    } // end of constructor GameSession(GameCorpus corpus, QuestionSelector questionSelector, ...)
+
+    /**
+     * Constructs a session that saves its progress to the given log, resuming the session with
+     * the given identifier if the log holds unfinished progress for it. Pairs answered before
+     * the session was resumed are not posed again, provided they were answered in the same
+     * corpus; otherwise only the score carries on.
+     *
+     * @param corpus the sentence pairs to draw from
+     * @param questionSelector chooses which pair is posed next
+     * @param randomizer chooses the direction of each translation
+     * @param numberOfPhrases the number of phrases in a full game
+     * @param progressLog the log to save progress to, or null to keep it in memory only
+     * @param sessionId the identifier the session's progress is saved under
+     */
+    public GameSession(GameCorpus corpus, QuestionSelector questionSelector, Random randomizer, int numberOfPhrases,
+        ProgressLog progressLog, String sessionId)
+    {
+        this.corpus = corpus;
+        this.questionSelector = questionSelector;
+        this.randomizer = randomizer;
+        this.numberOfPhrases = numberOfPhrases;
+        askedKeys = new BitSet();
+        resumedKeys = new BitSet();
+        this.progressLog = progressLog;
+        this.sessionId = sessionId;
+        distractorIndex = null;
+        pendingReplacement = null;
+        distractorCount = 0;
+        choosableKeys = null;
+        currentPrompt = null;
+        lastPrompt = null;
+        lastOutcome = null;
+        lastMatch = GameCorpus.NO_MATCH;
+        upcomingKey = QuestionSelector.NO_MORE_QUESTIONS;
+        started = false;
+        over = false;
+        correctEnglishSentences = 0;
+        correctFrenchSentences = 0;
+        phrasesPosed = 0;
+
+        SessionProgress progress = (progressLog == null) ? null : progressLog.getProgress(sessionId);
+        if (progress != null)
+        {
+            correctEnglishSentences = progress.getCorrectEnglishSentences();
+            correctFrenchSentences = progress.getCorrectFrenchSentences();
+            phrasesPosed = progress.getPhrasesPosed();
+
+            // keys saved while playing another corpus would name other pairs here
+            if (progress.getCorpusFingerprint() == corpus.getFingerprint())
+            {
+                resumedKeys.or(progress.getAskedKeys());
+                askedKeys.or(resumedKeys);
+            } // end of if (progress.getCorpusFingerprint() == corpus.getFingerprint())
+        } // end of if (progress != null)
+    } // end of constructor GameSession(GameCorpus corpus, ..., ProgressLog progressLog, String sessionId)
+
+    /* accessors */
+    /**
+     * Returns the current score of this session.
+     *
+     * @return the score
+     */
+    public Score score()
+    {
+        return new Score(correctEnglishSentences, correctFrenchSentences, phrasesPosed, numberOfPhrases);
+    } // end of method score()
+
+    /**
+     * Indicates whether this session has ended, either because every phrase was posed or
+     * because the player typed the exit value.
+     *
+     * @return true if the session is over, else false
+     */
+    public boolean isOver()
+    {
+        return over;
+    } // end of method isOver()
+
+    /**
+     * Indicates whether the player has answered the pair with the given key in this session.
+     *
+     * @param key a key from 0 to the corpus size - 1
+     * @return true if the pair was posed and answered, else false
+     */
+    public boolean hasBeenAsked(int key)
+    {
+        return askedKeys.get(key);
+    } // end of method hasBeenAsked(int key)
+
+    /**
+     * Returns the key of the pair that will be posed after the current one, so that a client
+     * can get its resources ready while the player answers.
+     *
+     * @return the upcoming key, or QuestionSelector.NO_MORE_QUESTIONS if the current prompt is the last
+     */
+    public int getUpcomingKey()
+    {
+        return upcomingKey;
+    } // end of method getUpcomingKey()
+
+    /**
+     * Returns the corpus this session draws from.
+     *
+     * @return the corpus
+     */
+    public GameCorpus getCorpus()
+    {
+        return corpus;
+    } // end of method getCorpus()
+
+    /* mutators */
+    /**
+     * Makes every prompt from now on a multiple-choice one, offering the translation among up
+     * to the given number of distractors. Fewer are offered if the corpus is too small or too
+     * few of the look-alikes are choosable.
+     *
+     * @param distractorIndex the look-alikes of this session's corpus, or null to stop offering choices
+     * @param distractorCount the number of distractors to offer with each translation
+     * @param choosableKeys accepts the keys that may be offered as distractors, such as those
+     *     with a picture, or null to accept them all
+     * @throws IllegalArgumentException if the index was built over another corpus
+     */
+    public void setMultipleChoice(DistractorIndex distractorIndex, int distractorCount, IntPredicate choosableKeys)
+    {
+        if (distractorIndex != null && distractorIndex.getCorpus() != corpus)
+        {
+            throw new IllegalArgumentException("The distractor index was built over another corpus");
+        } // end of if (distractorIndex != null && distractorIndex.getCorpus() != corpus)
+
+        this.distractorIndex = distractorIndex;
+        this.distractorCount = distractorCount;
+        this.choosableKeys = choosableKeys;
+    } // end of method setMultipleChoice(DistractorIndex distractorIndex, int distractorCount, ...)
+
+    /**
+     * Moves this session to a reloaded corpus from the next prompt on; a prompt waiting for an
+     * answer is still graded against the current corpus. Pairs already answered, or resumed,
+     * are not posed again if the new corpus still has their English sentence. A multiple-choice
+     * session takes the replacement's distractor index, and stops offering choices if it has none.
+     *
+     * @param replacement the reloaded corpus, made ready on the thread that loaded it
+     */
+    public void replaceCorpus(CorpusReplacement replacement)
+    {
+        pendingReplacement = replacement;
+    } // end of method replaceCorpus(CorpusReplacement replacement)
+
+    /**
+     * Returns the prompt the player should answer next. Asking again before submitting an
+     * answer returns the same prompt.
+     *
+     * @return the prompt, or null if the session is over
+     */
+    public Prompt nextPrompt()
+    {
+        if (currentPrompt != null || over)
+        {
+            return currentPrompt;
+        } // end of if (currentPrompt != null || over)
+
+        if (pendingReplacement != null)
+        {
+            applyPendingCorpus();
+        } // end of if (pendingReplacement != null)
+
+        if (!started)
+        {
+            upcomingKey = drawKey();
+            started = true;
+        } // end of if (!started)
+
+        // end the game early if the deck runs out before every phrase is posed
+        int key = upcomingKey;
+        if (phrasesPosed >= numberOfPhrases || key == QuestionSelector.NO_MORE_QUESTIONS)
+        {
+            over = true;
+            upcomingKey = QuestionSelector.NO_MORE_QUESTIONS;
+            saveFinish();
+            return null;
+        } // end of if (phrasesPosed >= numberOfPhrases || key == QuestionSelector.NO_MORE_QUESTIONS)
+
+        // pick the following phrase now so clients can prepare it in advance
+        upcomingKey = (phrasesPosed + 1 < numberOfPhrases) ? drawKey()
+            : QuestionSelector.NO_MORE_QUESTIONS;
+
+        boolean promptEnglishOrFrench = (randomizer.nextInt(2) == 0);
+        String sentence = promptEnglishOrFrench ? corpus.getFrench(key) : corpus.getEnglish(key);
+
+        currentPrompt = (distractorIndex == null) ? new Prompt(key, promptEnglishOrFrench, sentence)
+            : choicePrompt(key, promptEnglishOrFrench, sentence);
+        return currentPrompt;
+    } // end of method nextPrompt()
+
+    /**
+     * Grades the player's answer to the current prompt and updates the score, creating no
+     * objects. Answering with SENTINEL_EXIT_VALUE ends the session. The details can be asked
+     * for afterwards with getLastResult().
+     *
+     * @param answer the player's answer; null is treated as an empty answer
+     * @return whether the answer was correct, incorrect or ended the session
+     * @throws IllegalStateException if there is no prompt waiting for an answer
+     */
+    public GradeResult.Outcome grade(String answer)
+    {
+        if (currentPrompt == null)
+        {
+            throw new IllegalStateException("No prompt is waiting for an answer");
+        } // end of if (currentPrompt == null)
+
+        Prompt prompt = currentPrompt;
+        String playerInput = (answer == null) ? "" : answer;
+        int match = corpus.grade(prompt.getKey(), prompt.getPromptEnglishOrFrench(), playerInput);
+        GradeResult.Outcome outcome;
+
+        if (match != GameCorpus.NO_MATCH)
+        {
+            if (prompt.getPromptEnglishOrFrench())
+            {
+                correctEnglishSentences++;
+            }
+            else
+            {
+                correctFrenchSentences++;
+            } // end of if (prompt.getPromptEnglishOrFrench())
+            phrasesPosed++;
+            outcome = GradeResult.Outcome.CORRECT;
+        }
+        else if (playerInput.equals(SENTINEL_EXIT_VALUE))
+        {
+            over = true;
+            upcomingKey = QuestionSelector.NO_MORE_QUESTIONS;
+            outcome = GradeResult.Outcome.EXIT;
+        }
+        else
+        {
+            phrasesPosed++;
+            outcome = GradeResult.Outcome.INCORRECT;
+        } // end of if (match != GameCorpus.NO_MATCH)
+
+        if (outcome != GradeResult.Outcome.EXIT)
+        {
+            askedKeys.set(prompt.getKey());
+            questionSelector.recordAnswer(prompt.getKey(), outcome == GradeResult.Outcome.CORRECT);
+            saveAnswer(prompt, outcome == GradeResult.Outcome.CORRECT);
+        } // end of if (outcome != GradeResult.Outcome.EXIT)
+
+        currentPrompt = null;
+        lastPrompt = prompt;
+        lastOutcome = outcome;
+        lastMatch = match;
+        return outcome;
+    } // end of method grade(String answer)
+
+    /**
+     * Grades the player's answer to the current prompt and updates the score, the way
+     * grade() does, and returns the details for showing to the player.
+     *
+     * @param answer the player's answer; null is treated as an empty answer
+     * @return the result of grading
+     * @throws IllegalStateException if there is no prompt waiting for an answer
+     */
+    public GradeResult submit(String answer)
+    {
+        grade(answer);
+        return getLastResult();
+    } // end of method submit(String answer)
+
+    /**
+     * Returns the details of the last answer graded, with the score as it stands now.
+     *
+     * @return the result of grading
+     * @throws IllegalStateException if no answer has been graded yet
+     */
+    public GradeResult getLastResult()
+    {
+        if (lastPrompt == null)
+        {
+            throw new IllegalStateException("No answer has been graded yet");
+        } // end of if (lastPrompt == null)
+
+        AnswerMatch answerMatch = corpus.getAnswerMatch(lastPrompt.getKey(),
+            corpus.getAnswerLanguage(lastPrompt.getPromptEnglishOrFrench()), lastMatch);
+        return new GradeResult(lastOutcome, answerMatch, lastPrompt, score());
+    } // end of method getLastResult()
+
+    /* private methods */
+    /*
+     * Makes a multiple-choice prompt, slotting the translation in at random among its distractors.
+     */
+    private Prompt choicePrompt(int key, boolean promptEnglishOrFrench, String sentence)
+    {
+        int language = corpus.indexOfLanguage(promptEnglishOrFrench ? "en" : "fr");
+        int[] distractors = distractorIndex.getDistractors(key, language, distractorCount, choosableKeys);
+        int answerSlot = randomizer.nextInt(distractors.length + 1);
+
+        int[] choiceKeys = new int[distractors.length + 1];
+        List<String> choices = new ArrayList<String>(choiceKeys.length);
+        for (int slot = 0; slot < choiceKeys.length; slot++)
+        {
+            if (slot == answerSlot)
+            {
+                choiceKeys[slot] = key;
+            }
+            else
+            {
+                choiceKeys[slot] = distractors[(slot < answerSlot) ? slot : slot - 1];
+            } // end of if (slot == answerSlot)
+            choices.add(corpus.getText(choiceKeys[slot], language));
+        } // end of for (int slot = 0; slot < choiceKeys.length; slot++)
+
+        return new Prompt(key, promptEnglishOrFrench, sentence, choiceKeys, choices);
+    } // end of method choicePrompt(int key, boolean promptEnglishOrFrench, String sentence)
+
+    /*
+     * Switches to the corpus given to replaceCorpus(), carrying the pairs already answered
+     * over to their new keys and drawing the upcoming pair from the new selector. A selector
+     * that schedules answered pairs, such as a spaced-repetition one, hands its schedule to the
+     * new selector; otherwise the answered pairs are passed over from now on. Only the answered
+     * pairs are looked up; the replacement did everything else in advance.
+     */
+    private void applyPendingCorpus()
+    {
+        CorpusReplacement replacement = pendingReplacement;
+        pendingReplacement = null;
+        GameCorpus oldCorpus = corpus;
+
+        BitSet answeredKeys = moveKeys(askedKeys, replacement, oldCorpus);
+        BitSet passedOverKeys = moveKeys(resumedKeys, replacement, oldCorpus);
+        QuestionSelector newSelector = replacement.getQuestionSelector();
+        if (!questionSelector.carryOver(newSelector, key -> replacement.findKey(oldCorpus, key)))
+        {
+            passedOverKeys.or(answeredKeys);
+        } // end of if (!questionSelector.carryOver(newSelector, ...))
+
+        askedKeys.clear();
+        askedKeys.or(answeredKeys);
+        resumedKeys.clear();
+        resumedKeys.or(passedOverKeys);
+
+        corpus = replacement.getCorpus();
+        questionSelector = newSelector;
+        lastPrompt = null;
+        if (distractorIndex != null)
+        {
+            distractorIndex = replacement.getDistractorIndex();
+        } // end of if (distractorIndex != null)
+
+        // the upcoming pair was drawn from the old corpus, so draw it again
+        if (started)
+        {
+            upcomingKey = drawKey();
+        } // end of if (started)
+    } // end of method applyPendingCorpus()
+
+    /*
+     * Returns the keys a reloaded corpus has for the given keys of the old one, leaving out
+     * pairs it no longer has.
+     */
+    private static BitSet moveKeys(BitSet oldKeys, CorpusReplacement replacement, GameCorpus oldCorpus)
+    {
+        BitSet newKeys = new BitSet();
+        for (int key = oldKeys.nextSetBit(0); key >= 0; key = oldKeys.nextSetBit(key + 1))
+        {
+            int newKey = replacement.findKey(oldCorpus, key);
+            if (newKey != QuestionSelector.NO_MORE_QUESTIONS)
+            {
+                newKeys.set(newKey);
+            } // end of if (newKey != QuestionSelector.NO_MORE_QUESTIONS)
+        } // end of for (int key = oldKeys.nextSetBit(0); key >= 0; ...)
+
+        return newKeys;
+    } // end of method moveKeys(BitSet oldKeys, CorpusReplacement replacement, GameCorpus oldCorpus)
+
+    /*
+     * Draws the next key from the selector, passing over pairs answered before a resume or a
+     * reload and concepts that lack an English or a French translation.
+     */
+    private int drawKey()
+    {
+        long start = GameMetrics.start();
+        int key = questionSelector.nextKey();
+        while (key != QuestionSelector.NO_MORE_QUESTIONS && (resumedKeys.get(key) || !corpus.isPosable(key)))
+        {
+            key = questionSelector.nextKey();
+        } // end of while (key != QuestionSelector.NO_MORE_QUESTIONS && ...)
+
+        GameMetrics.KEY_SELECTION.stop(start);
+        return key;
+    } // end of method drawKey()
+
+    /*
+     * Saves a graded answer to the progress log, if there is one. A failure to save is reported
+     * but does not stop the game.
+     */
+    private void saveAnswer(Prompt prompt, boolean correct)
+    {
+        if (progressLog == null)
+        {
+            return;
+        } // end of if (progressLog == null)
+
+        try
+        {
+            progressLog.recordAnswer(sessionId, corpus.getFingerprint(), prompt.getKey(),
+                prompt.getPromptEnglishOrFrench(), correct);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Could not save progress: " + exception.getMessage());
+        } // end of catch (IOException exception)
+    } // end of method saveAnswer(Prompt prompt, boolean correct)
+
+    /*
+     * Saves that this session was played to the end, if there is a progress log.
+     */
+    private void saveFinish()
+    {
+        if (progressLog == null)
+        {
+            return;
+        } // end of if (progressLog == null)
+
+        try
+        {
+            progressLog.recordFinish(sessionId);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Could not save progress: " + exception.getMessage());
+        } // end of catch (IOException exception)
+    } // end of method saveFinish()
+} // end of class GameSession
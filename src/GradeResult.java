@@ -0,0 +1,78 @@
+/**
+ * The outcome of submitting an answer to a game session.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class GradeResult
+{
+    /** What the session made of an answer. */
+    public enum Outcome
+    {
+        CORRECT, INCORRECT, EXIT
+    } // end of enum Outcome
+
+    // instance fields
+    private final Outcome outcome;
+    private final AnswerMatch answerMatch;
+    private final Prompt prompt;
+    private final Score score;
+
+    /* constructors */
+    /**
+     * Constructs a result.
+     *
+     * @param outcome what the session made of the answer
+     * @param answerMatch the translation a correct answer matched, or null
+     * @param prompt the prompt that was answered
+     * @param score the score after the answer was counted
+     */
+    public GradeResult(Outcome outcome, AnswerMatch answerMatch, Prompt prompt, Score score)
+    {
+        this.outcome = outcome;
+        this.answerMatch = answerMatch;
+        this.prompt = prompt;
+        this.score = score;
+    } // end of constructor GradeResult(Outcome outcome, AnswerMatch answerMatch, Prompt prompt, Score score)
+
+    /* accessors */
+    /**
+     * Returns what the session made of the answer.
+     *
+     * @return CORRECT, INCORRECT or EXIT
+     */
+    public Outcome getOutcome()
+    {
+        return outcome;
+    } // end of method getOutcome()
+
+    /**
+     * Returns the translation that a correct answer matched.
+     *
+     * @return the match, or null unless the outcome is CORRECT
+     */
+    public AnswerMatch getAnswerMatch()
+    {
+        return answerMatch;
+    } // end of method getAnswerMatch()
+
+    /**
+     * Returns the prompt that was answered.
+     *
+     * @return the prompt
+     */
+    public Prompt getPrompt()
+    {
+        return prompt;
+    } // end of method getPrompt()
+
+    /**
+     * Returns the score after the answer was counted.
+     *
+     * @return the score
+     */
+    public Score getScore()
+    {
+        return score;
+    } // end of method getScore()
+} // end of class GradeResult
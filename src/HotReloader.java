@@ -0,0 +1,327 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the deck or sentence files and the image directory of a running game and
+ * reloads what changes, on a background thread of its own. A new corpus is built completely before it
+ * is published, so a session that is under way keeps playing the corpus it started with
+ * while the next session gets the new one. A change that cannot be loaded, such as a
+ * French file saved before its English partner, keeps the previous corpus in place.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class HotReloader implements Closeable
+{
+    // class constants
+    private static final long QUIET_MILLIS = 250;
+
+    // instance fields
+    private final String[] sourceFileNames;
+    private final String corpusFileName;
+    private final AnswerNormalizer normalizer;
+    private final int typoTolerance;
+    private final List<Path> sourcePaths;
+    private final Path imageDirectory;
+    private final String imageDirectoryName;
+    private final WatchService watchService;
+    private final HashMap<WatchKey, Path> watchedDirectories;
+    private final CopyOnWriteArrayList<Consumer<GameCorpus>> corpusListeners;
+    private final CopyOnWriteArrayList<Consumer<String>> imageListeners;
+    private volatile GameCorpus corpus;
+    private Thread watchThread;
+
+    /* constructors */
+    /**
+     * Constructs a reloader for the given files, starting from an already loaded corpus.
+     *
+     * @param corpus the corpus currently in use
+     * @param englishFileName the file holding one English sentence per line
+     * @param frenchFileName the file holding the matching French sentence on each line
+     * @param corpusFileName the precompiled corpus file to refresh, or null for none
+     * @param imageDirectoryName the directory of image files to watch, or null for none
+     * @throws IOException if the files cannot be watched
+     */
+    public HotReloader(GameCorpus corpus, String englishFileName, String frenchFileName, String corpusFileName,
+        String imageDirectoryName) throws IOException
+    {
+        this(corpus, new String[] {englishFileName, frenchFileName}, corpusFileName, imageDirectoryName);
+    } // end of constructor HotReloader(GameCorpus corpus, String englishFileName, ...)
+
+    /**
+     * Constructs a reloader for a deck file, starting from an already loaded corpus.
+     *
+     * @param corpus the corpus currently in use
+     * @param deckFileName the tab-separated deck
+     * @param corpusFileName the precompiled corpus file to refresh, or null for none
+     * @param imageDirectoryName the directory of image files to watch, or null for none
+     * @throws IOException if the files cannot be watched
+     */
+    public HotReloader(GameCorpus corpus, String deckFileName, String corpusFileName, String imageDirectoryName)
+        throws IOException
+    {
+        this(corpus, new String[] {deckFileName}, corpusFileName, imageDirectoryName);
+    } // end of constructor HotReloader(GameCorpus corpus, String deckFileName, ...)
+
+    /*
+     * Constructs a reloader for a deck, or for English and French files, and starts watching
+     * their directories.
+     */
+    private HotReloader(GameCorpus corpus, String[] sourceFileNames, String corpusFileName,
+        String imageDirectoryName) throws IOException
+    {
+        this.corpus = corpus;
+        this.sourceFileNames = sourceFileNames;
+        this.corpusFileName = corpusFileName;
+        this.imageDirectoryName = imageDirectoryName;
+        normalizer = corpus.getNormalizer();
+        typoTolerance = corpus.getTypoTolerance();
+        sourcePaths = new ArrayList<Path>();
+        for (String sourceFileName : sourceFileNames)
+        {
+            sourcePaths.add(Paths.get(sourceFileName).toAbsolutePath().normalize());
+        } // end of for (String sourceFileName : sourceFileNames)
+        imageDirectory = (imageDirectoryName == null) ? null
+            : Paths.get(imageDirectoryName).toAbsolutePath().normalize();
+
+        watchService = FileSystems.getDefault().newWatchService();
+        watchedDirectories = new HashMap<WatchKey, Path>();
+        corpusListeners = new CopyOnWriteArrayList<Consumer<GameCorpus>>();
+        imageListeners = new CopyOnWriteArrayList<Consumer<String>>();
+        watchThread = null;
+
+        try
+        {
+            for (Path sourcePath : sourcePaths)
+            {
+                watch(sourcePath.getParent());
+            } // end of for (Path sourcePath : sourcePaths)
+            if (imageDirectory != null && Files.isDirectory(imageDirectory))
+            {
+                watch(imageDirectory);
+            } // end of if (imageDirectory != null && Files.isDirectory(imageDirectory))
+        }
+        catch (IOException exception)
+        {
+            watchService.close();
+            throw exception;
+        } // end of catch (IOException exception)
+    } // end of constructor HotReloader(GameCorpus corpus, String[] sourceFileNames, ...)
+
+    /* accessors */
+    /**
+     * Returns the most recently loaded corpus.
+     *
+     * @return the current corpus
+     */
+    public GameCorpus getCorpus()
+    {
+        return corpus;
+    } // end of method getCorpus()
+
+    /* mutators */
+    /**
+     * Adds a listener that is given each new corpus once it has been loaded. Listeners run on
+     * the reloader's thread, which is the place for any slow preparation the new corpus needs
+     * before a game thread takes it; the next reload waits until they return.
+     *
+     * @param listener the listener
+     */
+    public void addCorpusListener(Consumer<GameCorpus> listener)
+    {
+        corpusListeners.add(listener);
+    } // end of method addCorpusListener(Consumer<GameCorpus> listener)
+
+    /**
+     * Adds a listener that is given the name of each image file that changes, in the same form
+     * as the image directory name this reloader was given, e.g. "TGame Images/kiwi.jpg".
+     * Listeners run on the reloader's thread and should return quickly.
+     *
+     * @param listener the listener
+     */
+    public void addImageListener(Consumer<String> listener)
+    {
+        imageListeners.add(listener);
+    } // end of method addImageListener(Consumer<String> listener)
+
+    /**
+     * Starts watching in the background.
+     */
+    public synchronized void start()
+    {
+        if (watchThread != null)
+        {
+            return;
+        } // end of if (watchThread != null)
+
+        watchThread = new Thread(this::watchFiles, "hot-reload");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    } // end of method start()
+
+    /**
+     * Stops watching.
+     */
+    public void close() throws IOException
+    {
+        watchService.close();
+    } // end of method close()
+
+    /* private methods */
+    /*
+     * Registers a directory with the watch service, once.
+     */
+    private void watch(Path directory) throws IOException
+    {
+        if (watchedDirectories.containsValue(directory))
+        {
+            return;
+        } // end of if (watchedDirectories.containsValue(directory))
+
+        WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY);
+        watchedDirectories.put(key, directory);
+    } // end of method watch(Path directory)
+
+    /*
+     * Collects changes until the files have been quiet for a moment, then reloads them, until
+     * the watch service is closed.
+     */
+    private void watchFiles()
+    {
+        try
+        {
+            while (true)
+            {
+                LinkedHashSet<Path> changedFiles = new LinkedHashSet<Path>();
+                collectChanges(watchService.take(), changedFiles);
+
+                // an editor saving a file often fires several events; wait for the last of them
+                WatchKey key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                while (key != null)
+                {
+                    collectChanges(key, changedFiles);
+                    key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                } // end of while (key != null)
+
+                reload(changedFiles);
+            } // end of while (true)
+        }
+        catch (ClosedWatchServiceException | InterruptedException exception)
+        {
+            // the reloader was closed
+        } // end of catch (ClosedWatchServiceException | InterruptedException exception)
+    } // end of method watchFiles()
+
+    /*
+     * Adds the files named by a watch key's events to the given set and rearms the key.
+     */
+    private void collectChanges(WatchKey key, Set<Path> changedFiles)
+    {
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents())
+        {
+            if (directory != null && event.kind() != StandardWatchEventKinds.OVERFLOW)
+            {
+                changedFiles.add(directory.resolve((Path) event.context()));
+            } // end of if (directory != null && event.kind() != StandardWatchEventKinds.OVERFLOW)
+        } // end of for (WatchEvent<?> event : key.pollEvents())
+        key.reset();
+    } // end of method collectChanges(WatchKey key, Set<Path> changedFiles)
+
+    /*
+     * Reloads the corpus if a sentence file changed and reports every changed image.
+     */
+    private void reload(Set<Path> changedFiles)
+    {
+        if (!Collections.disjoint(changedFiles, sourcePaths))
+        {
+            reloadCorpus();
+        } // end of if (!Collections.disjoint(changedFiles, sourcePaths))
+
+        if (imageDirectory == null)
+        {
+            return;
+        } // end of if (imageDirectory == null)
+
+        for (Path changedFile : changedFiles)
+        {
+            if (imageDirectory.equals(changedFile.getParent()))
+            {
+                String imageFileName = Paths.get(imageDirectoryName).resolve(changedFile.getFileName()).toString();
+                for (Consumer<String> listener : imageListeners)
+                {
+                    listener.accept(imageFileName);
+                } // end of for (Consumer<String> listener : imageListeners)
+            } // end of if (imageDirectory.equals(changedFile.getParent()))
+        } // end of for (Path changedFile : changedFiles)
+    } // end of method reload(Set<Path> changedFiles)
+
+    /*
+     * Builds a corpus from the deck or sentence files and publishes it, or keeps the current one if
+     * they cannot be loaded. Any failure is reported rather than allowed to stop the watching
+     * thread, and a listener that fails keeps the corpus it had.
+     */
+    private void reloadCorpus()
+    {
+        GameCorpus newCorpus;
+        try
+        {
+            if (sourceFileNames.length == 1)
+            {
+                newCorpus = (corpusFileName == null)
+                    ? GameCorpus.loadDeck(sourceFileNames[0], normalizer, typoTolerance)
+                    : GameCorpus.loadDeck(sourceFileNames[0], corpusFileName, normalizer, typoTolerance);
+            }
+            else
+            {
+                newCorpus = (corpusFileName == null)
+                    ? GameCorpus.load(sourceFileNames[0], sourceFileNames[1], normalizer, typoTolerance)
+                    : GameCorpus.load(sourceFileNames[0], sourceFileNames[1], corpusFileName, normalizer,
+                        typoTolerance);
+            } // end of if (sourceFileNames.length == 1)
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Keeping the current sentences: " + exception.getMessage());
+            return;
+        }
+        catch (RuntimeException exception)
+        {
+            System.err.println("Keeping the current sentences, which could not be reloaded: " + exception);
+            return;
+        } // end of catch (RuntimeException exception)
+
+        corpus = newCorpus;
+        GameMetrics.CORPUS_RELOADS.increment();
+        for (Consumer<GameCorpus> listener : corpusListeners)
+        {
+            try
+            {
+                listener.accept(newCorpus);
+            }
+            catch (RuntimeException exception)
+            {
+                System.err.println("Could not move to the reloaded sentences: " + exception);
+            } // end of catch (RuntimeException exception)
+        } // end of for (Consumer<GameCorpus> listener : corpusListeners)
+    } // end of method reloadCorpus()
+} // end of class HotReloader
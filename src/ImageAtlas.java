@@ -0,0 +1,570 @@
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * The game's pictures packed into a few large sheets, so that starting a game decodes
+ * one or two files instead of one per picture. Each picture is known by a name made
+ * from its file name, "apple" for "apple.jpeg", and a phrase finds its picture through
+ * the same name made from its English text, so pictures no longer have to be listed in
+ * the order of the sentences.
+ *
+ * An atlas is an index file that lists its sheets and, for every picture, the sheet it
+ * is on and where:
+ *
+ * <pre>
+ * # image atlas of TGame Images
+ * &#64;sheet images.atlas.0.png
+ * apple	0	0	0	206	245
+ * </pre>
+ *
+ * Sheets are PNG files next to the index. Pictures larger than a game needs are scaled
+ * down as they are packed, and packing reads one picture at a time, so a folder of
+ * thousands of pictures packs in little memory.
+ *
+ * <pre>
+ * java ImageAtlas "TGame Images" images.atlas
+ * </pre>
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class ImageAtlas
+{
+    // class constants
+    private static final String COMMENT = "#";
+    private static final String SHEET = "@sheet ";
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String SHEET_FORMAT = "png";
+    private static final String[] IMAGE_SUFFIXES = {".jpg", ".jpeg", ".png", ".gif", ".bmp"};
+    private static final int MAX_PICTURE_SIDE = 640;
+    private static final int MAX_SHEET_SIDE = 2048;
+    private static final int GAP = 1;
+
+    // instance fields
+    private final List<String> sheetFileNames;
+    private final Map<String, Region> regions;
+
+    /* constructors */
+    /*
+     * Constructs an atlas over the given sheets and pictures.
+     */
+    private ImageAtlas(List<String> sheetFileNames, Map<String, Region> regions)
+    {
+        this.sheetFileNames = Collections.unmodifiableList(sheetFileNames);
+        this.regions = regions;
+    } // end of constructor ImageAtlas(List<String> sheetFileNames, Map<String, Region> regions)
+
+    /**
+     * Reads an atlas from its index file. The sheets are not decoded.
+     *
+     * @param indexFileName the atlas index
+     * @return the atlas
+     * @throws IOException if the index cannot be read or is malformed
+     */
+    public static ImageAtlas load(String indexFileName) throws IOException
+    {
+        Path indexDirectory = Paths.get(indexFileName).toAbsolutePath().getParent();
+        List<String> sheetFileNames = new ArrayList<String>();
+        Map<String, Region> regions = new LinkedHashMap<String, Region>();
+
+        try (BufferedReader input = Files.newBufferedReader(Paths.get(indexFileName), StandardCharsets.UTF_8))
+        {
+            String line;
+            int lineNumber = 0;
+            while ((line = input.readLine()) != null)
+            {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith(COMMENT))
+                {
+                    continue;
+                } // end of if (line.isEmpty() || line.startsWith(COMMENT))
+
+                if (line.startsWith(SHEET))
+                {
+                    sheetFileNames.add(indexDirectory.resolve(line.substring(SHEET.length())).toString());
+                    continue;
+                } // end of if (line.startsWith(SHEET))
+
+                // name, sheet, x, y, width, height
+                String[] fields = line.split(FIELD_SEPARATOR);
+                try
+                {
+                    int sheet = Integer.parseInt(fields[1]);
+                    regions.put(fields[0], new Region(sheetFileNames.get(sheet), Integer.parseInt(fields[2]),
+                        Integer.parseInt(fields[3]), Integer.parseInt(fields[4]), Integer.parseInt(fields[5])));
+                }
+                catch (RuntimeException exception)
+                {
+                    throw new IOException(indexFileName + ":" + lineNumber + ": not a picture: " + line);
+                } // end of catch (RuntimeException exception)
+            } // end of while ((line = input.readLine()) != null)
+        } // end of try
+
+        return new ImageAtlas(sheetFileNames, regions);
+    } // end of method load(String indexFileName)
+
+    /**
+     * Reads an atlas from its index file, packing the pictures in the given folder first if
+     * the atlas is missing or older than any of them.
+     *
+     * @param imageDirectoryName the folder of pictures
+     * @param indexFileName the atlas index
+     * @return the atlas
+     * @throws IOException if the pictures cannot be packed or the atlas cannot be read
+     */
+    public static ImageAtlas open(String imageDirectoryName, String indexFileName) throws IOException
+    {
+        if (isStale(imageDirectoryName, indexFileName))
+        {
+            return pack(imageDirectoryName, indexFileName);
+        } // end of if (isStale(imageDirectoryName, indexFileName))
+
+        try
+        {
+            return load(indexFileName);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Packing the pictures again: " + exception.getMessage());
+            return pack(imageDirectoryName, indexFileName);
+        } // end of catch (IOException exception)
+    } // end of method open(String imageDirectoryName, String indexFileName)
+
+    /**
+     * Packs every picture in the given folder into sheets, written next to the index as
+     * index.0.png, index.1.png and so on, and writes the index. Pictures are placed tallest
+     * first, in rows, so little of a sheet is left empty. Files that cannot be read as images
+     * are skipped, as is any picture whose name was already taken.
+     *
+     * @param imageDirectoryName the folder of pictures
+     * @param indexFileName the atlas index to write
+     * @return the new atlas
+     * @throws IOException if the folder cannot be listed or the atlas cannot be written
+     */
+    public static ImageAtlas pack(String imageDirectoryName, String indexFileName) throws IOException
+    {
+        File[] imageFiles = listImages(imageDirectoryName);
+        if (imageFiles == null)
+        {
+            throw new IOException("No picture folder named " + imageDirectoryName);
+        } // end of if (imageFiles == null)
+
+        // only the sizes are read to lay the sheets out; each picture is decoded once, when drawn
+        List<Picture> pictures = new ArrayList<Picture>();
+        Map<String, Picture> picturesByName = new LinkedHashMap<String, Picture>();
+        for (File imageFile : imageFiles)
+        {
+            Picture picture = readPicture(imageFile);
+            if (picture != null && picturesByName.putIfAbsent(picture.name, picture) == null)
+            {
+                pictures.add(picture);
+            }
+            else if (picture != null)
+            {
+                System.err.println("Skipping " + imageFile + ": another picture is named " + picture.name);
+            } // end of if (picture != null && ...)
+        } // end of for (File imageFile : imageFiles)
+
+        List<int[]> sheetSizes = layOut(pictures);
+        Path indexPath = Paths.get(indexFileName).toAbsolutePath();
+        List<String> sheetFileNames = new ArrayList<String>();
+        for (int sheet = 0; sheet < sheetSizes.size(); sheet++)
+        {
+            Path sheetPath = indexPath.resolveSibling(indexPath.getFileName() + "." + sheet + "." + SHEET_FORMAT);
+            drawSheet(pictures, sheet, sheetSizes.get(sheet), sheetPath);
+            sheetFileNames.add(sheetPath.toString());
+        } // end of for (int sheet = 0; sheet < sheetSizes.size(); sheet++)
+
+        // the index is written last, so an interrupted pack leaves an atlas that is still stale
+        Map<String, Region> regions = new LinkedHashMap<String, Region>();
+        try (BufferedWriter output = Files.newBufferedWriter(indexPath, StandardCharsets.UTF_8))
+        {
+            output.write(COMMENT + " image atlas of " + imageDirectoryName);
+            output.newLine();
+            for (String sheetFileName : sheetFileNames)
+            {
+                output.write(SHEET + Paths.get(sheetFileName).getFileName());
+                output.newLine();
+            } // end of for (String sheetFileName : sheetFileNames)
+
+            for (Picture picture : picturesByName.values())
+            {
+                if (picture.sheet < 0)
+                {
+                    continue;
+                } // end of if (picture.sheet < 0)
+
+                output.write(String.join(FIELD_SEPARATOR, picture.name, Integer.toString(picture.sheet),
+                    Integer.toString(picture.x), Integer.toString(picture.y), Integer.toString(picture.width),
+                    Integer.toString(picture.height)));
+                output.newLine();
+                regions.put(picture.name, new Region(sheetFileNames.get(picture.sheet), picture.x, picture.y,
+                    picture.width, picture.height));
+            } // end of for (Picture picture : picturesByName.values())
+        } // end of try
+
+        return new ImageAtlas(sheetFileNames, regions);
+    } // end of method pack(String imageDirectoryName, String indexFileName)
+
+    /* accessors */
+    /**
+     * Returns the sheet files, each of which holds some of the pictures.
+     *
+     * @return the sheet file names
+     */
+    public List<String> getSheetFileNames()
+    {
+        return sheetFileNames;
+    } // end of method getSheetFileNames()
+
+    /**
+     * Returns the names of the pictures, in the order of their files.
+     *
+     * @return the picture names
+     */
+    public List<String> getNames()
+    {
+        return Collections.unmodifiableList(new ArrayList<String>(regions.keySet()));
+    } // end of method getNames()
+
+    /**
+     * Returns where the picture with the given name is.
+     *
+     * @param name a picture name, as made by nameOf()
+     * @return the picture's region, or null if there is no such picture
+     */
+    public Region getRegion(String name)
+    {
+        return (name == null) ? null : regions.get(name);
+    } // end of method getRegion(String name)
+
+    /**
+     * Returns the picture name for a file name or a phrase: lower case, without accents or
+     * extension, with each run of other characters turned into a dash. "Apple", "apple.jpeg"
+     * and "APPLE.png" are all "apple"; "Pomme de terre" is "pomme-de-terre".
+     *
+     * @param text a file name or a phrase
+     * @return the picture name
+     */
+    public static String nameOf(String text)
+    {
+        String name = text;
+        for (String suffix : IMAGE_SUFFIXES)
+        {
+            if (name.toLowerCase(Locale.ROOT).endsWith(suffix))
+            {
+                name = name.substring(0, name.length() - suffix.length());
+            } // end of if (name.toLowerCase(Locale.ROOT).endsWith(suffix))
+        } // end of for (String suffix : IMAGE_SUFFIXES)
+
+        name = AnswerNormalizer.ACCENT_INSENSITIVE.normalize(name).replaceAll("[^\\p{L}\\p{N}]+", "-");
+        return name.replaceAll("^-|-$", "");
+    } // end of method nameOf(String text)
+
+    /* private methods */
+    /*
+     * Indicates whether the atlas must be packed again: its index or a sheet is missing, or a
+     * picture or the folder itself, which changes when a picture is added or removed, is newer.
+     */
+    private static boolean isStale(String imageDirectoryName, String indexFileName)
+    {
+        File indexFile = new File(indexFileName);
+        File imageDirectory = new File(imageDirectoryName);
+        File[] imageFiles = listImages(imageDirectoryName);
+        if (!indexFile.isFile() || imageFiles == null || imageDirectory.lastModified() > indexFile.lastModified())
+        {
+            return true;
+        } // end of if (!indexFile.isFile() || ...)
+
+        for (File imageFile : imageFiles)
+        {
+            if (imageFile.lastModified() > indexFile.lastModified())
+            {
+                return true;
+            } // end of if (imageFile.lastModified() > indexFile.lastModified())
+        } // end of for (File imageFile : imageFiles)
+
+        Path indexPath = indexFile.toPath().toAbsolutePath();
+        return !Files.isRegularFile(indexPath.resolveSibling(indexPath.getFileName() + ".0." + SHEET_FORMAT))
+            && imageFiles.length > 0;
+    } // end of method isStale(String imageDirectoryName, String indexFileName)
+
+    /*
+     * Returns the image files in a folder, sorted by name, or null if there is no such folder.
+     */
+    private static File[] listImages(String imageDirectoryName)
+    {
+        File[] imageFiles = new File(imageDirectoryName).listFiles((directory, fileName) ->
+        {
+            String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+            for (String suffix : IMAGE_SUFFIXES)
+            {
+                if (lowerCaseName.endsWith(suffix))
+                {
+                    return true;
+                } // end of if (lowerCaseName.endsWith(suffix))
+            } // end of for (String suffix : IMAGE_SUFFIXES)
+            return false;
+        });
+
+        if (imageFiles != null)
+        {
+            Arrays.sort(imageFiles);
+        } // end of if (imageFiles != null)
+        return imageFiles;
+    } // end of method listImages(String imageDirectoryName)
+
+    /*
+     * Reads the size of a picture without decoding it and works out the size it is packed at.
+     * Returns null if the file is not an image.
+     */
+    private static Picture readPicture(File imageFile)
+    {
+        try (ImageInputStream input = ImageIO.createImageInputStream(imageFile))
+        {
+            Iterator<ImageReader> readers = (input == null) ? Collections.<ImageReader>emptyIterator()
+                : ImageIO.getImageReaders(input);
+            if (!readers.hasNext())
+            {
+                System.err.println("Skipping " + imageFile + ": not an image");
+                return null;
+            } // end of if (!readers.hasNext())
+
+            ImageReader reader = readers.next();
+            try
+            {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                double scale = Math.min(1.0, (double) MAX_PICTURE_SIDE / Math.max(width, height));
+                return new Picture(imageFile, nameOf(imageFile.getName()),
+                    Math.max(1, (int) Math.round(width * scale)), Math.max(1, (int) Math.round(height * scale)));
+            }
+            finally
+            {
+                reader.dispose();
+            } // end of finally
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Skipping " + imageFile + ": " + exception.getMessage());
+            return null;
+        } // end of catch (IOException exception)
+    } // end of method readPicture(File imageFile)
+
+    /*
+     * Places the pictures on sheets in rows, tallest first, and returns the width and height
+     * of each sheet. Sheets are kept roughly square and no wider or taller than they need be.
+     */
+    private static List<int[]> layOut(List<Picture> pictures)
+    {
+        List<Picture> tallestFirst = new ArrayList<Picture>(pictures);
+        tallestFirst.sort(Comparator.comparingInt((Picture picture) -> picture.height).reversed());
+
+        long area = 0;
+        for (Picture picture : pictures)
+        {
+            area += (long) (picture.width + GAP) * (picture.height + GAP);
+        } // end of for (Picture picture : pictures)
+        int rowWidth = (int) Math.min(MAX_SHEET_SIDE, Math.max(MAX_PICTURE_SIDE + GAP, Math.ceil(Math.sqrt(area))));
+
+        List<int[]> sheetSizes = new ArrayList<int[]>();
+        int sheet = -1;
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+        for (Picture picture : tallestFirst)
+        {
+            if (sheet >= 0 && x + picture.width > rowWidth)
+            {
+                x = 0;
+                y += rowHeight + GAP;
+                rowHeight = 0;
+            } // end of if (sheet >= 0 && x + picture.width > rowWidth)
+
+            if (sheet < 0 || y + picture.height > MAX_SHEET_SIDE)
+            {
+                sheet++;
+                sheetSizes.add(new int[] {0, 0});
+                x = 0;
+                y = 0;
+                rowHeight = 0;
+            } // end of if (sheet < 0 || y + picture.height > MAX_SHEET_SIDE)
+
+            picture.sheet = sheet;
+            picture.x = x;
+            picture.y = y;
+            x += picture.width + GAP;
+            rowHeight = Math.max(rowHeight, picture.height);
+
+            int[] sheetSize = sheetSizes.get(sheet);
+            sheetSize[0] = Math.max(sheetSize[0], picture.x + picture.width);
+            sheetSize[1] = Math.max(sheetSize[1], picture.y + picture.height);
+        } // end of for (Picture picture : tallestFirst)
+
+        return sheetSizes;
+    } // end of method layOut(List<Picture> pictures)
+
+    /*
+     * Decodes the pictures placed on one sheet, one at a time, draws them scaled to their
+     * places and writes the sheet.
+     */
+    private static void drawSheet(List<Picture> pictures, int sheet, int[] sheetSize, Path sheetPath)
+        throws IOException
+    {
+        BufferedImage sheetImage = new BufferedImage(sheetSize[0], sheetSize[1], BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphicsContext = sheetImage.createGraphics();
+        ScaledImageRenderer renderer = new ScaledImageRenderer();
+        try
+        {
+            for (Picture picture : pictures)
+            {
+                if (picture.sheet != sheet)
+                {
+                    continue;
+                } // end of if (picture.sheet != sheet)
+
+                BufferedImage image = ImageIO.read(picture.file);
+                if (image == null)
+                {
+                    System.err.println("Skipping " + picture.file + ": not an image");
+                    picture.sheet = -1;
+                    continue;
+                } // end of if (image == null)
+
+                graphicsContext.drawImage(renderer.render(image, picture.width, picture.height, null),
+                    picture.x, picture.y, null);
+                renderer.clear();
+            } // end of for (Picture picture : pictures)
+        }
+        finally
+        {
+            graphicsContext.dispose();
+        } // end of finally
+
+        if (!ImageIO.write(sheetImage, SHEET_FORMAT, sheetPath.toFile()))
+        {
+            throw new IOException("No image writer for " + SHEET_FORMAT);
+        } // end of if (!ImageIO.write(sheetImage, SHEET_FORMAT, sheetPath.toFile()))
+    } // end of method drawSheet(List<Picture> pictures, int sheet, int[] sheetSize, Path sheetPath)
+
+    /**
+     * Packs a folder of pictures into an atlas.
+     *
+     * @param argument the picture folder and the atlas index to write, "TGame Images" and
+     *     "images.atlas" by default
+     * @throws IOException if the pictures cannot be packed
+     */
+    public static void main(String[] argument) throws IOException
+    {
+        String imageDirectoryName = (argument.length > 0) ? argument[0] : "TGame Images";
+        String indexFileName = (argument.length > 1) ? argument[1] : "images.atlas";
+
+        long startTime = System.nanoTime();
+        ImageAtlas atlas = pack(imageDirectoryName, indexFileName);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        System.out.println("Packed " + atlas.getNames().size() + " pictures onto " + atlas.getSheetFileNames().size()
+            + " sheet(s) in " + elapsedMillis + " ms: " + atlas.getNames());
+    } // end of method main(String[] argument)
+
+    /* public classes */
+    /**
+     * Where one picture is in an atlas: the sheet it is on and its bounds within the sheet.
+     */
+    public static class Region
+    {
+        // instance fields
+        private final String sheetFileName;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+
+        /* constructors */
+        /*
+         * Constructs a region of a sheet.
+         */
+        private Region(String sheetFileName, int x, int y, int width, int height)
+        {
+            this.sheetFileName = sheetFileName;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        } // end of constructor Region(String sheetFileName, int x, int y, int width, int height)
+
+        /* accessors */
+        /**
+         * Returns the sheet the picture is on.
+         *
+         * @return the sheet file name
+         */
+        public String getSheetFileName()
+        {
+            return sheetFileName;
+        } // end of method getSheetFileName()
+
+        /**
+         * Returns the bounds of the picture within its sheet.
+         *
+         * @return the bounds
+         */
+        public Rectangle getBounds()
+        {
+            return new Rectangle(x, y, width, height);
+        } // end of method getBounds()
+    } // end of class Region
+
+    /* private classes */
+    /*
+     * A picture being packed: its file, name and packed size, and where it was placed.
+     */
+    private static class Picture
+    {
+        // instance fields
+        private final File file;
+        private final String name;
+        private final int width;
+        private final int height;
+        private int sheet;
+        private int x;
+        private int y;
+
+        /* constructors */
+        /*
+         * Constructs a picture that has not been placed yet.
+         */
+        private Picture(File file, String name, int width, int height)
+        {
+            this.file = file;
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            sheet = -1;
+            x = 0;
+            y = 0;
+        } // end of constructor Picture(File file, String name, int width, int height)
+    } // end of class Picture
+} // end of class ImageAtlas
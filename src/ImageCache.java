@@ -0,0 +1,228 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.ImageIO;
+
+/**
+ * Decodes image files on a background thread the first time they are asked for and
+ * keeps the most recently used ones, up to a budget of pixel bytes.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class ImageCache
+{
+    // class constants
+    private static final int BYTES_PER_PIXEL = 4;
+
+    // instance fields
+    private final long maxPixelBytes;
+    private final ExecutorService decoder;
+    private final LinkedHashMap<String, BufferedImage> decodedImages;
+    private final HashMap<String, CompletableFuture<BufferedImage>> pendingImages;
+    private final HashSet<CompletableFuture<BufferedImage>> staleDecodes;
+    private long cachedPixelBytes;
+
+    /* constructors */
+    /**
+     * Constructs a cache that holds at most the given number of decoded pixel bytes.
+     *
+     * @param maxPixelBytes the pixel byte budget for decoded images
+     */
+    public ImageCache(long maxPixelBytes)
+    {
+        this.maxPixelBytes = maxPixelBytes;
+        decoder = Executors.newSingleThreadExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "image-decoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // access order makes the first entry the least recently used one
+        decodedImages = new LinkedHashMap<String, BufferedImage>(16, 0.75f, true);
+        pendingImages = new HashMap<String, CompletableFuture<BufferedImage>>();
+        staleDecodes = new HashSet<CompletableFuture<BufferedImage>>();
+        cachedPixelBytes = 0;
+    } // end of constructor ImageCache(long maxPixelBytes)
+
+    /* accessors */
+    /**
+     * Returns the number of pixel bytes held by the decoded images in this cache.
+     *
+     * @return the cached pixel bytes
+     */
+    public synchronized long getCachedPixelBytes()
+    {
+        return cachedPixelBytes;
+    } // end of method getCachedPixelBytes()
+
+    /**
+     * Returns the decoded image for the given file if it is already in this cache.
+     *
+     * @param fileName the image file
+     * @return the decoded image, or null if it has not been decoded yet
+     */
+    public synchronized BufferedImage getIfDecoded(String fileName)
+    {
+        return decodedImages.get(fileName);
+    } // end of method getIfDecoded(String fileName)
+
+    /* mutators */
+    /**
+     * Returns the decoded image for the given file, starting a background decode if it
+     * is neither cached nor already being decoded.
+     *
+     * @param fileName the image file
+     * @return a future that completes with the decoded image, or exceptionally if it cannot be read
+     */
+    public synchronized CompletableFuture<BufferedImage> request(String fileName)
+    {
+        BufferedImage cachedImage = decodedImages.get(fileName);
+        if (cachedImage != null)
+        {
+            GameMetrics.IMAGE_CACHE_HITS.increment();
+            return CompletableFuture.completedFuture(cachedImage);
+        } // end of if (cachedImage != null)
+        GameMetrics.IMAGE_CACHE_MISSES.increment();
+
+        // share a decode that is already under way instead of starting a second one
+        CompletableFuture<BufferedImage> pendingImage = pendingImages.get(fileName);
+        if (pendingImage == null)
+        {
+            CompletableFuture<BufferedImage> newPendingImage = new CompletableFuture<BufferedImage>();
+            pendingImages.put(fileName, newPendingImage);
+            decoder.execute(() -> decode(fileName, newPendingImage));
+            pendingImage = newPendingImage;
+        } // end of if (pendingImage == null)
+
+        return pendingImage;
+    } // end of method request(String fileName)
+
+    /**
+     * Cancels a pending decode of the given file. A decode that has already started is
+     * left to finish and its image is still cached.
+     *
+     * @param fileName the image file
+     * @return true if a pending decode was cancelled, else false
+     */
+    public synchronized boolean cancel(String fileName)
+    {
+        CompletableFuture<BufferedImage> pendingImage = pendingImages.remove(fileName);
+        return (pendingImage != null) && pendingImage.cancel(false);
+    } // end of method cancel(String fileName)
+
+    /**
+     * Forgets the decoded image for the given file because the file has changed. A decode
+     * that is already under way still completes, but its image is not cached, so the next
+     * request reads the file again.
+     *
+     * @param fileName the image file
+     * @return true if an image or a pending decode was forgotten, else false
+     */
+    public synchronized boolean invalidate(String fileName)
+    {
+        BufferedImage decodedImage = decodedImages.remove(fileName);
+        if (decodedImage != null)
+        {
+            cachedPixelBytes -= pixelBytes(decodedImage);
+        } // end of if (decodedImage != null)
+
+        CompletableFuture<BufferedImage> pendingImage = pendingImages.remove(fileName);
+        if (pendingImage != null)
+        {
+            staleDecodes.add(pendingImage);
+        } // end of if (pendingImage != null)
+
+        return (decodedImage != null) || (pendingImage != null);
+    } // end of method invalidate(String fileName)
+
+    /* private methods */
+    /*
+     * Reads the given file, stores the result in this cache and completes the pending
+     * future with it. Runs on the decoder thread.
+     */
+    private void decode(String fileName, CompletableFuture<BufferedImage> pendingImage)
+    {
+        if (pendingImage.isDone())
+        {
+            return;
+        } // end of if (pendingImage.isDone())
+
+        BufferedImage decodedImage = null;
+        try
+        {
+            long start = GameMetrics.start();
+            decodedImage = ImageIO.read(new File(fileName));
+            GameMetrics.IMAGE_DECODE.stop(start);
+            if (decodedImage == null)
+            {
+                throw new IOException("No image reader for " + fileName);
+            } // end of if (decodedImage == null)
+        }
+        catch (IOException exception)
+        {
+            synchronized (this)
+            {
+                pendingImages.remove(fileName, pendingImage);
+                staleDecodes.remove(pendingImage);
+            } // end of synchronized (this)
+            pendingImage.completeExceptionally(exception);
+            return;
+        } // end of catch (IOException exception)
+
+        synchronized (this)
+        {
+            pendingImages.remove(fileName, pendingImage);
+
+            // an image whose file changed while it was being read is handed out but not kept
+            if (!staleDecodes.remove(pendingImage))
+            {
+                BufferedImage replacedImage = decodedImages.put(fileName, decodedImage);
+                if (replacedImage != null)
+                {
+                    cachedPixelBytes -= pixelBytes(replacedImage);
+                } // end of if (replacedImage != null)
+                cachedPixelBytes += pixelBytes(decodedImage);
+                evict(fileName);
+            } // end of if (!staleDecodes.remove(pendingImage))
+        } // end of synchronized (this)
+
+        pendingImage.complete(decodedImage);
+    } // end of method decode(String fileName, CompletableFuture<BufferedImage> pendingImage)
+
+    /*
+     * Drops least recently used images until the cache is within budget, always keeping
+     * the image that was just decoded.
+     */
+    private void evict(String newestFileName)
+    {
+        Iterator<Map.Entry<String, BufferedImage>> entries = decodedImages.entrySet().iterator();
+
+        while (cachedPixelBytes > maxPixelBytes && entries.hasNext())
+        {
+            Map.Entry<String, BufferedImage> entry = entries.next();
+            if (!entry.getKey().equals(newestFileName))
+            {
+                cachedPixelBytes -= pixelBytes(entry.getValue());
+                entries.remove();
+            } // end of if (!entry.getKey().equals(newestFileName))
+        } // end of while (cachedPixelBytes > maxPixelBytes && entries.hasNext())
+    } // end of method evict(String newestFileName)
+
+    /*
+     * Returns the approximate heap cost of an image's pixels.
+     */
+    private static long pixelBytes(BufferedImage image)
+    {
+        return (long) image.getWidth() * image.getHeight() * BYTES_PER_PIXEL;
+    } // end of method pixelBytes(BufferedImage image)
+} // end of class ImageCache
@@ -0,0 +1,145 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A distribution of latencies in nanoseconds, recorded in the log-linear buckets that
+ * HdrHistogram uses: values below 128 ns are counted exactly, and every larger power of
+ * two is split into 64 equal buckets, so any percentile is reported within 1/64 of the
+ * true value. The whole range up to an hour fits in a few thousand counters, recording
+ * is one atomic increment and nothing is allocated after construction.
+ *
+ * Many threads may record at once. Readers see counts that are at most a few records
+ * behind, which is enough for monitoring.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class LatencyHistogram
+{
+    // class constants
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+    private static final long HIGHEST_TRACKABLE_NANOS = 3_600_000_000_000L;
+
+    // instance fields
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount;
+    private final LongAdder totalNanos;
+    private final AtomicLong maximumNanos;
+
+    /* constructors */
+    /**
+     * Constructs an empty histogram that tracks latencies of up to an hour; longer ones are
+     * counted as an hour.
+     */
+    public LatencyHistogram()
+    {
+        counts = new AtomicLongArray(bucketIndex(HIGHEST_TRACKABLE_NANOS) + 1);
+        totalCount = new LongAdder();
+        totalNanos = new LongAdder();
+        maximumNanos = new AtomicLong();
+    } // end of constructor LatencyHistogram()
+
+    /* accessors */
+    /**
+     * Returns the number of latencies recorded.
+     *
+     * @return the count
+     */
+    public long getCount()
+    {
+        return totalCount.sum();
+    } // end of method getCount()
+
+    /**
+     * Returns the mean of the recorded latencies.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMeanNanos()
+    {
+        long count = totalCount.sum();
+        return (count == 0) ? 0 : (double) totalNanos.sum() / count;
+    } // end of method getMeanNanos()
+
+    /**
+     * Returns the longest recorded latency.
+     *
+     * @return the maximum in nanoseconds
+     */
+    public long getMaximumNanos()
+    {
+        return maximumNanos.get();
+    } // end of method getMaximumNanos()
+
+    /**
+     * Returns the latency that the given percentage of recordings did not exceed, rounded up
+     * to the top of its bucket.
+     *
+     * @param percentile a percentage from 0 to 100
+     * @return the latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getNanosAtPercentile(double percentile)
+    {
+        long count = totalCount.sum();
+        if (count == 0)
+        {
+            return 0;
+        } // end of if (count == 0)
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long seen = 0;
+        for (int index = 0; index < counts.length(); index++)
+        {
+            seen += counts.get(index);
+            if (seen >= rank)
+            {
+                return Math.min(highestEquivalentNanos(index), maximumNanos.get());
+            } // end of if (seen >= rank)
+        } // end of for (int index = 0; index < counts.length(); index++)
+
+        return maximumNanos.get();
+    } // end of method getNanosAtPercentile(double percentile)
+
+    /* mutators */
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds; negative values are recorded as 0
+     */
+    public void record(long nanos)
+    {
+        long value = Math.min(Math.max(nanos, 0), HIGHEST_TRACKABLE_NANOS);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalNanos.add(value);
+
+        long maximum = maximumNanos.get();
+        while (value > maximum && !maximumNanos.compareAndSet(maximum, value))
+        {
+            maximum = maximumNanos.get();
+        } // end of while (value > maximum && ...)
+    } // end of method record(long nanos)
+
+    /* private methods */
+    /*
+     * Returns the index of the counter for the given value: the value itself below 128, else
+     * 64 counters for each power of two, indexed by the value's top seven bits.
+     */
+    private static int bucketIndex(long value)
+    {
+        int shift = Math.max(0, (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1));
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    } // end of method bucketIndex(long value)
+
+    /*
+     * Returns the largest value counted by the counter with the given index.
+     */
+    private static long highestEquivalentNanos(int index)
+    {
+        int shift = Math.max(0, index / SUB_BUCKET_HALF_COUNT - 1);
+        long lowestValue = (long) (index - shift * SUB_BUCKET_HALF_COUNT) << shift;
+        return lowestValue + (1L << shift) - 1;
+    } // end of method highestEquivalentNanos(int index)
+} // end of class LatencyHistogram
@@ -0,0 +1,390 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The best score of every player, kept in order so that the top of the table and any
+ * player's rank can be read while many sessions post scores at once. Entries live in a
+ * concurrent skip list, and each player's best score is replaced under that player's own
+ * entry in a concurrent map, so no global lock is ever taken.
+ *
+ * Readers that poll, such as the scoreboard panel, should use getSnapshot(): it returns
+ * the same immutable list until a score changes.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class Leaderboard
+{
+    // class constants
+    private static final int SNAPSHOT_SIZE = 10;
+    private static final String FIELD_SEPARATOR = "\t";
+
+    // instance fields
+    private final ConcurrentHashMap<String, Entry> bestEntries;
+    private final ConcurrentSkipListSet<Entry> rankedEntries;
+    private final ConcurrentSkipListMap<Integer, AtomicInteger> playersByPoints;
+    private final AtomicLong version;
+    private final int snapshotSize;
+    private final AtomicReference<Snapshot> snapshot;
+
+    /* constructors */
+    /**
+     * Constructs an empty leaderboard whose snapshots hold the top ten entries.
+     */
+    public Leaderboard()
+    {
+        this(SNAPSHOT_SIZE);
+    } // end of constructor Leaderboard()
+
+    /**
+     * Constructs an empty leaderboard whose snapshots hold the given number of top entries.
+     *
+     * @param snapshotSize the number of entries in each snapshot
+     */
+    public Leaderboard(int snapshotSize)
+    {
+        this.snapshotSize = snapshotSize;
+        bestEntries = new ConcurrentHashMap<String, Entry>();
+        rankedEntries = new ConcurrentSkipListSet<Entry>(Comparator.comparingInt(Entry::getPoints).reversed()
+            .thenComparingLong(Entry::getAchievedAt).thenComparing(Entry::getPlayer));
+        playersByPoints = new ConcurrentSkipListMap<Integer, AtomicInteger>(Comparator.reverseOrder());
+        version = new AtomicLong();
+        snapshot = new AtomicReference<Snapshot>(new Snapshot(0, Collections.<Entry>emptyList()));
+    } // end of constructor Leaderboard(int snapshotSize)
+
+    /**
+     * Reads a leaderboard saved by save(), or returns an empty one if the file does not exist.
+     *
+     * @param fileName the leaderboard file
+     * @return the leaderboard
+     * @throws IOException if the file cannot be read
+     */
+    public static Leaderboard load(String fileName) throws IOException
+    {
+        Leaderboard leaderboard = new Leaderboard();
+        Path path = Paths.get(fileName);
+        if (!Files.isRegularFile(path))
+        {
+            return leaderboard;
+        } // end of if (!Files.isRegularFile(path))
+
+        try (BufferedReader input = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+        {
+            String line = input.readLine();
+            while (line != null)
+            {
+                // points, time, then the player's name, which may itself hold a tab
+                String[] fields = line.split(FIELD_SEPARATOR, 3);
+                if (fields.length == 3)
+                {
+                    try
+                    {
+                        leaderboard.post(fields[2], Integer.parseInt(fields[0]), Long.parseLong(fields[1]));
+                    }
+                    catch (NumberFormatException exception)
+                    {
+                        System.err.println("Skipping leaderboard line: " + line);
+                    } // end of catch (NumberFormatException exception)
+                } // end of if (fields.length == 3)
+                line = input.readLine();
+            } // end of while (line != null)
+        } // end of try
+
+        return leaderboard;
+    } // end of method load(String fileName)
+
+    /* accessors */
+    /**
+     * Returns the given number of best entries, best first.
+     *
+     * @param count the number of entries wanted
+     * @return at most count entries
+     */
+    public List<Entry> getTop(int count)
+    {
+        ArrayList<Entry> top = new ArrayList<Entry>(Math.min(count, bestEntries.size()));
+        Iterator<Entry> entries = rankedEntries.iterator();
+
+        while (top.size() < count && entries.hasNext())
+        {
+            top.add(entries.next());
+        } // end of while (top.size() < count && entries.hasNext())
+
+        return top;
+    } // end of method getTop(int count)
+
+    /**
+     * Returns the top entries as an immutable list, rebuilding it only after a score has
+     * changed, so it is cheap to poll.
+     *
+     * @return the best entries, best first
+     */
+    public List<Entry> getSnapshot()
+    {
+        // the version is read before the list is built, so a list is never older than its version
+        long currentVersion = version.get();
+        Snapshot current = snapshot.get();
+        while (current.version < currentVersion)
+        {
+            Snapshot rebuilt = new Snapshot(currentVersion, Collections.unmodifiableList(getTop(snapshotSize)));
+
+            // a rebuild only replaces an older snapshot, never one a faster reader has made newer
+            if (snapshot.compareAndSet(current, rebuilt))
+            {
+                return rebuilt.entries;
+            } // end of if (snapshot.compareAndSet(current, rebuilt))
+            current = snapshot.get();
+        } // end of while (current.version < currentVersion)
+
+        return current.entries;
+    } // end of method getSnapshot()
+
+    /**
+     * Returns a player's best entry.
+     *
+     * @param player the player's name
+     * @return the entry, or null if the player has not posted a score
+     */
+    public Entry getBest(String player)
+    {
+        return bestEntries.get(player);
+    } // end of method getBest(String player)
+
+    /**
+     * Returns a player's rank: 1 plus the number of players with more points. Players with the
+     * same points share a rank.
+     *
+     * @param player the player's name
+     * @return the rank, or 0 if the player has not posted a score
+     */
+    public int getRank(String player)
+    {
+        Entry entry = bestEntries.get(player);
+        if (entry == null)
+        {
+            return 0;
+        } // end of if (entry == null)
+
+        // scores take few distinct values, so counting players per score beats walking the list
+        int rank = 1;
+        for (AtomicInteger players : playersByPoints.headMap(entry.getPoints()).values())
+        {
+            rank += players.get();
+        } // end of for (AtomicInteger players : playersByPoints.headMap(entry.getPoints()).values())
+
+        return rank;
+    } // end of method getRank(String player)
+
+    /**
+     * Returns the number of players on this leaderboard.
+     *
+     * @return the number of players
+     */
+    public int size()
+    {
+        return bestEntries.size();
+    } // end of method size()
+
+    /* mutators */
+    /**
+     * Posts a player's score, which replaces their entry only if it is better.
+     *
+     * @param player the player's name
+     * @param points the score
+     * @return true if this is the player's new best score, else false
+     */
+    public boolean post(String player, int points)
+    {
+        return post(player, points, System.currentTimeMillis());
+    } // end of method post(String player, int points)
+
+    /**
+     * Posts a finished game's score.
+     *
+     * @param player the player's name
+     * @param score the score of the game
+     * @return true if this is the player's new best score, else false
+     */
+    public boolean post(String player, Score score)
+    {
+        return post(player, score.getCorrectSentences());
+    } // end of method post(String player, Score score)
+
+    /**
+     * Saves every player's best entry to a file, replacing it in one step.
+     *
+     * @param fileName the leaderboard file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String fileName) throws IOException
+    {
+        Path path = Paths.get(fileName).toAbsolutePath();
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (BufferedWriter output = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8))
+        {
+            for (Entry entry : rankedEntries)
+            {
+                output.write(entry.getPoints() + FIELD_SEPARATOR + entry.getAchievedAt() + FIELD_SEPARATOR
+                    + entry.getPlayer());
+                output.newLine();
+            } // end of for (Entry entry : rankedEntries)
+        } // end of try
+
+        try
+        {
+            Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException exception)
+        {
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+        } // end of catch (AtomicMoveNotSupportedException exception)
+    } // end of method save(String fileName)
+
+    /* private methods */
+    /*
+     * Replaces a player's entry if the new score is better, updating the ranking and the
+     * count of players per score while only that player's map entry is locked. A reader
+     * racing the update may miss the player for a moment, but never sees two entries.
+     */
+    private boolean post(String player, int points, long achievedAt)
+    {
+        Entry newEntry = new Entry(player, points, achievedAt);
+        boolean[] improved = new boolean[1];
+
+        bestEntries.compute(player, (name, oldEntry) ->
+        {
+            if (oldEntry != null && oldEntry.getPoints() >= points)
+            {
+                return oldEntry;
+            } // end of if (oldEntry != null && oldEntry.getPoints() >= points)
+
+            // take the old entry out first, so a reader never sees the player twice
+            if (oldEntry != null)
+            {
+                rankedEntries.remove(oldEntry);
+                playersByPoints.get(oldEntry.getPoints()).decrementAndGet();
+            } // end of if (oldEntry != null)
+            rankedEntries.add(newEntry);
+            playersByPoints.computeIfAbsent(points, key -> new AtomicInteger()).incrementAndGet();
+
+            improved[0] = true;
+            return newEntry;
+        });
+
+        if (improved[0])
+        {
+            version.incrementAndGet();
+        } // end of if (improved[0])
+
+        return improved[0];
+    } // end of method post(String player, int points, long achievedAt)
+
+    /* public classes */
+    /**
+     * One player's best score and when it was achieved.
+     */
+    public static class Entry
+    {
+        // instance fields
+        private final String player;
+        private final int points;
+        private final long achievedAt;
+
+        /* constructors */
+        /**
+         * Constructs an entry.
+         *
+         * @param player the player's name
+         * @param points the score
+         * @param achievedAt when the score was posted, in milliseconds since the epoch
+         */
+        public Entry(String player, int points, long achievedAt)
+        {
+            this.player = player;
+            this.points = points;
+            this.achievedAt = achievedAt;
+        } // end of constructor Entry(String player, int points, long achievedAt)
+
+        /* accessors */
+        /**
+         * Returns the player's name.
+         *
+         * @return the player
+         */
+        public String getPlayer()
+        {
+            return player;
+        } // end of method getPlayer()
+
+        /**
+         * Returns the score.
+         *
+         * @return the points
+         */
+        public int getPoints()
+        {
+            return points;
+        } // end of method getPoints()
+
+        /**
+         * Returns when the score was posted.
+         *
+         * @return milliseconds since the epoch
+         */
+        public long getAchievedAt()
+        {
+            return achievedAt;
+        } // end of method getAchievedAt()
+
+        /**
+         * Returns the entry as "player: points".
+         *
+         * @return the entry as text
+         */
+        public String toString()
+        {
+            return player + ": " + points;
+        } // end of method toString()
+    } // end of class Entry
+
+    /* private classes */
+    /*
+     * The top entries together with the version of the leaderboard they were built from, so
+     * that both are published at once.
+     */
+    private static class Snapshot
+    {
+        // instance fields
+        private final long version;
+        private final List<Entry> entries;
+
+        /* constructors */
+        /*
+         * Creates a snapshot of the given entries.
+         */
+        public Snapshot(long version, List<Entry> entries)
+        {
+            this.version = version;
+            this.entries = entries;
+        } // end of constructor Snapshot(long version, List<Entry> entries)
+    } // end of class Snapshot
+} // end of class Leaderboard
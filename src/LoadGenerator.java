@@ -0,0 +1,661 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Drives the game engine with many simulated players at once, to find out how many
+ * games one JVM can host. Each player starts a game, reads every prompt, waits a
+ * random think time, then answers: correctly with a set probability, wrongly
+ * otherwise, or with EXIT at a set rate. A finished or abandoned game is followed at
+ * once by a new one, so the load stays steady for as long as the run lasts.
+ *
+ * Players can play GameSessions directly in this JVM, or play over the line protocol
+ * against a GameServer on this machine, either one already running or one started on a
+ * free loopback port for the run. Nothing outside the machine is needed.
+ *
+ * Every few seconds, and again at the end, the generator reports the answers per
+ * second, the percentiles of the time from sending an answer to receiving the next
+ * prompt, the rate at which the whole JVM allocates and the garbage collector's
+ * pauses. Allocation is worked out from how far the heap grows between collections,
+ * so it covers every thread, players and server alike.
+ *
+ * <pre>
+ * java LoadGenerator players=2000 seconds=120 accuracy=0.7 think=500 exit=0.02
+ * java LoadGenerator target=server players=500            a GameServer on a free port
+ * java LoadGenerator target=localhost:4040 players=500    a GameServer already running
+ * </pre>
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class LoadGenerator
+{
+    // class constants
+    private static final String ENGLISH_SENTENCES = "./englishSentences.txt";
+    private static final String FRENCH_SENTENCES = "./frenchSentences.txt";
+    private static final String DECK_FILE = "./sentences.tsv";
+    private static final String CORPUS_FILE = "./sentences.corpus";
+    private static final AnswerNormalizer ANSWER_NORMALIZER = AnswerNormalizer.ACCENT_INSENSITIVE;
+    private static final int TYPO_TOLERANCE = 1;
+
+    private static final String IN_PROCESS = "in-process";
+    private static final String EMBEDDED_SERVER = "server";
+    private static final String WRONG_ANSWER = "je ne sais pas";
+    private static final long ERROR_BACKOFF_MILLIS = 100;
+    private static final long SHUTDOWN_SECONDS = 10;
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    // instance fields
+    private final GameCorpus corpus;
+    private final String host;
+    private final int port;
+    private final int players;
+    private final int numberOfPhrases;
+    private final double accuracy;
+    private final long thinkMillis;
+    private final double exitRate;
+    private final long seed;
+
+    private final LatencyHistogram answerLatency;
+    private final LatencyHistogram gcPauses;
+    private final LongAdder answers;
+    private final LongAdder gamesFinished;
+    private final LongAdder gamesExited;
+    private final LongAdder errors;
+    private final AtomicInteger activePlayers;
+    private final AtomicLong collectedBytes;
+    private final Set<String> heapPools;
+    private volatile LatencyHistogram intervalLatency;
+    private volatile boolean running;
+
+    /* constructors */
+    /**
+     * Constructs a generator whose players play GameSessions directly in this JVM.
+     *
+     * @param corpus the corpus to play over
+     * @param players the number of players playing at once
+     * @param numberOfPhrases the number of phrases in each game
+     * @param accuracy the probability, from 0 to 1, that an answer is correct
+     * @param thinkMillis the mean time a player takes to answer, in milliseconds; 0 answers at once
+     * @param exitRate the probability, from 0 to 1, that a player types EXIT instead of answering
+     * @param seed the seed the players' choices are drawn from
+     */
+    public LoadGenerator(GameCorpus corpus, int players, int numberOfPhrases, double accuracy, long thinkMillis,
+        double exitRate, long seed)
+    {
+        this(corpus, null, -1, players, numberOfPhrases, accuracy, thinkMillis, exitRate, seed);
+    } // end of constructor LoadGenerator(GameCorpus corpus, int players, ...)
+
+    /**
+     * Constructs a generator whose players connect to a GameServer. The server must play over
+     * the same sentences as the given corpus, which is only used to know the right answers.
+     *
+     * @param corpus the corpus the server plays over
+     * @param host the server's host name, normally "localhost"
+     * @param port the server's port
+     * @param players the number of players connected at once
+     * @param numberOfPhrases the number of phrases in each of the server's games
+     * @param accuracy the probability, from 0 to 1, that an answer is correct
+     * @param thinkMillis the mean time a player takes to answer, in milliseconds; 0 answers at once
+     * @param exitRate the probability, from 0 to 1, that a player types EXIT instead of answering
+     * @param seed the seed the players' choices are drawn from
+     */
+    public LoadGenerator(GameCorpus corpus, String host, int port, int players, int numberOfPhrases,
+        double accuracy, long thinkMillis, double exitRate, long seed)
+    {
+        this.corpus = corpus;
+        this.host = host;
+        this.port = port;
+        this.players = players;
+        this.numberOfPhrases = numberOfPhrases;
+        this.accuracy = accuracy;
+        this.thinkMillis = thinkMillis;
+        this.exitRate = exitRate;
+        this.seed = seed;
+
+        answerLatency = new LatencyHistogram();
+        gcPauses = new LatencyHistogram();
+        answers = new LongAdder();
+        gamesFinished = new LongAdder();
+        gamesExited = new LongAdder();
+        errors = new LongAdder();
+        activePlayers = new AtomicInteger();
+        collectedBytes = new AtomicLong();
+        heapPools = new HashSet<String>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if (pool.getType() == MemoryType.HEAP)
+            {
+                heapPools.add(pool.getName());
+            } // end of if (pool.getType() == MemoryType.HEAP)
+        } // end of for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+        intervalLatency = new LatencyHistogram();
+        running = false;
+    } // end of constructor LoadGenerator(GameCorpus corpus, String host, int port, ...)
+
+    /* accessors */
+    /**
+     * Returns the time from sending each answer to receiving the next prompt, over the whole run.
+     *
+     * @return the answer latencies in nanoseconds
+     */
+    public LatencyHistogram getAnswerLatency()
+    {
+        return answerLatency;
+    } // end of method getAnswerLatency()
+
+    /**
+     * Returns the garbage collector's pauses during the run.
+     *
+     * @return the pause times in nanoseconds
+     */
+    public LatencyHistogram getGcPauses()
+    {
+        return gcPauses;
+    } // end of method getGcPauses()
+
+    /**
+     * Returns the number of answers graded so far, EXIT included.
+     *
+     * @return the answer count
+     */
+    public long getAnswers()
+    {
+        return answers.sum();
+    } // end of method getAnswers()
+
+    /**
+     * Returns the number of games played to the last phrase so far.
+     *
+     * @return the finished game count
+     */
+    public long getGamesFinished()
+    {
+        return gamesFinished.sum();
+    } // end of method getGamesFinished()
+
+    /**
+     * Returns the number of games ended early with EXIT so far.
+     *
+     * @return the abandoned game count
+     */
+    public long getGamesExited()
+    {
+        return gamesExited.sum();
+    } // end of method getGamesExited()
+
+    /**
+     * Returns the number of games that failed, such as connections the server refused or dropped.
+     *
+     * @return the error count
+     */
+    public long getErrors()
+    {
+        return errors.sum();
+    } // end of method getErrors()
+
+    /* mutators */
+    /**
+     * Runs the players for the given time, printing a line of measurements at every interval and
+     * a summary at the end.
+     *
+     * @param seconds how long to run
+     * @param reportSeconds how often to print, in seconds
+     * @param output where to print
+     * @throws InterruptedException if the thread is interrupted while the players run
+     */
+    public void run(long seconds, long reportSeconds, PrintStream output) throws InterruptedException
+    {
+        NotificationListener gcListener = this::recordCollection;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            ((NotificationEmitter) collector).addNotificationListener(gcListener, null, null);
+        } // end of for (GarbageCollectorMXBean collector : ...)
+
+        ExecutorService playerThreads = newThreadPerPlayerExecutor();
+        running = true;
+        try
+        {
+            output.println(String.format(Locale.ROOT, "%d players, %s, accuracy %.2f, think %d ms, exit rate %.3f",
+                players, (host == null) ? IN_PROCESS : host + ":" + port, accuracy, thinkMillis, exitRate));
+            output.println(String.format(Locale.ROOT, "%8s %8s %10s %10s %10s %10s %10s %10s %14s",
+                "time", "players", "answers/s", "p50 us", "p99 us", "p99.9 us", "max us", "MB/s", "gc pauses"));
+
+            for (int player = 0; player < players; player++)
+            {
+                final int playerNumber = player;
+                playerThreads.execute(() -> playGames(playerNumber));
+            } // end of for (int player = 0; player < players; player++)
+
+            long startTime = System.nanoTime();
+            long allocatedAtStart = allocatedBytes();
+            long intervalStart = startTime;
+            long intervalAnswers = 0;
+            long intervalAllocated = allocatedAtStart;
+            long intervalPauses = 0;
+            long deadline = startTime + TimeUnit.SECONDS.toNanos(seconds);
+
+            while (System.nanoTime() < deadline)
+            {
+                long wait = Math.min(TimeUnit.SECONDS.toNanos(reportSeconds), deadline - System.nanoTime());
+                TimeUnit.NANOSECONDS.sleep(Math.max(0, wait));
+
+                long now = System.nanoTime();
+                LatencyHistogram latency = intervalLatency;
+                intervalLatency = new LatencyHistogram();
+                long answerCount = answers.sum();
+                long allocated = allocatedBytes();
+                long pauseCount = gcPauses.getCount();
+                double elapsedSeconds = (now - intervalStart) / NANOS_PER_SECOND;
+
+                output.println(String.format(Locale.ROOT, "%7.0fs %8d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f %14d",
+                    (now - startTime) / NANOS_PER_SECOND, activePlayers.get(),
+                    (answerCount - intervalAnswers) / elapsedSeconds,
+                    latency.getNanosAtPercentile(50) / NANOS_PER_MICRO,
+                    latency.getNanosAtPercentile(99) / NANOS_PER_MICRO,
+                    latency.getNanosAtPercentile(99.9) / NANOS_PER_MICRO,
+                    latency.getMaximumNanos() / NANOS_PER_MICRO,
+                    (allocated - intervalAllocated) / BYTES_PER_MEGABYTE / elapsedSeconds,
+                    pauseCount - intervalPauses));
+
+                intervalStart = now;
+                intervalAnswers = answerCount;
+                intervalAllocated = allocated;
+                intervalPauses = pauseCount;
+            } // end of while (System.nanoTime() < deadline)
+
+            printSummary(output, (System.nanoTime() - startTime) / NANOS_PER_SECOND,
+                allocatedBytes() - allocatedAtStart);
+        }
+        finally
+        {
+            running = false;
+            playerThreads.shutdownNow();
+            playerThreads.awaitTermination(SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            {
+                try
+                {
+                    ((NotificationEmitter) collector).removeNotificationListener(gcListener);
+                }
+                catch (ListenerNotFoundException exception)
+                {
+                    // nothing to remove
+                } // end of catch (ListenerNotFoundException exception)
+            } // end of for (GarbageCollectorMXBean collector : ...)
+        } // end of finally
+    } // end of method run(long seconds, long reportSeconds, PrintStream output)
+
+    /* private methods */
+    /*
+     * Plays one game after another as one player until the run ends.
+     */
+    private void playGames(int player)
+    {
+        SplittableRandom randomizer = new SplittableRandom(seed + player);
+        activePlayers.incrementAndGet();
+        try
+        {
+            while (running)
+            {
+                try
+                {
+                    if (host == null)
+                    {
+                        playInProcess(randomizer);
+                    }
+                    else
+                    {
+                        playOverSocket(randomizer);
+                    } // end of if (host == null)
+                }
+                catch (IOException exception)
+                {
+                    // a refused or dropped connection only costs this game
+                    if (running)
+                    {
+                        errors.increment();
+                        Thread.sleep(ERROR_BACKOFF_MILLIS);
+                    } // end of if (running)
+                } // end of catch (IOException exception)
+            } // end of while (running)
+        }
+        catch (InterruptedException exception)
+        {
+            // the run is over
+        }
+        finally
+        {
+            activePlayers.decrementAndGet();
+        } // end of finally
+    } // end of method playGames(int player)
+
+    /*
+     * Plays one game against a GameSession in this JVM.
+     */
+    private void playInProcess(SplittableRandom randomizer) throws InterruptedException
+    {
+        GameSession session = new GameSession(corpus, numberOfPhrases, randomizer.nextLong());
+        Prompt prompt = session.nextPrompt();
+        while (prompt != null && running)
+        {
+            String answer = chooseAnswer(prompt, randomizer);
+            think(randomizer);
+
+            long start = System.nanoTime();
+            GradeResult.Outcome outcome = session.grade(answer);
+            prompt = session.isOver() ? null : session.nextPrompt();
+            recordAnswer(start);
+
+            if (outcome == GradeResult.Outcome.EXIT)
+            {
+                gamesExited.increment();
+                return;
+            } // end of if (outcome == GradeResult.Outcome.EXIT)
+        } // end of while (prompt != null && running)
+
+        if (prompt == null)
+        {
+            gamesFinished.increment();
+        } // end of if (prompt == null)
+    } // end of method playInProcess(SplittableRandom randomizer)
+
+    /*
+     * Plays one game against a GameServer over a new connection.
+     */
+    private void playOverSocket(SplittableRandom randomizer) throws IOException, InterruptedException
+    {
+        try (GameClient client = new GameClient(host, port))
+        {
+            Prompt prompt = client.readPrompt();
+            while (prompt != null && running)
+            {
+                String answer = chooseAnswer(prompt, randomizer);
+                think(randomizer);
+
+                long start = System.nanoTime();
+                String reply = client.answer(answer);
+                if (reply == null)
+                {
+                    throw new IOException("The server hung up");
+                }
+                else if (reply.startsWith("BYE"))
+                {
+                    recordAnswer(start);
+                    gamesExited.increment();
+                    return;
+                } // end of if (reply == null)
+
+                // the server follows the grade with the next prompt, or GAMEOVER after the last one
+                prompt = client.readPrompt();
+                recordAnswer(start);
+            } // end of while (prompt != null && running)
+
+            if (prompt == null)
+            {
+                gamesFinished.increment();
+            } // end of if (prompt == null)
+        } // end of try
+    } // end of method playOverSocket(SplittableRandom randomizer)
+
+    /*
+     * Chooses a player's answer to a prompt: EXIT at the exit rate, else the right translation
+     * at the given accuracy, else a wrong one.
+     */
+    private String chooseAnswer(Prompt prompt, SplittableRandom randomizer)
+    {
+        if (randomizer.nextDouble() < exitRate)
+        {
+            return GameSession.SENTINEL_EXIT_VALUE;
+        }
+        else if (randomizer.nextDouble() < accuracy)
+        {
+            return prompt.getPromptEnglishOrFrench() ? corpus.getEnglish(prompt.getKey())
+                : corpus.getFrench(prompt.getKey());
+        } // end of if (randomizer.nextDouble() < exitRate)
+
+        return WRONG_ANSWER;
+    } // end of method chooseAnswer(Prompt prompt, SplittableRandom randomizer)
+
+    /*
+     * Waits as long as a player takes to answer: exponentially distributed around the mean think
+     * time, as arrivals from many independent players are.
+     */
+    private void think(SplittableRandom randomizer) throws InterruptedException
+    {
+        if (thinkMillis > 0)
+        {
+            Thread.sleep((long) (-thinkMillis * Math.log(1 - randomizer.nextDouble())));
+        } // end of if (thinkMillis > 0)
+    } // end of method think(SplittableRandom randomizer)
+
+    /*
+     * Records the latency of an answer that was sent at the given time.
+     */
+    private void recordAnswer(long start)
+    {
+        long latency = System.nanoTime() - start;
+        answerLatency.record(latency);
+        intervalLatency.record(latency);
+        answers.increment();
+    } // end of method recordAnswer(long start)
+
+    /*
+     * Records a garbage collection: the heap it freed, and its duration if it stopped the
+     * application. Concurrent cycles run alongside the application and are not pauses.
+     */
+    private void recordCollection(Notification notification, Object handback)
+    {
+        if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION))
+        {
+            return;
+        } // end of if (!notification.getType().equals(...))
+
+        GarbageCollectionNotificationInfo collection = GarbageCollectionNotificationInfo.from(
+            (CompositeData) notification.getUserData());
+        collectedBytes.addAndGet(heapUsed(collection.getGcInfo().getMemoryUsageBeforeGc())
+            - heapUsed(collection.getGcInfo().getMemoryUsageAfterGc()));
+
+        String collectorName = collection.getGcName();
+        if (!collectorName.contains("Concurrent") && !collectorName.contains("Cycles"))
+        {
+            gcPauses.record(collection.getGcInfo().getDuration() * (long) NANOS_PER_MILLI);
+        } // end of if (!collectorName.contains("Concurrent") && !collectorName.contains("Cycles"))
+    } // end of method recordCollection(Notification notification, Object handback)
+
+    /*
+     * Returns the bytes used in the heap's pools, out of the usage of every pool.
+     */
+    private long heapUsed(Map<String, MemoryUsage> usage)
+    {
+        long used = 0;
+        for (Map.Entry<String, MemoryUsage> pool : usage.entrySet())
+        {
+            if (heapPools.contains(pool.getKey()))
+            {
+                used += pool.getValue().getUsed();
+            } // end of if (heapPools.contains(pool.getKey()))
+        } // end of for (Map.Entry<String, MemoryUsage> pool : usage.entrySet())
+
+        return used;
+    } // end of method heapUsed(Map<String, MemoryUsage> usage)
+
+    /*
+     * Returns the bytes allocated in the heap since the JVM started, as far as can be told: what
+     * is in use now plus what every collection has freed.
+     */
+    private long allocatedBytes()
+    {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() + collectedBytes.get();
+    } // end of method allocatedBytes()
+
+    /*
+     * Prints the totals of the run.
+     */
+    private void printSummary(PrintStream output, double elapsedSeconds, long allocated)
+    {
+        long answerCount = answers.sum();
+        long games = gamesFinished.sum() + gamesExited.sum();
+
+        output.println();
+        output.println(String.format(Locale.ROOT, "Summary of %.0f s with %d players:", elapsedSeconds, players));
+        output.println(String.format(Locale.ROOT, "  answers     %d (%.1f/s)", answerCount,
+            answerCount / elapsedSeconds));
+        output.println(String.format(Locale.ROOT, "  games       %d finished, %d exited (%.1f/s), %d errors",
+            gamesFinished.sum(), gamesExited.sum(), games / elapsedSeconds, errors.sum()));
+        output.println(String.format(Locale.ROOT,
+            "  latency     mean %.1f us, p50 %.1f us, p90 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us",
+            answerLatency.getMeanNanos() / NANOS_PER_MICRO,
+            answerLatency.getNanosAtPercentile(50) / NANOS_PER_MICRO,
+            answerLatency.getNanosAtPercentile(90) / NANOS_PER_MICRO,
+            answerLatency.getNanosAtPercentile(99) / NANOS_PER_MICRO,
+            answerLatency.getNanosAtPercentile(99.9) / NANOS_PER_MICRO,
+            answerLatency.getMaximumNanos() / NANOS_PER_MICRO));
+        output.println(String.format(Locale.ROOT, "  allocation  %.1f MB (%.1f MB/s, %.0f bytes per answer)",
+            allocated / BYTES_PER_MEGABYTE, allocated / BYTES_PER_MEGABYTE / elapsedSeconds,
+            (answerCount == 0) ? 0.0 : (double) allocated / answerCount));
+        output.println(String.format(Locale.ROOT,
+            "  gc pauses   %d, %.1f ms in total (%.2f%% of the run), p99 %.2f ms, max %.2f ms",
+            gcPauses.getCount(), gcPauses.getMeanNanos() * gcPauses.getCount() / NANOS_PER_MILLI,
+            100 * gcPauses.getMeanNanos() * gcPauses.getCount() / NANOS_PER_SECOND / elapsedSeconds,
+            gcPauses.getNanosAtPercentile(99) / NANOS_PER_MILLI, gcPauses.getMaximumNanos() / NANOS_PER_MILLI));
+    } // end of method printSummary(PrintStream output, double elapsedSeconds, long allocated)
+
+    /*
+     * Returns an executor that runs each player on a new virtual thread where the runtime
+     * supports them, and on a new platform thread otherwise.
+     */
+    private static ExecutorService newThreadPerPlayerExecutor()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException exception)
+        {
+            return Executors.newCachedThreadPool(runnable ->
+            {
+                Thread thread = new Thread(runnable, "simulated-player");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } // end of catch (ReflectiveOperationException exception)
+    } // end of method newThreadPerPlayerExecutor()
+
+    /**
+     * Runs a load test against the game's sentences. Options are given as name=value: players
+     * (default 1000), seconds (60), accuracy (0.75), think in milliseconds (1000), exit (0.01),
+     * phrases (10), report in seconds (5), seed, and target, which is "in-process" (the default),
+     * "server" to start a GameServer on a free loopback port, or host:port of a running server.
+     *
+     * @param argument the options
+     * @throws IOException if the sentences cannot be loaded or the server cannot be started
+     * @throws InterruptedException if the run is interrupted
+     */
+    public static void main(String[] argument) throws IOException, InterruptedException
+    {
+        int players = 1000;
+        long seconds = 60;
+        double accuracy = 0.75;
+        long thinkMillis = 1000;
+        double exitRate = 0.01;
+        int numberOfPhrases = 10;
+        long reportSeconds = 5;
+        long seed = System.nanoTime();
+        String target = IN_PROCESS;
+
+        for (String option : argument)
+        {
+            int separator = option.indexOf('=');
+            String name = (separator < 0) ? option : option.substring(0, separator);
+            String value = (separator < 0) ? "" : option.substring(separator + 1);
+            switch (name)
+            {
+                case "players":
+                    players = Integer.parseInt(value);
+                    break;
+                case "seconds":
+                    seconds = Long.parseLong(value);
+                    break;
+                case "accuracy":
+                    accuracy = Double.parseDouble(value);
+                    break;
+                case "think":
+                    thinkMillis = Long.parseLong(value);
+                    break;
+                case "exit":
+                    exitRate = Double.parseDouble(value);
+                    break;
+                case "phrases":
+                    numberOfPhrases = Integer.parseInt(value);
+                    break;
+                case "report":
+                    reportSeconds = Long.parseLong(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "target":
+                    target = value;
+                    break;
+                default:
+                    System.err.println("Usage: java LoadGenerator [players=n] [seconds=n] [accuracy=0..1] "
+                        + "[think=ms] [exit=0..1] [phrases=n] [report=s] [seed=n] "
+                        + "[target=in-process|server|host:port]");
+                    System.exit(1);
+            } // end of switch (name)
+        } // end of for (String option : argument)
+
+        GameMetrics.startReporting();
+        GameCorpus corpus = new File(DECK_FILE).isFile()
+            ? GameCorpus.loadDeck(DECK_FILE, CORPUS_FILE, ANSWER_NORMALIZER, TYPO_TOLERANCE)
+            : GameCorpus.load(ENGLISH_SENTENCES, FRENCH_SENTENCES, CORPUS_FILE, ANSWER_NORMALIZER, TYPO_TOLERANCE);
+
+        if (target.equals(IN_PROCESS))
+        {
+            new LoadGenerator(corpus, players, numberOfPhrases, accuracy, thinkMillis, exitRate, seed)
+                .run(seconds, reportSeconds, System.out);
+        }
+        else if (target.equals(EMBEDDED_SERVER))
+        {
+            try (GameServer server = new GameServer(corpus, 0, numberOfPhrases))
+            {
+                server.start();
+                new LoadGenerator(corpus, "localhost", server.getPort(), players, numberOfPhrases, accuracy,
+                    thinkMillis, exitRate, seed).run(seconds, reportSeconds, System.out);
+            } // end of try
+        }
+        else
+        {
+            int separator = target.lastIndexOf(':');
+            int port = Integer.parseInt(target.substring(separator + 1));
+            new LoadGenerator(corpus, target.substring(0, separator), port, players, numberOfPhrases, accuracy,
+                thinkMillis, exitRate, seed).run(seconds, reportSeconds, System.out);
+        } // end of if (target.equals(IN_PROCESS))
+    } // end of method main(String[] argument)
+} // end of class LoadGenerator
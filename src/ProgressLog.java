@@ -0,0 +1,727 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * A durable record of every graded answer, kept in an append-only log file so that a
+ * player's progress survives the game exiting or crashing. Each record carries its own
+ * CRC-32C, so a record torn by a crash is detected and dropped when the log is reopened.
+ *
+ * Writers only copy their record into a shared buffer; one background thread writes
+ * whatever has accumulated and forces it to disk, then wakes every writer whose record
+ * it covered. While one force is under way the next batch builds up, so a single fsync
+ * is shared by all the answers that arrived meanwhile.
+ *
+ * Only sessions still in progress are kept: a session played to the end is forgotten,
+ * since it will never be resumed. Every few thousand records their progress is saved to
+ * a snapshot file and the log is emptied, so the log never holds more than that many
+ * records and reopening only replays the records written since the snapshot. Each
+ * emptying starts a new generation of the log; a snapshot names the generation and
+ * position it covers, so a crash between saving the snapshot and emptying the log is
+ * recognized when the log is reopened.
+ *
+ * <pre>
+ * log:      long magic, long generation, then records
+ * record:   int payload length, int CRC-32C of the payload, payload
+ * payload:  byte type, short id length, UTF-8 session id, then for an answer:
+ *           int corpus fingerprint, int key, byte flags (1 = French prompt, 2 = correct)
+ * </pre>
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class ProgressLog implements Closeable
+{
+    // class constants
+    /**
+     * The corpus fingerprint of answers recorded before fingerprints were.
+     */
+    public static final int UNKNOWN_CORPUS = 0;
+
+    private static final String LOG_FILE = "progress.log";
+    private static final String SNAPSHOT_FILE = "progress.snapshot";
+    private static final long LOG_MAGIC = 0x5447504c4f473031L;
+    private static final long SNAPSHOT_MAGIC = 0x5447534e41503033L;
+    private static final int LOG_HEADER_BYTES = Long.BYTES * 2;
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 10000;
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int LARGEST_SESSION_ID = 255;
+    private static final int ANSWER_BYTES = Integer.BYTES * 2 + 1;
+    private static final int UNFINGERPRINTED_ANSWER_BYTES = Integer.BYTES + 1;
+    private static final int LARGEST_PAYLOAD = 1 + Short.BYTES + LARGEST_SESSION_ID + ANSWER_BYTES;
+
+    private static final byte ANSWER_RECORD = 1;
+    private static final byte FINISH_RECORD = 2;
+    private static final int FRENCH_PROMPT_FLAG = 1;
+    private static final int CORRECT_FLAG = 2;
+
+    // instance fields
+    private final Path snapshotPath;
+    private final FileChannel logChannel;
+    private final int snapshotInterval;
+    private final HashMap<String, SessionProgress> sessions;
+    private final Thread flushThread;
+    private ByteBuffer pendingRecords;
+    private ByteBuffer writingRecords;
+    private long appendedOffset;
+    private long durableOffset;
+    private long generation;
+    private int recordsSinceSnapshot;
+    private long forces;
+    private IOException failure;
+    private boolean closed;
+
+    /* constructors */
+    /**
+     * Opens the progress log in the given directory, creating it if need be, and rebuilds the
+     * progress of every unfinished session from the latest snapshot and the log records after it.
+     *
+     * @param directoryName the directory holding the log and snapshot files
+     * @throws IOException if the files cannot be read or created
+     */
+    public ProgressLog(String directoryName) throws IOException
+    {
+        this(directoryName, DEFAULT_SNAPSHOT_INTERVAL);
+    } // end of constructor ProgressLog(String directoryName)
+
+    /**
+     * Opens the progress log in the given directory, taking a snapshot every snapshotInterval records.
+     *
+     * @param directoryName the directory holding the log and snapshot files
+     * @param snapshotInterval the number of records between snapshots
+     * @throws IOException if the files cannot be read or created
+     */
+    public ProgressLog(String directoryName, int snapshotInterval) throws IOException
+    {
+        Path directory = Paths.get(directoryName);
+        Files.createDirectories(directory);
+        snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.snapshotInterval = snapshotInterval;
+        sessions = new HashMap<String, SessionProgress>();
+        pendingRecords = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+        writingRecords = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+        recordsSinceSnapshot = 0;
+        forces = 0;
+        failure = null;
+        closed = false;
+
+        // offsets count the bytes appended since the log was opened, whatever its generation
+        appendedOffset = 0;
+        durableOffset = 0;
+
+        logChannel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try
+        {
+            if (logChannel.size() == 0)
+            {
+                startGeneration(0);
+            } // end of if (logChannel.size() == 0)
+
+            // a log written before logs had a header holds records from its first byte
+            long logStart = readLogHeader() ? LOG_HEADER_BYTES : 0;
+            long snapshotOffset = readSnapshot(logStart, logChannel.size());
+            if (snapshotOffset < 0)
+            {
+                // the snapshot covers the whole log, which a crash kept from being emptied
+                startGeneration(generation + 1);
+                snapshotOffset = LOG_HEADER_BYTES;
+            } // end of if (snapshotOffset < 0)
+            long validEnd = replay(snapshotOffset);
+
+            // drop a record torn by a crash so that new records follow the last good one
+            logChannel.truncate(validEnd);
+            logChannel.position(validEnd);
+            if (logStart == 0)
+            {
+                compact(copySessions());
+            } // end of if (logStart == 0)
+        }
+        catch (IOException exception)
+        {
+            logChannel.close();
+            throw exception;
+        } // end of catch (IOException exception)
+
+        flushThread = new Thread(this::flushRecords, "progress-log");
+        flushThread.setDaemon(true);
+        flushThread.start();
+    } // end of constructor ProgressLog(String directoryName, int snapshotInterval)
+
+    /* accessors */
+    /**
+     * Returns the saved progress of a session.
+     *
+     * @param sessionId the session identifier
+     * @return a copy of the session's progress, or null if it has not answered anything since
+     *     it was last played to the end
+     */
+    public synchronized SessionProgress getProgress(String sessionId)
+    {
+        SessionProgress progress = sessions.get(sessionId);
+        return (progress == null) ? null : progress.copy();
+    } // end of method getProgress(String sessionId)
+
+    /**
+     * Returns the number of times the log has been forced to disk, which is at most the number
+     * of records written and usually far fewer.
+     *
+     * @return the number of forces
+     */
+    public synchronized long getForces()
+    {
+        return forces;
+    } // end of method getForces()
+
+    /* mutators */
+    /**
+     * Records a graded answer and returns once it is on disk.
+     *
+     * @param sessionId the session identifier, at most 255 bytes of UTF-8
+     * @param corpusFingerprint the fingerprint of the corpus the key belongs to
+     * @param key the key of the sentence pair answered
+     * @param promptEnglishOrFrench true if the French sentence was shown and English was expected, else false
+     * @param correct true if the answer was accepted, else false
+     * @throws IOException if the record cannot be written
+     */
+    public void recordAnswer(String sessionId, int corpusFingerprint, int key, boolean promptEnglishOrFrench,
+        boolean correct) throws IOException
+    {
+        int flags = (promptEnglishOrFrench ? FRENCH_PROMPT_FLAG : 0) | (correct ? CORRECT_FLAG : 0);
+        long recordEnd;
+
+        synchronized (this)
+        {
+            recordEnd = append(ANSWER_RECORD, sessionId, corpusFingerprint, key, flags);
+            session(sessionId).recordAnswer(corpusFingerprint, key, promptEnglishOrFrench, correct);
+        } // end of synchronized (this)
+
+        awaitDurable(recordEnd);
+    } // end of method recordAnswer(String sessionId, int corpusFingerprint, int key, ...)
+
+    /**
+     * Records that a session was played to the end, forgetting its progress, and returns once
+     * that is on disk.
+     *
+     * @param sessionId the session identifier, at most 255 bytes of UTF-8
+     * @throws IOException if the record cannot be written
+     */
+    public void recordFinish(String sessionId) throws IOException
+    {
+        long recordEnd;
+
+        synchronized (this)
+        {
+            recordEnd = append(FINISH_RECORD, sessionId, UNKNOWN_CORPUS, 0, 0);
+            sessions.remove(sessionId);
+        } // end of synchronized (this)
+
+        awaitDurable(recordEnd);
+    } // end of method recordFinish(String sessionId)
+
+    /**
+     * Writes any records still waiting and closes the log.
+     */
+    public void close() throws IOException
+    {
+        synchronized (this)
+        {
+            closed = true;
+            notifyAll();
+        } // end of synchronized (this)
+
+        try
+        {
+            flushThread.join();
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            logChannel.close();
+        } // end of finally
+    } // end of method close()
+
+    /* private methods */
+    /*
+     * Returns the progress of a session, creating it on its first record. Called with the lock held.
+     */
+    private SessionProgress session(String sessionId)
+    {
+        return sessions.computeIfAbsent(sessionId, SessionProgress::new);
+    } // end of method session(String sessionId)
+
+    /*
+     * Copies a record into the pending buffer and returns the log offset just past it. Called
+     * with the lock held.
+     */
+    private long append(byte type, String sessionId, int corpusFingerprint, int key, int flags) throws IOException
+    {
+        if (failure != null)
+        {
+            throw new IOException("The progress log can no longer be written", failure);
+        }
+        else if (closed)
+        {
+            throw new IOException("The progress log is closed");
+        } // end of if (failure != null)
+
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > LARGEST_SESSION_ID)
+        {
+            throw new IllegalArgumentException("Session id is longer than " + LARGEST_SESSION_ID + " bytes");
+        } // end of if (id.length > LARGEST_SESSION_ID)
+
+        int payloadLength = 1 + Short.BYTES + id.length + ((type == ANSWER_RECORD) ? ANSWER_BYTES : 0);
+        if (pendingRecords.remaining() < RECORD_HEADER_BYTES + payloadLength)
+        {
+            ByteBuffer largerBuffer = ByteBuffer.allocate(pendingRecords.capacity() * 2);
+            pendingRecords.flip();
+            largerBuffer.put(pendingRecords);
+            pendingRecords = largerBuffer;
+        } // end of if (pendingRecords.remaining() < RECORD_HEADER_BYTES + payloadLength)
+
+        int recordStart = pendingRecords.position();
+        pendingRecords.position(recordStart + RECORD_HEADER_BYTES);
+        pendingRecords.put(type).putShort((short) id.length).put(id);
+        if (type == ANSWER_RECORD)
+        {
+            pendingRecords.putInt(corpusFingerprint).putInt(key).put((byte) flags);
+        } // end of if (type == ANSWER_RECORD)
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(pendingRecords.array(), recordStart + RECORD_HEADER_BYTES, payloadLength);
+        pendingRecords.putInt(recordStart, payloadLength).putInt(recordStart + Integer.BYTES,
+            (int) checksum.getValue());
+
+        appendedOffset += RECORD_HEADER_BYTES + payloadLength;
+        recordsSinceSnapshot++;
+        notifyAll();
+        return appendedOffset;
+    } // end of method append(byte type, String sessionId, int corpusFingerprint, int key, int flags)
+
+    /*
+     * Waits until the log is on disk up to the given offset.
+     */
+    private synchronized void awaitDurable(long offset) throws IOException
+    {
+        boolean interrupted = false;
+        while (durableOffset < offset && failure == null)
+        {
+            try
+            {
+                wait();
+            }
+            catch (InterruptedException exception)
+            {
+                interrupted = true;
+            } // end of catch (InterruptedException exception)
+        } // end of while (durableOffset < offset && failure == null)
+
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        } // end of if (interrupted)
+
+        if (durableOffset < offset)
+        {
+            throw new IOException("The progress log could not be written", failure);
+        } // end of if (durableOffset < offset)
+    } // end of method awaitDurable(long offset)
+
+    /*
+     * Writes and forces each batch of pending records in turn until the log is closed. Runs on
+     * the flush thread.
+     */
+    private void flushRecords()
+    {
+        while (true)
+        {
+            long batchEnd;
+            ArrayList<SessionProgress> snapshot = null;
+
+            synchronized (this)
+            {
+                while (pendingRecords.position() == 0 && !closed)
+                {
+                    try
+                    {
+                        wait();
+                    }
+                    catch (InterruptedException exception)
+                    {
+                        // only closing the log stops this thread
+                    } // end of catch (InterruptedException exception)
+                } // end of while (pendingRecords.position() == 0 && !closed)
+
+                if (pendingRecords.position() == 0)
+                {
+                    return;
+                } // end of if (pendingRecords.position() == 0)
+
+                // the sessions now reflect exactly the records up to the end of this batch
+                ByteBuffer batch = pendingRecords;
+                pendingRecords = writingRecords;
+                writingRecords = batch;
+                batchEnd = appendedOffset;
+
+                if (recordsSinceSnapshot >= snapshotInterval)
+                {
+                    snapshot = copySessions();
+                    recordsSinceSnapshot = 0;
+                } // end of if (recordsSinceSnapshot >= snapshotInterval)
+            } // end of synchronized (this)
+
+            try
+            {
+                writingRecords.flip();
+                while (writingRecords.hasRemaining())
+                {
+                    logChannel.write(writingRecords);
+                } // end of while (writingRecords.hasRemaining())
+                writingRecords.clear();
+                logChannel.force(false);
+            }
+            catch (IOException exception)
+            {
+                synchronized (this)
+                {
+                    failure = exception;
+                    notifyAll();
+                } // end of synchronized (this)
+                return;
+            } // end of catch (IOException exception)
+
+            synchronized (this)
+            {
+                durableOffset = batchEnd;
+                forces++;
+                notifyAll();
+            } // end of synchronized (this)
+
+            // the log now holds exactly the records the snapshot covers, and only this thread writes it
+            if (snapshot != null && !compactLog(snapshot))
+            {
+                return;
+            } // end of if (snapshot != null && !compactLog(snapshot))
+        } // end of while (true)
+    } // end of method flushRecords()
+
+    /*
+     * Compacts the log on the flush thread, returning false if the log can no longer be
+     * written. A snapshot that cannot be saved only leaves the log to grow until the next one.
+     */
+    private boolean compactLog(ArrayList<SessionProgress> snapshot)
+    {
+        try
+        {
+            writeSnapshot(snapshot, generation + 1);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Could not write progress snapshot: " + exception.getMessage());
+            return true;
+        } // end of catch (IOException exception)
+
+        try
+        {
+            startGeneration(generation + 1);
+            return true;
+        }
+        catch (IOException exception)
+        {
+            synchronized (this)
+            {
+                failure = exception;
+                notifyAll();
+            } // end of synchronized (this)
+            return false;
+        } // end of catch (IOException exception)
+    } // end of method compactLog(ArrayList<SessionProgress> snapshot)
+
+    /*
+     * Returns copies of the progress of every session. Called with the lock held, or before the
+     * flush thread starts.
+     */
+    private ArrayList<SessionProgress> copySessions()
+    {
+        ArrayList<SessionProgress> snapshot = new ArrayList<SessionProgress>(sessions.size());
+        for (SessionProgress progress : sessions.values())
+        {
+            snapshot.add(progress.copy());
+        } // end of for (SessionProgress progress : sessions.values())
+
+        return snapshot;
+    } // end of method copySessions()
+
+    /*
+     * Saves the given progress as a snapshot of the next generation, then empties the log and
+     * starts that generation.
+     */
+    private void compact(ArrayList<SessionProgress> snapshot) throws IOException
+    {
+        writeSnapshot(snapshot, generation + 1);
+        startGeneration(generation + 1);
+    } // end of method compact(ArrayList<SessionProgress> snapshot)
+
+    /*
+     * Empties the log and gives it a header for the given generation. The log is emptied
+     * before the header changes, so a crash partway leaves the old generation's header on an
+     * empty log.
+     */
+    private void startGeneration(long newGeneration) throws IOException
+    {
+        logChannel.truncate(0);
+        logChannel.force(true);
+
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_BYTES).putLong(LOG_MAGIC).putLong(newGeneration);
+        header.flip();
+        logChannel.position(0);
+        while (header.hasRemaining())
+        {
+            logChannel.write(header);
+        } // end of while (header.hasRemaining())
+        logChannel.force(true);
+        generation = newGeneration;
+    } // end of method startGeneration(long newGeneration)
+
+    /*
+     * Reads the generation from the log's header, returning false if the log was written
+     * before logs had a header, in which case its generation is taken to be 0.
+     */
+    private boolean readLogHeader() throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_BYTES);
+        logChannel.position(0);
+        while (header.hasRemaining() && logChannel.read(header) >= 0)
+        {
+            // keep reading until the header is full or the log ends
+        } // end of while (header.hasRemaining() && logChannel.read(header) >= 0)
+
+        boolean hasHeader = !header.hasRemaining() && header.getLong(0) == LOG_MAGIC;
+        generation = hasHeader ? header.getLong(Long.BYTES) : 0;
+        return hasHeader;
+    } // end of method readLogHeader()
+
+    /*
+     * Saves the given progress as the state at the start of the given log generation.
+     */
+    private void writeSnapshot(ArrayList<SessionProgress> snapshot, long snapshotGeneration) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+
+        output.writeLong(SNAPSHOT_MAGIC);
+        output.writeLong(snapshotGeneration);
+        output.writeLong(LOG_HEADER_BYTES);
+        output.writeInt(snapshot.size());
+        for (SessionProgress progress : snapshot)
+        {
+            output.writeUTF(progress.getSessionId());
+            output.writeInt(progress.getCorrectEnglishSentences());
+            output.writeInt(progress.getCorrectFrenchSentences());
+            output.writeInt(progress.getPhrasesPosed());
+            output.writeInt(progress.getCorpusFingerprint());
+
+            long[] askedKeys = progress.getAskedKeys().toLongArray();
+            output.writeInt(askedKeys.length);
+            for (long word : askedKeys)
+            {
+                output.writeLong(word);
+            } // end of for (long word : askedKeys)
+        } // end of for (SessionProgress progress : snapshot)
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes.toByteArray());
+        output.writeInt((int) checksum.getValue());
+        output.flush();
+
+        Path temporaryPath = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            } // end of while (buffer.hasRemaining())
+            channel.force(true);
+        } // end of try
+
+        try
+        {
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException exception)
+        {
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+        } // end of catch (AtomicMoveNotSupportedException exception)
+    } // end of method writeSnapshot(ArrayList<SessionProgress> snapshot, long snapshotGeneration)
+
+    /*
+     * Loads the snapshot, if there is a sound one of the log's generation or of the next, and
+     * returns the log offset to replay from: logStart if there is none, or -1 if the snapshot
+     * belongs to the next generation and so already covers every record in the log.
+     */
+    private long readSnapshot(long logStart, long logSize) throws IOException
+    {
+        if (!Files.isRegularFile(snapshotPath))
+        {
+            return logStart;
+        } // end of if (!Files.isRegularFile(snapshotPath))
+
+        byte[] bytes = Files.readAllBytes(snapshotPath);
+        if (bytes.length < Long.BYTES * 3 + Integer.BYTES * 2)
+        {
+            return logStart;
+        } // end of if (bytes.length < Long.BYTES * 3 + Integer.BYTES * 2)
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes, 0, bytes.length - Integer.BYTES);
+        if ((int) checksum.getValue() != ByteBuffer.wrap(bytes, bytes.length - Integer.BYTES, Integer.BYTES).getInt())
+        {
+            System.err.println("Ignoring damaged progress snapshot " + snapshotPath);
+            return logStart;
+        } // end of if ((int) checksum.getValue() != ...)
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (input.readLong() != SNAPSHOT_MAGIC)
+        {
+            return logStart;
+        } // end of if (input.readLong() != SNAPSHOT_MAGIC)
+
+        long snapshotGeneration = input.readLong();
+        long logOffset = input.readLong();
+        boolean current = snapshotGeneration == generation && logOffset >= logStart && logOffset <= logSize;
+        boolean ahead = snapshotGeneration == generation + 1 && logOffset == LOG_HEADER_BYTES;
+        if (!current && !ahead)
+        {
+            return logStart;
+        } // end of if (!current && !ahead)
+
+        int sessionCount = input.readInt();
+        for (int session = 0; session < sessionCount; session++)
+        {
+            String sessionId = input.readUTF();
+            int correctEnglishSentences = input.readInt();
+            int correctFrenchSentences = input.readInt();
+            int phrasesPosed = input.readInt();
+            int corpusFingerprint = input.readInt();
+
+            long[] askedKeys = new long[input.readInt()];
+            for (int word = 0; word < askedKeys.length; word++)
+            {
+                askedKeys[word] = input.readLong();
+            } // end of for (int word = 0; word < askedKeys.length; word++)
+
+            sessions.put(sessionId, new SessionProgress(sessionId, correctEnglishSentences, correctFrenchSentences,
+                phrasesPosed, BitSet.valueOf(askedKeys), corpusFingerprint));
+        } // end of for (int session = 0; session < sessionCount; session++)
+
+        return current ? logOffset : -1;
+    } // end of method readSnapshot(long logStart, long logSize)
+
+    /*
+     * Applies every sound record from the given offset on and returns the offset just past the
+     * last one.
+     */
+    private long replay(long offset) throws IOException
+    {
+        long validEnd = offset;
+        logChannel.position(offset);
+
+        // the stream is not closed, as that would close the channel too
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(logChannel)));
+        try
+        {
+            while (true)
+            {
+                int payloadLength = input.readInt();
+                int expectedChecksum = input.readInt();
+                if (payloadLength < 0 || payloadLength > LARGEST_PAYLOAD)
+                {
+                    return validEnd;
+                } // end of if (payloadLength < 0 || payloadLength > LARGEST_PAYLOAD)
+
+                byte[] payload = new byte[payloadLength];
+                input.readFully(payload);
+
+                CRC32C checksum = new CRC32C();
+                checksum.update(payload);
+                if ((int) checksum.getValue() != expectedChecksum || !apply(ByteBuffer.wrap(payload)))
+                {
+                    return validEnd;
+                } // end of if ((int) checksum.getValue() != expectedChecksum || ...)
+
+                validEnd += RECORD_HEADER_BYTES + payloadLength;
+            } // end of while (true)
+        }
+        catch (EOFException exception)
+        {
+            // the log ends here, perhaps partway through a record cut short by a crash
+            return validEnd;
+        } // end of catch (EOFException exception)
+    } // end of method replay(long offset)
+
+    /*
+     * Applies one record's payload to the sessions, returning false if it makes no sense.
+     */
+    private boolean apply(ByteBuffer payload)
+    {
+        if (payload.remaining() < 1 + Short.BYTES)
+        {
+            return false;
+        } // end of if (payload.remaining() < 1 + Short.BYTES)
+
+        byte type = payload.get();
+        int idLength = payload.getShort();
+        if (idLength < 0 || payload.remaining() < idLength)
+        {
+            return false;
+        } // end of if (idLength < 0 || payload.remaining() < idLength)
+
+        byte[] id = new byte[idLength];
+        payload.get(id);
+        String sessionId = new String(id, StandardCharsets.UTF_8);
+
+        if (type == ANSWER_RECORD
+            && (payload.remaining() == ANSWER_BYTES || payload.remaining() == UNFINGERPRINTED_ANSWER_BYTES))
+        {
+            int corpusFingerprint = (payload.remaining() == ANSWER_BYTES) ? payload.getInt() : UNKNOWN_CORPUS;
+            int key = payload.getInt();
+            int flags = payload.get();
+            session(sessionId).recordAnswer(corpusFingerprint, key, (flags & FRENCH_PROMPT_FLAG) != 0,
+                (flags & CORRECT_FLAG) != 0);
+            return true;
+        }
+        else if (type == FINISH_RECORD && !payload.hasRemaining())
+        {
+            sessions.remove(sessionId);
+            return true;
+        } // end of if (type == ANSWER_RECORD && ...)
+
+        return false;
+    } // end of method apply(ByteBuffer payload)
+} // end of class ProgressLog
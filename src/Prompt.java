@@ -0,0 +1,122 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A sentence posed to the player for translation. A multiple-choice prompt also offers
+ * the translation among a few distractors; the player may pick one or type an answer.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class Prompt
+{
+    // class constants
+    private static final int[] NO_CHOICES = new int[0];
+
+    // instance fields
+    private final int key;
+    private final boolean promptEnglishOrFrench;
+    private final String sentence;
+    private final int[] choiceKeys;
+    private final List<String> choices;
+
+    /* constructors */
+    /**
+     * Constructs a prompt for the sentence pair with the given key.
+     *
+     * @param key the key of the sentence pair
+     * @param promptEnglishOrFrench true if the French sentence is shown and English is expected, else false
+     * @param sentence the sentence shown to the player
+     */
+    public Prompt(int key, boolean promptEnglishOrFrench, String sentence)
+    {
+        this(key, promptEnglishOrFrench, sentence, NO_CHOICES, Collections.<String>emptyList());
+    } // end of constructor Prompt(int key, boolean promptEnglishOrFrench, String sentence)
+
+    /**
+     * Constructs a multiple-choice prompt for the sentence pair with the given key.
+     *
+     * @param key the key of the sentence pair
+     * @param promptEnglishOrFrench true if the French sentence is shown and English is expected, else false
+     * @param sentence the sentence shown to the player
+     * @param choiceKeys the keys of the pairs offered, the given key among them
+     * @param choices the translation offered for each key, in the expected language
+     * @throws IllegalArgumentException if there is not one translation per key
+     */
+    public Prompt(int key, boolean promptEnglishOrFrench, String sentence, int[] choiceKeys, List<String> choices)
+    {
+        if (choiceKeys.length != choices.size())
+        {
+            throw new IllegalArgumentException(choiceKeys.length + " choices were offered with "
+                + choices.size() + " translations");
+        } // end of if (choiceKeys.length != choices.size())
+
+        this.key = key;
+        this.promptEnglishOrFrench = promptEnglishOrFrench;
+        this.sentence = sentence;
+        this.choiceKeys = (choiceKeys.length == 0) ? NO_CHOICES : choiceKeys.clone();
+        this.choices = choices.isEmpty() ? Collections.<String>emptyList() : Collections.unmodifiableList(choices);
+    } // end of constructor Prompt(int key, boolean promptEnglishOrFrench, String sentence, ...)
+
+    /* accessors */
+    /**
+     * Returns the key of the sentence pair being posed.
+     *
+     * @return the key
+     */
+    public int getKey()
+    {
+        return key;
+    } // end of method getKey()
+
+    /**
+     * Indicates whether a French sentence is shown to be translated into English.
+     *
+     * @return true if French is shown, else English
+     */
+    public boolean getPromptEnglishOrFrench()
+    {
+        return promptEnglishOrFrench;
+    } // end of method getPromptEnglishOrFrench()
+
+    /**
+     * Returns the sentence shown to the player.
+     *
+     * @return the sentence to translate
+     */
+    public String getSentence()
+    {
+        return sentence;
+    } // end of method getSentence()
+
+    /**
+     * Indicates whether this prompt offers choices.
+     *
+     * @return true if the player can pick the answer, else false
+     */
+    public boolean isMultipleChoice()
+    {
+        return choiceKeys.length > 0;
+    } // end of method isMultipleChoice()
+
+    /**
+     * Returns the keys of the pairs offered, in the order they are shown.
+     *
+     * @return the keys, or an empty array if this prompt offers no choices
+     */
+    public int[] getChoiceKeys()
+    {
+        return (choiceKeys.length == 0) ? NO_CHOICES : choiceKeys.clone();
+    } // end of method getChoiceKeys()
+
+    /**
+     * Returns the translations offered, in the same order as their keys. Submitting one of them
+     * answers the prompt.
+     *
+     * @return the translations, or an empty list if this prompt offers no choices
+     */
+    public List<String> getChoices()
+    {
+        return choices;
+    } // end of method getChoices()
+} // end of class Prompt
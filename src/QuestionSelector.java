@@ -0,0 +1,54 @@
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Chooses which sentence pair is posed to the player next.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public interface QuestionSelector
+{
+    /** Returned by nextKey() once every question has been posed. */
+    int NO_MORE_QUESTIONS = -1;
+
+    /**
+     * Returns the key of the next sentence pair to pose.
+     *
+     * @return a key from 0 to the deck size - 1, or NO_MORE_QUESTIONS if the deck is used up
+     */
+    int nextKey();
+
+    /**
+     * Returns the number of questions that can still be drawn.
+     *
+     * @return the number of remaining questions
+     */
+    int remaining();
+
+    /**
+     * Tells this selector how the player answered a key it drew, so that it can decide
+     * when to pose that key again. Selectors that never repeat a key ignore this.
+     *
+     * @param key a key returned by nextKey()
+     * @param correct true if the answer was accepted, else false
+     */
+    default void recordAnswer(int key, boolean correct)
+    {
+    } // end of method recordAnswer(int key, boolean correct)
+
+    /**
+     * Hands what this selector has learned about the player's answers to a fresh selector for
+     * a reloaded deck, moving each key to the key its concept has there. A selector that takes
+     * the answered keys this way decides itself when to pose them again. Selectors that only
+     * keep the order of the deck hand nothing over and return false, and the session then
+     * passes over the answered keys itself.
+     *
+     * @param newSelector a fresh selector for the reloaded deck
+     * @param newKeys gives the new key of an old one, or NO_MORE_QUESTIONS if its concept is gone
+     * @return true if newSelector now schedules the answered keys, else false
+     */
+    default boolean carryOver(QuestionSelector newSelector, IntUnaryOperator newKeys)
+    {
+        return false;
+    } // end of method carryOver(QuestionSelector newSelector, IntUnaryOperator newKeys)
+} // end of interface QuestionSelector
@@ -0,0 +1,155 @@
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+
+/**
+ * Keeps a copy of an image, or of one region of it such as a picture in an ImageAtlas
+ * sheet, scaled down to fit a component, in the screen's pixel format, so that repaints
+ * only copy a small image. The copy is rebuilt only when the component is resized or
+ * the source image or region changes.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class ScaledImageRenderer
+{
+    // instance fields
+    private WeakReference<BufferedImage> renderedSource;
+    private Rectangle renderedRegion;
+    private BufferedImage renderedImage;
+    private int renderedWidth;
+    private int renderedHeight;
+
+    /* constructors */
+    /**
+     * Constructs a renderer with nothing rendered yet.
+     */
+    public ScaledImageRenderer()
+    {
+        renderedSource = new WeakReference<BufferedImage>(null);
+        renderedRegion = null;
+        renderedImage = null;
+        renderedWidth = 0;
+        renderedHeight = 0;
+    } // end of constructor ScaledImageRenderer()
+
+    /* accessors */
+    /**
+     * Returns the image last rendered for the given area, if the area has not changed since.
+     *
+     * @param width the width of the area
+     * @param height the height of the area
+     * @return the rendered image, or null if there is none for this size
+     */
+    public BufferedImage getRendered(int width, int height)
+    {
+        if (width == renderedWidth && height == renderedHeight)
+        {
+            return renderedImage;
+        } // end of if (width == renderedWidth && height == renderedHeight)
+
+        return null;
+    } // end of method getRendered(int width, int height)
+
+    /* mutators */
+    /**
+     * Returns the source image scaled to fit the given area, keeping its proportions and
+     * never enlarging it. The result is cached until the size or the source changes.
+     *
+     * @param source the full-size image
+     * @param width the width of the area
+     * @param height the height of the area
+     * @param configuration the screen configuration to match, or null for a plain RGB image
+     * @return the scaled image, or null if the area is empty
+     */
+    public BufferedImage render(BufferedImage source, int width, int height, GraphicsConfiguration configuration)
+    {
+        return render(source, new Rectangle(0, 0, source.getWidth(), source.getHeight()), width, height,
+            configuration);
+    } // end of method render(BufferedImage source, int width, int height, GraphicsConfiguration configuration)
+
+    /**
+     * Returns one region of the source image scaled to fit the given area, keeping its
+     * proportions and never enlarging it. The result is cached until the size, the source or
+     * the region changes.
+     *
+     * @param source the full-size image, such as an atlas sheet
+     * @param region the part of the source to render
+     * @param width the width of the area
+     * @param height the height of the area
+     * @param configuration the screen configuration to match, or null for a plain RGB image
+     * @return the scaled region, or null if the area is empty
+     */
+    public BufferedImage render(BufferedImage source, Rectangle region, int width, int height,
+        GraphicsConfiguration configuration)
+    {
+        if (renderedImage != null && renderedSource.get() == source && region.equals(renderedRegion)
+            && width == renderedWidth && height == renderedHeight)
+        {
+            return renderedImage;
+        } // end of if (renderedImage != null && ...)
+
+        renderedSource = new WeakReference<BufferedImage>(source);
+        renderedRegion = new Rectangle(region);
+        renderedWidth = width;
+        renderedHeight = height;
+        renderedImage = null;
+
+        if (width <= 0 || height <= 0)
+        {
+            return null;
+        } // end of if (width <= 0 || height <= 0)
+
+        double scale = Math.min(1.0, Math.min((double) width / region.width,
+                    (double) height / region.height));
+        int scaledWidth = Math.max(1, (int) Math.round(region.width * scale));
+        int scaledHeight = Math.max(1, (int) Math.round(region.height * scale));
+
+        BufferedImage scaledImage;
+        if (configuration != null)
+        {
+            scaledImage = configuration.createCompatibleImage(scaledWidth, scaledHeight,
+                source.getColorModel().getTransparency());
+        }
+        else
+        {
+            int imageType = (source.getColorModel().getTransparency() == Transparency.OPAQUE)
+                ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+            scaledImage = new BufferedImage(scaledWidth, scaledHeight, imageType);
+        } // end of if (configuration != null)
+
+        Graphics2D graphicsContext = scaledImage.createGraphics();
+        try
+        {
+            graphicsContext.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphicsContext.setRenderingHint(RenderingHints.KEY_RENDERING,
+                RenderingHints.VALUE_RENDER_QUALITY);
+            graphicsContext.drawImage(source, 0, 0, scaledWidth, scaledHeight, region.x, region.y,
+                region.x + region.width, region.y + region.height, null);
+        }
+        finally
+        {
+            graphicsContext.dispose();
+        } // end of finally
+
+        renderedImage = scaledImage;
+        return renderedImage;
+    } // end of method render(BufferedImage source, Rectangle region, int width, int height, ...)
+
+    /**
+     * Drops the rendered copy so the next render starts over.
+     */
+    public void clear()
+    {
+        renderedSource = new WeakReference<BufferedImage>(null);
+        renderedRegion = null;
+        renderedImage = null;
+        renderedWidth = 0;
+        renderedHeight = 0;
+    } // end of method clear()
+} // end of class ScaledImageRenderer
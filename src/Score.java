@@ -0,0 +1,102 @@
+/**
+ * A snapshot of a player's score in one game session.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class Score
+{
+    // instance fields
+    private final int correctEnglishSentences;
+    private final int correctFrenchSentences;
+    private final int phrasesPosed;
+    private final int numberOfPhrases;
+
+    /* constructors */
+    /**
+     * Constructs a score with the given counts.
+     *
+     * @param correctEnglishSentences the number of correct French-English translations
+     * @param correctFrenchSentences the number of correct English-French translations
+     * @param phrasesPosed the number of phrases answered so far
+     * @param numberOfPhrases the number of phrases in a full game
+     */
+    public Score(int correctEnglishSentences, int correctFrenchSentences, int phrasesPosed, int numberOfPhrases)
+    {
+        this.correctEnglishSentences = correctEnglishSentences;
+        this.correctFrenchSentences = correctFrenchSentences;
+        this.phrasesPosed = phrasesPosed;
+        this.numberOfPhrases = numberOfPhrases;
+    } // end of constructor Score(int correctEnglishSentences, int correctFrenchSentences, ...)
+
+    /* accessors */
+    /**
+     * Returns the number of correct translations into English.
+     *
+     * @return the number of correct English answers
+     */
+    public int getCorrectEnglishSentences()
+    {
+        return correctEnglishSentences;
+    } // end of method getCorrectEnglishSentences()
+
+    /**
+     * Returns the number of correct translations into French.
+     *
+     * @return the number of correct French answers
+     */
+    public int getCorrectFrenchSentences()
+    {
+        return correctFrenchSentences;
+    } // end of method getCorrectFrenchSentences()
+
+    /**
+     * Returns the total number of correct translations.
+     *
+     * @return the number of correct answers
+     */
+    public int getCorrectSentences()
+    {
+        return correctEnglishSentences + correctFrenchSentences;
+    } // end of method getCorrectSentences()
+
+    /**
+     * Returns the number of phrases answered so far.
+     *
+     * @return the number of phrases posed
+     */
+    public int getPhrasesPosed()
+    {
+        return phrasesPosed;
+    } // end of method getPhrasesPosed()
+
+    /**
+     * Returns the number of phrases in a full game.
+     *
+     * @return the number of phrases
+     */
+    public int getNumberOfPhrases()
+    {
+        return numberOfPhrases;
+    } // end of method getNumberOfPhrases()
+
+    /**
+     * Returns the correct translations as a percentage of a full game.
+     *
+     * @return the score from 0 to 100
+     */
+    public int getPercentage()
+    {
+        return (numberOfPhrases == 0) ? 0 : (getCorrectSentences() * 100) / numberOfPhrases;
+    } // end of method getPercentage()
+
+    /**
+     * Returns the score as it is shown to the player, e.g. "7/10 - 70%".
+     *
+     * @return the score text
+     */
+    public String toString()
+    {
+        return getCorrectSentences() + "/" + numberOfPhrases + " - " + getPercentage() + "%";
+    } // end of method toString()
+} // end of class Score
@@ -0,0 +1,146 @@
+import java.util.BitSet;
+
+/**
+ * What a ProgressLog remembers about one player's unfinished session: the running score
+ * and which sentence pairs have been answered, with the fingerprint of the corpus whose
+ * keys they are.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class SessionProgress
+{
+    // instance fields
+    private final String sessionId;
+    private final BitSet askedKeys;
+    private int correctEnglishSentences;
+    private int correctFrenchSentences;
+    private int phrasesPosed;
+    private int corpusFingerprint;
+
+    /* constructors */
+    /**
+     * Constructs the progress of a session that has not answered anything yet.
+     *
+     * @param sessionId the session's identifier
+     */
+    public SessionProgress(String sessionId)
+    {
+        this.sessionId = sessionId;
+        askedKeys = new BitSet();
+        correctEnglishSentences = 0;
+        correctFrenchSentences = 0;
+        phrasesPosed = 0;
+        corpusFingerprint = ProgressLog.UNKNOWN_CORPUS;
+    } // end of constructor SessionProgress(String sessionId)
+
+    /*
+     * Constructs a progress with the given state, as read back from a snapshot.
+     */
+    SessionProgress(String sessionId, int correctEnglishSentences, int correctFrenchSentences, int phrasesPosed,
+        BitSet askedKeys, int corpusFingerprint)
+    {
+        this.sessionId = sessionId;
+        this.askedKeys = askedKeys;
+        this.correctEnglishSentences = correctEnglishSentences;
+        this.correctFrenchSentences = correctFrenchSentences;
+        this.phrasesPosed = phrasesPosed;
+        this.corpusFingerprint = corpusFingerprint;
+    } // end of constructor SessionProgress(String sessionId, int correctEnglishSentences, ...)
+
+    /* accessors */
+    /**
+     * Returns the identifier of the session.
+     *
+     * @return the session identifier
+     */
+    public String getSessionId()
+    {
+        return sessionId;
+    } // end of method getSessionId()
+
+    /**
+     * Returns the number of French phrases correctly translated into English.
+     *
+     * @return the number of correct English translations
+     */
+    public int getCorrectEnglishSentences()
+    {
+        return correctEnglishSentences;
+    } // end of method getCorrectEnglishSentences()
+
+    /**
+     * Returns the number of English phrases correctly translated into French.
+     *
+     * @return the number of correct French translations
+     */
+    public int getCorrectFrenchSentences()
+    {
+        return correctFrenchSentences;
+    } // end of method getCorrectFrenchSentences()
+
+    /**
+     * Returns the number of phrases answered.
+     *
+     * @return the number of phrases posed
+     */
+    public int getPhrasesPosed()
+    {
+        return phrasesPosed;
+    } // end of method getPhrasesPosed()
+
+    /**
+     * Returns the keys of the sentence pairs answered so far.
+     *
+     * @return a copy of the answered keys
+     */
+    public BitSet getAskedKeys()
+    {
+        return (BitSet) askedKeys.clone();
+    } // end of method getAskedKeys()
+
+    /**
+     * Returns the fingerprint of the corpus the answered keys belong to.
+     *
+     * @return the corpus fingerprint, or ProgressLog.UNKNOWN_CORPUS if it was not recorded
+     */
+    public int getCorpusFingerprint()
+    {
+        return corpusFingerprint;
+    } // end of method getCorpusFingerprint()
+
+    /*
+     * Returns an independent copy of this progress.
+     */
+    SessionProgress copy()
+    {
+        return new SessionProgress(sessionId, correctEnglishSentences, correctFrenchSentences, phrasesPosed,
+            getAskedKeys(), corpusFingerprint);
+    } // end of method copy()
+
+    /* mutators */
+    /*
+     * Counts one graded answer. An answer from another corpus forgets the keys answered
+     * before, which name other pairs there; the score carries on.
+     */
+    void recordAnswer(int corpusFingerprint, int key, boolean promptEnglishOrFrench, boolean correct)
+    {
+        if (corpusFingerprint != this.corpusFingerprint)
+        {
+            askedKeys.clear();
+            this.corpusFingerprint = corpusFingerprint;
+        } // end of if (corpusFingerprint != this.corpusFingerprint)
+
+        if (correct && promptEnglishOrFrench)
+        {
+            correctEnglishSentences++;
+        }
+        else if (correct)
+        {
+            correctFrenchSentences++;
+        } // end of if (correct && promptEnglishOrFrench)
+
+        askedKeys.set(key);
+        phrasesPosed++;
+    } // end of method recordAnswer(int key, boolean promptEnglishOrFrench, boolean correct)
+} // end of class SessionProgress
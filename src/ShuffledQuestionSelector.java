@@ -0,0 +1,153 @@
+import java.util.HashMap;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Draws sentence pair keys without replacement using an incremental Fisher-Yates
+ * shuffle, so every draw takes constant time no matter how much of the deck is used.
+ * Large decks only remember the positions that have been swapped, so a session that
+ * asks ten questions from a million pairs does not hold a million-entry array.
+ *
+ * A selector made for a corpus shuffles only the concepts the corpus can pose, so a
+ * concept missing its English or French translation is never drawn.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class ShuffledQuestionSelector implements QuestionSelector
+{
+    // class constants
+    private static final int LARGEST_DENSE_DECK = 1 << 16;
+
+    // instance fields
+    private final int deckSize;
+    private final int[] deck;
+    private final IntUnaryOperator keyAtPosition;
+    private final HashMap<Integer, Integer> swappedKeys;
+    private final Random randomizer;
+    private int drawn;
+
+    /* constructors */
+    /**
+     * Constructs a selector over the keys 0 to deckSize - 1 with a random order.
+     *
+     * @param deckSize the number of sentence pairs
+     */
+    public ShuffledQuestionSelector(int deckSize)
+    {
+        this(deckSize, null, new Random());
+    } // end of constructor ShuffledQuestionSelector(int deckSize)
+
+    /**
+     * Constructs a selector whose order is fixed by the given seed, for reproducible runs.
+     *
+     * @param deckSize the number of sentence pairs
+     * @param seed the seed for the shuffle
+     */
+    public ShuffledQuestionSelector(int deckSize, long seed)
+    {
+        this(deckSize, null, new Random(seed));
+    } // end of constructor ShuffledQuestionSelector(int deckSize, long seed)
+
+    /**
+     * Constructs a selector over the concepts the given corpus can pose, with a random order.
+     *
+     * @param corpus the corpus whose posable concepts are drawn
+     */
+    public ShuffledQuestionSelector(GameCorpus corpus)
+    {
+        this(corpus.getPosableCount(), corpus::getPosableKey, new Random());
+    } // end of constructor ShuffledQuestionSelector(GameCorpus corpus)
+
+    /**
+     * Constructs a selector over the concepts the given corpus can pose, whose order is fixed
+     * by the given seed.
+     *
+     * @param corpus the corpus whose posable concepts are drawn
+     * @param seed the seed for the shuffle
+     */
+    public ShuffledQuestionSelector(GameCorpus corpus, long seed)
+    {
+        this(corpus.getPosableCount(), corpus::getPosableKey, new Random(seed));
+    } // end of constructor ShuffledQuestionSelector(GameCorpus corpus, long seed)
+
+    /*
+     * Constructs a selector that shuffles the positions 0 to deckSize - 1 with the given
+     * randomizer and draws the key at each, or the position itself if keyAtPosition is null.
+     */
+    private ShuffledQuestionSelector(int deckSize, IntUnaryOperator keyAtPosition, Random randomizer)
+    {
+        if (deckSize < 0)
+        {
+            throw new IllegalArgumentException("deck size must not be negative: " + deckSize);
+        } // end of if (deckSize < 0)
+
+        this.randomizer = randomizer;
+        this.deckSize = deckSize;
+        drawn = 0;
+
+        if (deckSize <= LARGEST_DENSE_DECK)
+        {
+            // a small deck holds the keys themselves
+            deck = new int[deckSize];
+            swappedKeys = null;
+            this.keyAtPosition = null;
+            for (int position = 0; position < deckSize; position++)
+            {
+                deck[position] = (keyAtPosition == null) ? position : keyAtPosition.applyAsInt(position);
+            } // end of for (int position = 0; position < deckSize; position++)
+        }
+        else
+        {
+            // a position that was never swapped still holds its own position
+            deck = null;
+            swappedKeys = new HashMap<Integer, Integer>();
+            this.keyAtPosition = keyAtPosition;
+        } // end of if (deckSize <= LARGEST_DENSE_DECK)
+    } // end of constructor ShuffledQuestionSelector(int deckSize, IntUnaryOperator keyAtPosition, ...)
+
+    /* accessors */
+    /**
+     * Returns the number of questions that can still be drawn.
+     *
+     * @return the number of remaining questions
+     */
+    public int remaining()
+    {
+        return deckSize - drawn;
+    } // end of method remaining()
+
+    /* mutators */
+    /**
+     * Swaps a random undrawn key into the drawn prefix of the deck and returns it.
+     *
+     * @return the next key, or NO_MORE_QUESTIONS if the deck is used up
+     */
+    public int nextKey()
+    {
+        if (drawn == deckSize)
+        {
+            return NO_MORE_QUESTIONS;
+        } // end of if (drawn == deckSize)
+
+        int swapIndex = drawn + randomizer.nextInt(deckSize - drawn);
+        int key;
+        if (deck != null)
+        {
+            key = deck[swapIndex];
+            deck[swapIndex] = deck[drawn];
+            deck[drawn] = key;
+        }
+        else
+        {
+            // the drawn prefix is never read again, so only the swapped-out key needs remembering
+            int position = swappedKeys.getOrDefault(swapIndex, swapIndex);
+            swappedKeys.put(swapIndex, swappedKeys.getOrDefault(drawn, drawn));
+            swappedKeys.remove(drawn);
+            key = (keyAtPosition == null) ? position : keyAtPosition.applyAsInt(position);
+        } // end of if (deck != null)
+        drawn++;
+
+        return key;
+    } // end of method nextKey()
+} // end of class ShuffledQuestionSelector
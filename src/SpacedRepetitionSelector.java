@@ -0,0 +1,298 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Chooses questions the way a spaced-repetition flash card deck does, following the
+ * SM-2 algorithm. Every answered card is given an ease factor and an interval and is
+ * scheduled to come back once that many questions have been posed; a missed card comes
+ * back after only a couple of questions and gets harder to push away, a card answered
+ * correctly comes back later each time.
+ *
+ * Time is counted in questions posed. Scheduled cards wait in a heap ordered by when
+ * they are due, so each draw costs O(log n); cards that have never been posed are dealt
+ * from a ShuffledQuestionSelector and hold no state at all until they are answered, so
+ * a deck of a million cards is never scanned. When the deck is reloaded, the answered
+ * cards move to a selector for the new deck with their schedules, so none is lost or
+ * dealt again as new. A selector made for a corpus deals only the
+ * concepts the corpus can pose.
+ *
+ * @author Yara Radwan
+ * @version 2026-10-18
+ */
+public class SpacedRepetitionSelector implements QuestionSelector
+{
+    // class constants
+    private static final double INITIAL_EASE = 2.5;
+    private static final double MINIMUM_EASE = 1.3;
+    private static final int CORRECT_QUALITY = 4;
+    private static final int INCORRECT_QUALITY = 1;
+    private static final int PERFECT_QUALITY = 5;
+    private static final int FIRST_INTERVAL = 3;
+    private static final int SECOND_INTERVAL = 8;
+    private static final int RELEARNING_INTERVAL = 2;
+
+    // instance fields
+    private final ShuffledQuestionSelector newCards;
+    private final PriorityQueue<Card> scheduledCards;
+    private final HashMap<Integer, Card> postedCards;
+    private final BitSet carriedKeys;
+    private int carriedCount;
+    private long clock;
+    private long scheduledCount;
+
+    /* constructors */
+    /**
+     * Constructs a selector over the keys 0 to deckSize - 1 that deals new cards in a random order.
+     *
+     * @param deckSize the number of sentence pairs
+     */
+    public SpacedRepetitionSelector(int deckSize)
+    {
+        this(new ShuffledQuestionSelector(deckSize));
+    } // end of constructor SpacedRepetitionSelector(int deckSize)
+
+    /**
+     * Constructs a selector whose new cards are dealt in an order fixed by the given seed.
+     *
+     * @param deckSize the number of sentence pairs
+     * @param seed the seed for the order of new cards
+     */
+    public SpacedRepetitionSelector(int deckSize, long seed)
+    {
+        this(new ShuffledQuestionSelector(deckSize, seed));
+    } // end of constructor SpacedRepetitionSelector(int deckSize, long seed)
+
+    /**
+     * Constructs a selector over the concepts the given corpus can pose that deals new cards
+     * in a random order.
+     *
+     * @param corpus the corpus whose posable concepts are dealt
+     */
+    public SpacedRepetitionSelector(GameCorpus corpus)
+    {
+        this(new ShuffledQuestionSelector(corpus));
+    } // end of constructor SpacedRepetitionSelector(GameCorpus corpus)
+
+    /**
+     * Constructs a selector over the concepts the given corpus can pose whose new cards are
+     * dealt in an order fixed by the given seed.
+     *
+     * @param corpus the corpus whose posable concepts are dealt
+     * @param seed the seed for the order of new cards
+     */
+    public SpacedRepetitionSelector(GameCorpus corpus, long seed)
+    {
+        this(new ShuffledQuestionSelector(corpus, seed));
+    } // end of constructor SpacedRepetitionSelector(GameCorpus corpus, long seed)
+
+    /*
+     * Constructs a selector that deals new cards from the given selector.
+     */
+    private SpacedRepetitionSelector(ShuffledQuestionSelector newCards)
+    {
+        this.newCards = newCards;
+        scheduledCards = new PriorityQueue<Card>((first, second) -> (first.due != second.due)
+            ? Long.compare(first.due, second.due) : Long.compare(first.order, second.order));
+        postedCards = new HashMap<Integer, Card>();
+        carriedKeys = new BitSet();
+        carriedCount = 0;
+        clock = 0;
+        scheduledCount = 0;
+    } // end of constructor SpacedRepetitionSelector(ShuffledQuestionSelector newCards)
+
+    /* accessors */
+    /**
+     * Returns the number of cards that can still be drawn: those never posed and those scheduled to come back.
+     *
+     * @return the number of remaining questions
+     */
+    public int remaining()
+    {
+        return newCards.remaining() - carriedCount + scheduledCards.size();
+    } // end of method remaining()
+
+    /**
+     * Returns the number of questions drawn so far, which is the clock cards are scheduled by.
+     *
+     * @return the current time in questions
+     */
+    public long getClock()
+    {
+        return clock;
+    } // end of method getClock()
+
+    /* mutators */
+    /**
+     * Returns the card that is due soonest, or a new card if none is due yet. Once every card
+     * has been posed, the soonest scheduled card is posed even if it is early.
+     *
+     * @return the key of the next card, or NO_MORE_QUESTIONS if there are no cards left
+     */
+    public int nextKey()
+    {
+        Card card;
+        Card soonestCard = scheduledCards.peek();
+        int newKey = (soonestCard != null && soonestCard.due <= clock) ? NO_MORE_QUESTIONS : nextNewKey();
+
+        if (soonestCard != null && soonestCard.due <= clock)
+        {
+            card = scheduledCards.poll();
+        }
+        else if (newKey != NO_MORE_QUESTIONS)
+        {
+            card = new Card(newKey);
+        }
+        else if (soonestCard != null)
+        {
+            card = scheduledCards.poll();
+        }
+        else
+        {
+            return NO_MORE_QUESTIONS;
+        } // end of if (soonestCard != null && soonestCard.due <= clock)
+
+        clock++;
+        postedCards.put(card.key, card);
+        return card.key;
+    } // end of method nextKey()
+
+    /**
+     * Reschedules a card after the player answers it, following SM-2: a correct answer lengthens
+     * the card's interval by its ease factor, a wrong one sends it back to be relearned soon and
+     * lowers its ease.
+     *
+     * @param key a key returned by nextKey()
+     * @param correct true if the answer was accepted, else false
+     */
+    public void recordAnswer(int key, boolean correct)
+    {
+        Card card = postedCards.remove(key);
+        if (card == null)
+        {
+            return;
+        } // end of if (card == null)
+
+        int quality = correct ? CORRECT_QUALITY : INCORRECT_QUALITY;
+        int shortfall = PERFECT_QUALITY - quality;
+        card.ease = Math.max(MINIMUM_EASE, card.ease + 0.1 - shortfall * (0.08 + shortfall * 0.02));
+
+        if (!correct)
+        {
+            card.repetitions = 0;
+            card.interval = RELEARNING_INTERVAL;
+        }
+        else if (card.repetitions == 0)
+        {
+            card.repetitions = 1;
+            card.interval = FIRST_INTERVAL;
+        }
+        else if (card.repetitions == 1)
+        {
+            card.repetitions = 2;
+            card.interval = SECOND_INTERVAL;
+        }
+        else
+        {
+            card.repetitions++;
+            card.interval = (int) Math.min(Integer.MAX_VALUE, Math.round(card.interval * card.ease));
+        } // end of if (!correct)
+
+        card.due = clock + card.interval;
+        card.order = scheduledCount++;
+        scheduledCards.add(card);
+    } // end of method recordAnswer(int key, boolean correct)
+
+    /**
+     * Moves every card that has been answered to a fresh spaced-repetition selector for a
+     * reloaded deck, keeping its ease, interval and due time. A card drawn but not yet answered
+     * goes back on the schedule. Cards whose concept is gone are dropped, and the moved cards
+     * are not dealt again as new ones.
+     *
+     * @param newSelector a fresh selector for the reloaded deck
+     * @param newKeys gives the new key of an old one, or NO_MORE_QUESTIONS if its concept is gone
+     * @return true if newSelector is a spaced-repetition selector and took the cards, else false
+     */
+    public boolean carryOver(QuestionSelector newSelector, IntUnaryOperator newKeys)
+    {
+        if (!(newSelector instanceof SpacedRepetitionSelector))
+        {
+            return false;
+        } // end of if (!(newSelector instanceof SpacedRepetitionSelector))
+
+        SpacedRepetitionSelector target = (SpacedRepetitionSelector) newSelector;
+        target.clock = clock;
+        target.scheduledCount = scheduledCount;
+
+        ArrayList<Card> answeredCards = new ArrayList<Card>(scheduledCards);
+        answeredCards.addAll(postedCards.values());
+        for (Card card : answeredCards)
+        {
+            int newKey = newKeys.applyAsInt(card.key);
+
+            // a card with no interval was drawn for the first time and has no schedule to keep
+            if (card.interval > 0 && newKey != NO_MORE_QUESTIONS && !target.carriedKeys.get(newKey))
+            {
+                Card movedCard = new Card(newKey);
+                movedCard.ease = card.ease;
+                movedCard.interval = card.interval;
+                movedCard.repetitions = card.repetitions;
+                movedCard.due = card.due;
+                movedCard.order = card.order;
+                target.scheduledCards.add(movedCard);
+                target.carriedKeys.set(newKey);
+                target.carriedCount++;
+            } // end of if (card.interval > 0 && ...)
+        } // end of for (Card card : answeredCards)
+
+        return true;
+    } // end of method carryOver(QuestionSelector newSelector, IntUnaryOperator newKeys)
+
+    /* private methods */
+    /*
+     * Deals the next card never posed, passing over those carried over from before a reload.
+     */
+    private int nextNewKey()
+    {
+        int key = newCards.nextKey();
+        while (key != NO_MORE_QUESTIONS && carriedKeys.get(key))
+        {
+            carriedKeys.clear(key);
+            carriedCount--;
+            key = newCards.nextKey();
+        } // end of while (key != NO_MORE_QUESTIONS && carriedKeys.get(key))
+
+        return key;
+    } // end of method nextNewKey()
+
+    /* private classes */
+    /*
+     * The learning state of one card that has been posed at least once.
+     */
+    private static class Card
+    {
+        // instance fields
+        private final int key;
+        private double ease;
+        private int interval;
+        private int repetitions;
+        private long due;
+        private long order;
+
+        /* constructors */
+        /*
+         * Constructs the state of a card that has never been answered.
+         */
+        private Card(int key)
+        {
+            this.key = key;
+            ease = INITIAL_EASE;
+            interval = 0;
+            repetitions = 0;
+            due = 0;
+            order = 0;
+        } // end of constructor Card(int key)
+    } // end of class Card
+} // end of class SpacedRepetitionSelector
@@ -4,26 +4,40 @@ import java.awt.event.ActionEvent;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Component;
+import java.awt.EventQueue;
 import java.awt.image.BufferedImage;
 import java.awt.Graphics;
+import java.awt.GridLayout;
+import java.awt.Image;
+import java.awt.Rectangle;
 import java.io.IOException;
 import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileNotFoundException;
-import javax.imageio.ImageIO;
+import java.io.InputStreamReader;
 import javax.swing.JFrame;
+import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JPanel;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
-import java.util.ArrayList;
-import java.util.HashMap; 
+import javax.swing.JTextField;
+import javax.swing.SwingConstants;
+import java.util.List;
 import java.util.Random;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * A French/English translation game with GUI components!
+ * A French/English translation game with GUI components! The game itself is played by a
+ * GameSession; this class only shows its prompts and results.
+ *
+ * The game is driven by events. Everything that can block, such as reading files,
+ * saving progress or decoding images, runs on background threads, and the session is
+ * only ever touched by the game worker thread. The event dispatch thread only updates
+ * the GUI, so the answer field stays responsive however slow the disk is.
  * 
  * @author Yara Radwan
  * @version 2017-06-06
@@ -33,8 +47,13 @@ public class TranslationGame
     // class constants
     private static final BufferedReader console = new BufferedReader(new InputStreamReader(System.in));
     private static final String ERROR_IMAGE_UNAVAILABLE = "Error! Unable to display image.";
-    private static final String SENTINEL_EXIT_VALUE = "EXIT";
     private static final int NUMBER_OF_PHRASES = 10;
+    private static final AnswerNormalizer ANSWER_NORMALIZER = AnswerNormalizer.ACCENT_INSENSITIVE;
+    private static final int TYPO_TOLERANCE = 1;
+    private static final String REVIEW_OPTION = "review";
+    private static final String CHOICES_OPTION = "choices";
+    private static final String PICTURES_OPTION = "pictures";
+    private static final int DISTRACTOR_COUNT = 3;
 
     private static final int BUTTON_WIDTH = 80;
     private static final int BUTTON_HEIGHT = 20;
@@ -48,24 +67,30 @@ public class TranslationGame
     private static final int TEXT_FIELD_HEIGHT = 40;
     private static final int TEXT_FIELD_WIDTH = 550;
 
+    private static final int CHOICE_PICTURE_SIZE = 150;
+
     // files
     private static final String ENGLISH_SENTENCES = "./englishSentences.txt";
     private static final String FRENCH_SENTENCES = "./frenchSentences.txt";
-
-    // instance fields
-    private ArrayList<String> englishSentences;
-    private ArrayList<String> frenchSentences;
-    private boolean promptEnglishOrFrench;
+    private static final String DECK_FILE = "./sentences.tsv";
+    private static final String CORPUS_FILE = "./sentences.corpus";
+    private static final String IMAGE_DIRECTORY = "TGame Images";
+    private static final String IMAGE_ATLAS = "./images.atlas";
+    private static final String PROGRESS_DIRECTORY = "./progress";
+    private static final String LEADERBOARD_FILE = "./leaderboard.txt";
 
     // player data
-    private HashMap<Integer, SentencePair> gamePhrases;
-    private int integerKey;
-    private Random randomizer;
-    private String playerInput;
-    private int correctEnglishSentences;
-    private int correctFrenchSentences;
-    private int correctSentences;
-    private int phrasesPosed;
+    private volatile GameCorpus corpus;
+    private GameSession session;
+    private HotReloader hotReloader;
+    private ProgressLog progressLog;
+    private Leaderboard leaderboard;
+    private String playerName;
+    private Long seed;
+    private boolean spacedRepetition;
+    private AnswerMode answerMode;
+    private GameState state;
+    private ExecutorService gameWorker;
 
     // GUI instance fields
     private JFrame frame;   
@@ -85,39 +110,94 @@ public class TranslationGame
     private JLabel totalScoreLabel;
     private JLabel questionsAskedLabel;
 
-    private ImageComponent[] image;
+    private JPanel answerPanel;
+    private JLabel promptLabel;
+    private JLabel feedbackLabel;
+    private JTextField answerField;
+    private JButton submitButton;
+    private JPanel choicePanel;
+    private JButton[] choiceButtons;
+    private Prompt shownPrompt;
+
+    private ImageComponent imageView;
+    private ImageCache imageCache;
+    private volatile ImageAtlas imageAtlas;
+    private AtomicBoolean imageAtlasStale;
 
     // GUI class constants
-    private static final String[] IMAGE_SOURCE = {"TGAME Images/apple.jpeg", "TGAME Images/avocado.jpg", 
-            "TGAME Images/banana.jpeg", "TGAME Images/cherry.png",  
-            "TGAME Images/mango.png", "TGAME Images/orange.jpg", "TGAME Images/pear.jpg",
-            "TGAME Images/pineapple.jpg","TGAME Images/plum.jpg",  "TGAME Images/strawberry.jpg"};
+    private static final String DEFAULT_IMAGE = "apple";
+    private static final String IMAGE_LANGUAGE = "en";
 
     private static final String TITLE = "E-F Translation Game: FRUIT EDITION";
+    private static final long IMAGE_CACHE_BYTES = 64L * 1024 * 1024;
 
     /* constructors */
     /**
      * Constructs a game with default characteristics.
      */
     public TranslationGame()
+    {
+        this(null, false);
+    } // end of constructor TranslationGame()
+
+    /**
+     * Constructs a game whose questions are drawn in an order fixed by the given seed.
+     * 
+     * @param seed the seed for question selection, or null for a random order
+     */
+    public TranslationGame(Long seed)
+    {
+        this(seed, false);
+    } // end of constructor TranslationGame(Long seed)
+
+    /**
+     * Constructs a game that either poses each phrase once or, in spaced-repetition mode,
+     * brings back missed phrases sooner than the ones the player knows. Must be called on
+     * the event dispatch thread.
+     * 
+     * @param seed the seed for question selection, or null for a random order
+     * @param spacedRepetition true to review phrases by spaced repetition, else false
+     */
+    public TranslationGame(Long seed, boolean spacedRepetition)
+    {
+        this(seed, spacedRepetition, AnswerMode.TYPED);
+    } // end of constructor TranslationGame(Long seed, boolean spacedRepetition)
+
+    /**
+     * Constructs a game whose answers are typed or picked from a few choices. Must be called on
+     * the event dispatch thread.
+     * 
+     * @param seed the seed for question selection, or null for a random order
+     * @param spacedRepetition true to review phrases by spaced repetition, else false
+     * @param answerMode how the player gives answers
+     */
+    public TranslationGame(Long seed, boolean spacedRepetition, AnswerMode answerMode)
     {
         // initialize GUI
+        this.answerMode = answerMode;
+        shownPrompt = null;
+        imageCache = new ImageCache(IMAGE_CACHE_BYTES);
+        imageAtlas = null;
+        imageAtlasStale = new AtomicBoolean(false);
+        playerName = System.getProperty("user.name");
         makeFrame();
 
         // initialize instance fields
-        englishSentences = new ArrayList<String>();
-        frenchSentences = new ArrayList<String>();
-
-        // initialize GUI instance fields
-        gamePhrases = new HashMap<Integer, SentencePair>();
-        integerKey = 0;
-        randomizer = new Random();
-        playerInput = null;
-        correctEnglishSentences = 0;
-        correctFrenchSentences = 0;
-        correctSentences = 0;
-        phrasesPosed = 0;   
-    } // end of constructor TranslationGame()
+        corpus = null;
+        session = null;
+        hotReloader = null;
+        progressLog = null;
+        leaderboard = null;
+        this.seed = seed;
+        this.spacedRepetition = spacedRepetition;
+        state = GameState.LOADING;
+        gameWorker = Executors.newSingleThreadExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "game-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    } // end of constructor TranslationGame(Long seed, boolean spacedRepetition, AnswerMode answerMode)
 
     /* mutators */
     /**
@@ -170,6 +250,16 @@ public class TranslationGame
         this.totalScoreLabel.setText("Total Score: "+ newLabel);
     } // end of method setTotalLabel(int newLabel)
 
+    /**
+     * Sets the label used to display the best score on the leaderboard.
+     * 
+     * @param newLabel the best entry, or null if nobody has finished a game yet
+     */
+    public void setPlayerHighscoreLabel(Leaderboard.Entry newLabel)
+    {
+        this.playerHighscoreLabel.setText("High Score: " + ((newLabel == null) ? "-" : newLabel.toString()));
+    } // end of method setPlayerHighscoreLabel(Leaderboard.Entry newLabel)
+
     /* private methods */
     /*
      * Creates the panel used to display all information(instructions, scores) to user.
@@ -182,10 +272,12 @@ public class TranslationGame
         instructionsLabel3 = new JLabel("Pictures for each will be provided as extra help.");
         instructionsLabel4 = new JLabel("Enter 'EXIT' at anytime to exit game.");
         scoreboardLabel = new JLabel("------------SCOREBOARD-------------");
-        englishCorrectLabel = new JLabel("Successful English-French Translations: " + correctEnglishSentences);
-        frenchCorrectLabel = new JLabel("Successful French-English Translations: " + correctFrenchSentences);
-        questionsAskedLabel = new JLabel("Phrases Posed: " + phrasesPosed);
-        totalScoreLabel = new JLabel("Total Score: " + correctSentences);
+        englishCorrectLabel = new JLabel("Successful English-French Translations: " + 0);
+        frenchCorrectLabel = new JLabel("Successful French-English Translations: " + 0);
+        questionsAskedLabel = new JLabel("Phrases Posed: " + 0);
+        totalScoreLabel = new JLabel("Total Score: " + 0);
+        playerHighscoreLabel = new JLabel();
+        setPlayerHighscoreLabel(null);
 
         // set the color font of the labels
         instructionsLabel1.setForeground(Color.MAGENTA);
@@ -197,6 +289,7 @@ public class TranslationGame
         englishCorrectLabel.setForeground(Color.BLUE);
         totalScoreLabel.setForeground(Color.BLUE);
         questionsAskedLabel.setForeground(Color.BLUE);
+        playerHighscoreLabel.setForeground(Color.BLUE);
 
         playerPanel = new JPanel();
         playerPanel.setBackground(Color.WHITE);
@@ -212,6 +305,7 @@ public class TranslationGame
         playerPanel.add(englishCorrectLabel, BorderLayout.LINE_END);
         playerPanel.add(totalScoreLabel, BorderLayout.LINE_END);
         playerPanel.add(questionsAskedLabel, BorderLayout.LINE_END);
+        playerPanel.add(playerHighscoreLabel, BorderLayout.LINE_END);
     } // end of method makeScorePanel()
 
     /*
@@ -229,6 +323,75 @@ public class TranslationGame
         introPanel.add(welcomeLabel);
     } // end of method makeCommunicationPanel()
 
+    /*
+     * Creates the panel where the phrase to translate is shown and the player types the answer.
+     * Pressing Enter in the field does the same as the button.
+     */
+    private void makeAnswerPanel()
+    {
+        promptLabel = new JLabel(" ", SwingConstants.CENTER);
+        feedbackLabel = new JLabel(" ", SwingConstants.CENTER);
+        promptLabel.setForeground(Color.BLACK);
+
+        answerField = new JTextField();
+        answerField.setPreferredSize(new Dimension(TEXT_FIELD_WIDTH, TEXT_FIELD_HEIGHT));
+        submitButton = new JButton("Submit");
+        submitButton.setPreferredSize(new Dimension(BUTTON_WIDTH, BUTTON_HEIGHT));
+
+        ActionListener answerListener = new ActionListener()
+        {
+            public void actionPerformed(ActionEvent event)
+            {
+                submitAnswer();
+            } // end of method actionPerformed(ActionEvent event)
+        };
+        answerField.addActionListener(answerListener);
+        submitButton.addActionListener(answerListener);
+
+        JPanel inputPanel = new JPanel();
+        inputPanel.setBackground(Color.WHITE);
+        inputPanel.add(answerField);
+        inputPanel.add(submitButton);
+
+        makeChoicePanel();
+
+        answerPanel = new JPanel(new BorderLayout());
+        answerPanel.setBackground(Color.WHITE);
+        answerPanel.add(promptLabel, BorderLayout.PAGE_START);
+        answerPanel.add(feedbackLabel, BorderLayout.PAGE_END);
+
+        // written choices sit above the answer field, which still takes typed answers and EXIT
+        if (answerMode == AnswerMode.CHOICES)
+        {
+            JPanel choiceAndInputPanel = new JPanel(new GridLayout(2, 1));
+            choiceAndInputPanel.add(choicePanel);
+            choiceAndInputPanel.add(inputPanel);
+            answerPanel.add(choiceAndInputPanel, BorderLayout.CENTER);
+        }
+        else
+        {
+            answerPanel.add(inputPanel, BorderLayout.CENTER);
+        } // end of if (answerMode == AnswerMode.CHOICES)
+    } // end of method makeAnswerPanel()
+
+    /*
+     * Creates the row of buttons for a multiple-choice answer: one for the translation and one
+     * for each distractor.
+     */
+    private void makeChoicePanel()
+    {
+        choicePanel = new JPanel(new GridLayout(1, DISTRACTOR_COUNT + 1));
+        choicePanel.setBackground(Color.WHITE);
+        choiceButtons = new JButton[DISTRACTOR_COUNT + 1];
+        for (int choice = 0; choice < choiceButtons.length; choice++)
+        {
+            final int chosen = choice;
+            choiceButtons[choice] = new JButton();
+            choiceButtons[choice].addActionListener(event -> submitChoice(chosen));
+            choicePanel.add(choiceButtons[choice]);
+        } // end of for (int choice = 0; choice < choiceButtons.length; choice++)
+    } // end of method makeChoicePanel()
+
     /*
      * Creates the application frame and its content.
      */
@@ -240,274 +403,747 @@ public class TranslationGame
 
         makeIntroPanel();
         makePlayerPanel();
+        makeAnswerPanel();
 
-        // display a default image for the frame
+        // display a default image for the frame, unless the pictures are the choices
         loadImageData();
-        if (image[0] != null)
-        {
-            frame.add(image[0], BorderLayout.CENTER);
-        } // end of if (image[0] != null)
+        frame.add((answerMode == AnswerMode.PICTURES) ? choicePanel : imageView, BorderLayout.CENTER);
 
         // add panels to the frame
         frame.add(introPanel, BorderLayout.PAGE_START);
         frame.add(playerPanel, BorderLayout.LINE_END);
+        frame.add(answerPanel, BorderLayout.PAGE_END);
 
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.pack();
         frame.setVisible(true);
     } // end of method makeFrame()
 
     /*
-     * Loads the English and French phrases from their files and assigns them to the HashMap. 
+     * Loads the English and French phrases, from the deck if there is one or else from their
+     * own files, and starts a session over them. Runs on the game worker.
      */
     private void loadSentences() throws IOException
     {
-        // establish a connection to the text file(for English and French phrases).
-        BufferedReader englishFile = new BufferedReader(new FileReader(ENGLISH_SENTENCES));
-        BufferedReader frenchFile = new BufferedReader(new FileReader(FRENCH_SENTENCES));
+        if (new File(DECK_FILE).isFile())
+        {
+            corpus = GameCorpus.loadDeck(DECK_FILE, CORPUS_FILE, ANSWER_NORMALIZER, TYPO_TOLERANCE);
+        }
+        else
+        {
+            corpus = GameCorpus.load(ENGLISH_SENTENCES, FRENCH_SENTENCES, CORPUS_FILE, ANSWER_NORMALIZER,
+                TYPO_TOLERANCE);
+        } // end of if (new File(DECK_FILE).isFile())
+        loadImageAtlas();
+
+        Random randomizer = (seed == null) ? new Random() : new Random(seed);
+        openProgressLog();
+        session = new GameSession(corpus, makeQuestionSelector(corpus), randomizer, NUMBER_OF_PHRASES,
+                progressLog, playerName);
+
+        // picture choices can only offer phrases that have a picture
+        if (answerMode != AnswerMode.TYPED)
+        {
+            session.setMultipleChoice(new DistractorIndex(corpus), DISTRACTOR_COUNT,
+                (answerMode == AnswerMode.PICTURES) ? this::hasImage : null);
+        } // end of if (answerMode != AnswerMode.TYPED)
 
-        // read the first English phrase
-        String lineOfText = englishFile.readLine();
+        loadLeaderboard();
+        watchForChanges();
+    } // end of method loadSentences() throws IOException
 
-        // read the next sentence(s) until all of them are read
-        while (lineOfText != null)
+    /*
+     * Makes the question selector for the posable phrases of a corpus: a shuffled deck so no
+     * pair is posed twice, unless reviewing.
+     */
+    private QuestionSelector makeQuestionSelector(GameCorpus deckCorpus)
+    {
+        if (spacedRepetition)
         {
-            englishSentences.add(lineOfText);
-            lineOfText = englishFile.readLine();
-        } // end of while (lineOfText != null)
+            return (seed == null) ? new SpacedRepetitionSelector(deckCorpus)
+                : new SpacedRepetitionSelector(deckCorpus, seed);
+        } // end of if (spacedRepetition)
 
-        // read the first French phrase
-        lineOfText = frenchFile.readLine();
+        return (seed == null) ? new ShuffledQuestionSelector(deckCorpus)
+            : new ShuffledQuestionSelector(deckCorpus, seed);
+    } // end of method makeQuestionSelector(GameCorpus deckCorpus)
 
-        // read the next sentence(s) until all of them are read
-        while (lineOfText != null)
-        {
-            frenchSentences.add(lineOfText);
-            lineOfText = frenchFile.readLine();
-        } // end of while (lineOfText != null)
+    /*
+     * Makes a reloaded corpus ready for the session: its question selector, its distractor index
+     * and its lookup of phrases by sentence. Runs on the reloader's thread, so the game worker,
+     * and with it the player's input, never waits for a reload.
+     */
+    private CorpusReplacement prepareCorpus(GameCorpus newCorpus)
+    {
+        return new CorpusReplacement(newCorpus, makeQuestionSelector(newCorpus),
+            (answerMode == AnswerMode.TYPED) ? null : new DistractorIndex(newCorpus));
+    } // end of method prepareCorpus(GameCorpus newCorpus)
 
-        // finish reading all phrases from the file
-        englishFile.close();
-        frenchFile.close(); 
+    /*
+     * Moves the game to a corpus reloaded after the sentence files changed. The phrase on show is
+     * still graded against the old corpus; the next one comes from the new corpus. Runs on the
+     * game worker, which owns the session.
+     */
+    private void replaceCorpus(CorpusReplacement replacement)
+    {
+        corpus = replacement.getCorpus();
+        session.replaceCorpus(replacement);
+    } // end of method replaceCorpus(CorpusReplacement replacement)
 
-        // store each SentencePair value to the HashMap with its correspondent key
-        for (int integerKey = 0; integerKey < englishSentences.size(); integerKey++)
+    /*
+     * Reads the high scores of earlier games.
+     */
+    private void loadLeaderboard()
+    {
+        try
         {
-            gamePhrases.put(integerKey, new SentencePair(englishSentences.get(integerKey), 
-                    frenchSentences.get(integerKey)));
-        } // end of for (int integerKey = 0; integerKey < englishSentences.size(); integerKey++)
-    } // end of method loadSentences() throws IOException
+            leaderboard = Leaderboard.load(LEADERBOARD_FILE);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Starting a new leaderboard: " + exception.getMessage());
+            leaderboard = new Leaderboard();
+        } // end of catch (IOException exception)
+    } // end of method loadLeaderboard()
 
-    /**
-     * Generates a valid integer key.
+    /*
+     * Posts the finished game's score to the leaderboard and saves it. Runs on the game worker.
      */
-    public int generateValidIntegerKey() 
+    private void postHighscore(Score score)
     {
-        boolean validKey = false;
+        leaderboard.post(playerName, score);
+        try
+        {
+            leaderboard.save(LEADERBOARD_FILE);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Could not save the leaderboard: " + exception.getMessage());
+        } // end of catch (IOException exception)
+    } // end of method postHighscore(Score score)
+
+    /*
+     * Opens the log that keeps the player's progress across runs, so that a game left with
+     * EXIT carries on where it stopped the next time.
+     */
+    private void openProgressLog()
+    {
+        try
+        {
+            progressLog = new ProgressLog(PROGRESS_DIRECTORY);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Progress will not be saved: " + exception.getMessage());
+        } // end of catch (IOException exception)
+    } // end of method openProgressLog()
 
-        // ensures that if sentence pair of corresponding integer key has already been prompted to the user, it will not be used again throughout the game
-        do
+    /*
+     * Reloads the sentences and images in the background whenever their files change. The
+     * session in progress keeps the sentences it started with.
+     */
+    private void watchForChanges()
+    {
+        try
         {
-            integerKey = randomizer.nextInt(gamePhrases.size());
-            validKey = !gamePhrases.get(integerKey).getIsCorrectlyTranslated();
+            hotReloader = new File(DECK_FILE).isFile()
+                ? new HotReloader(corpus, DECK_FILE, CORPUS_FILE, IMAGE_DIRECTORY)
+                : new HotReloader(corpus, ENGLISH_SENTENCES, FRENCH_SENTENCES, CORPUS_FILE, IMAGE_DIRECTORY);
         }
-        while (!validKey);
+        catch (IOException exception)
+        {
+            System.err.println("Sentence and image changes will need a restart: " + exception.getMessage());
+            return;
+        } // end of catch (IOException exception)
 
-        return integerKey;
-    } // end of method generateValidIntegerKey() 
+        hotReloader.addCorpusListener(newCorpus ->
+        {
+            CorpusReplacement replacement = prepareCorpus(newCorpus);
+            gameWorker.execute(() -> replaceCorpus(replacement));
+        });
+        hotReloader.addImageListener(changedFileName ->
+        {
+            // a burst of changed pictures is packed again only once
+            if (!imageAtlasStale.getAndSet(true))
+            {
+                gameWorker.execute(this::reloadImageAtlas);
+            } // end of if (!imageAtlasStale.getAndSet(true))
+        });
+        hotReloader.start();
+    } // end of method watchForChanges()
 
     /*
-     * Loads image data for later use.
+     * Creates the image view that shows every picture in turn, starting with the default image.
      */
     private void loadImageData()
     {
-        image = new ImageComponent[IMAGE_SOURCE.length];
+        imageView = new ImageComponent(DEFAULT_IMAGE);
+    } // end of method loadImageData()
 
-        for (int imageNumber = 0; imageNumber < IMAGE_SOURCE.length; imageNumber++)
+    /*
+     * Opens the atlas of pictures, packing it first if the picture folder has changed, and starts
+     * decoding its sheets in the background: one decode per sheet rather than one per picture.
+     * Runs on the game worker.
+     */
+    private void loadImageAtlas()
+    {
+        try
         {
-            image[imageNumber] = new ImageComponent(IMAGE_SOURCE[imageNumber]);
-        } // end of for (int imageNumber = 0; imageNumber < NUMBER_OF_IMAGES; imageNumber++)
-    } // end of method loadImageData()
+            imageAtlas = ImageAtlas.open(IMAGE_DIRECTORY, IMAGE_ATLAS);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Pictures will not be shown: " + exception.getMessage());
+            return;
+        } // end of catch (IOException exception)
+
+        for (String sheetFileName : imageAtlas.getSheetFileNames())
+        {
+            imageCache.request(sheetFileName);
+        } // end of for (String sheetFileName : imageAtlas.getSheetFileNames())
+        imageView.repaint();
+    } // end of method loadImageAtlas()
 
     /*
-     * Removes the current image and replaces it with one that corresponds with the given phrase(in English/French). 
+     * Packs the atlas again after pictures changed on disk and shows the new one. The sheets keep
+     * their file names, so their decoded copies are dropped. Runs on the game worker.
      */
-    private void replaceImage(int newImage)
+    private void reloadImageAtlas()
     {
-        BorderLayout layout = (BorderLayout)(frame.getContentPane()).getLayout();
-        Component component = layout.getLayoutComponent(BorderLayout.CENTER);
+        imageAtlasStale.set(false);
+        ImageAtlas oldAtlas = imageAtlas;
+        try
+        {
+            imageAtlas = ImageAtlas.pack(IMAGE_DIRECTORY, IMAGE_ATLAS);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Could not pack the changed pictures: " + exception.getMessage());
+            return;
+        } // end of catch (IOException exception)
 
-        // removes default image currently displayed    
-        frame.setVisible(false);
-        frame.remove(component);
+        if (oldAtlas != null)
+        {
+            for (String sheetFileName : oldAtlas.getSheetFileNames())
+            {
+                imageCache.invalidate(sheetFileName);
+            } // end of for (String sheetFileName : oldAtlas.getSheetFileNames())
+        } // end of if (oldAtlas != null)
+        for (String sheetFileName : imageAtlas.getSheetFileNames())
+        {
+            imageCache.request(sheetFileName);
+        } // end of for (String sheetFileName : imageAtlas.getSheetFileNames())
+        imageView.reloadImage();
+    } // end of method reloadImageAtlas()
 
-        //redraw the frame after adding the image
-        frame.add(image[newImage], BorderLayout.CENTER);
-        frame.setVisible(true);
-    } // end of method replaceImage(int newImage)
+    /*
+     * Returns the name of the picture for the given phrase, made from its English text. Reads
+     * the session's corpus, so only the game worker may call it.
+     */
+    private String imageName(int key)
+    {
+        GameCorpus sessionCorpus = session.getCorpus();
+        String text = sessionCorpus.getText(key, Math.max(0, sessionCorpus.indexOfLanguage(IMAGE_LANGUAGE)));
+        return (text == null) ? null : ImageAtlas.nameOf(text);
+    } // end of method imageName(int key)
 
-    /**
-     * Indicates whether a French or English sentence should be displayed.
-     * 
-     * @return true if French, else English
+    /*
+     * Indicates whether the given phrase has a picture in the atlas. Only the game worker may
+     * call it.
      */
-    private boolean englishOrFrench()
+    private boolean hasImage(int key)
     {
-        int randomizedKey = randomizer.nextInt(2);
-        return (randomizedKey == 0);
-    } // end of method englishOrFrench()
+        ImageAtlas atlas = imageAtlas;
+        return atlas != null && atlas.getRegion(imageName(key)) != null;
+    } // end of method hasImage(int key)
 
     /*
-     * Prompts the sentences to be translated and exits after ten sentences have been prompted.
+     * Names the pictures a prompt and the phrase after it will need, on the game worker, so the
+     * event dispatch thread never reads the session's corpus.
      */
-    private void promptSentences() throws IOException
-    { 
-        do
+    private PromptPictures namePictures(Prompt prompt, int upcomingKey)
+    {
+        if (prompt == null)
         {
-            promptEnglishOrFrench = englishOrFrench();
+            return null;
+        } // end of if (prompt == null)
 
-            generateValidIntegerKey();
+        int[] choiceKeys = prompt.getChoiceKeys();
+        String[] choiceImageNames = new String[choiceKeys.length];
+        for (int choice = 0; choice < choiceKeys.length; choice++)
+        {
+            choiceImageNames[choice] = imageName(choiceKeys[choice]);
+        } // end of for (int choice = 0; choice < choiceKeys.length; choice++)
 
-            // display corresponding image with its integer key after default image
-            replaceImage(integerKey);
+        return new PromptPictures(imageName(prompt.getKey()), (upcomingKey < 0) ? null : imageName(upcomingKey),
+            choiceImageNames);
+    } // end of method namePictures(Prompt prompt, int upcomingKey)
+
+    /*
+     * Starts decoding the sheet holding the named picture, in case it has been evicted, so it
+     * is ready when its question comes up.
+     */
+    private void prefetchImage(String imageName)
+    {
+        ImageAtlas atlas = imageAtlas;
+        ImageAtlas.Region region = (atlas == null || imageName == null) ? null : atlas.getRegion(imageName);
+        if (region != null)
+        {
+            imageCache.request(region.getSheetFileName());
+        } // end of if (region != null)
+    } // end of method prefetchImage(String imageName)
 
-            // prompt phrases from the HashMap  
-            String englishSentence = gamePhrases.get(integerKey).getEnglish();
-            String frenchSentence = gamePhrases.get(integerKey).getFrench();
+    /*
+     * Cancels the background decode of any sheet that has not started yet, since no more
+     * pictures will be shown.
+     */
+    private void cancelImagePrefetch()
+    {
+        ImageAtlas atlas = imageAtlas;
+        if (atlas != null)
+        {
+            for (String sheetFileName : atlas.getSheetFileNames())
+            {
+                imageCache.cancel(sheetFileName);
+            } // end of for (String sheetFileName : atlas.getSheetFileNames())
+        } // end of if (atlas != null)
+    } // end of method cancelImagePrefetch()
 
-            if (promptEnglishOrFrench)
-            {   
-                // display a French phrase to be translated into English
-                playerInput = JOptionPane.showInputDialog(null, frenchSentence, "INPUT", JOptionPane.QUESTION_MESSAGE);
-                checkTranslation(promptEnglishOrFrench, integerKey);
+    /*
+     * Replaces the current image with the named picture.
+     */
+    private void replaceImage(String newImageName)
+    {
+        // only the image view repaints; the frame keeps its layout and stays on screen
+        long start = GameMetrics.start();
+        imageView.setImageName(newImageName);
+        GameMetrics.IMAGE_SWAP.stop(start);
+    } // end of method replaceImage(String newImageName)
+
+    /*
+     * Shows the score on the scoreboard.
+     */
+    private void showScore(Score score)
+    {
+        setEnglishCorrectLabel(score.getCorrectEnglishSentences());
+        setFrenchCorrectLabel(score.getCorrectFrenchSentences());
+        setTotalScoreLabel(score.getCorrectSentences());
+        setQuestionsAskedLabel(score.getPhrasesPosed());
+    } // end of method showScore(Score score)
+
+    /*
+     * Enables or disables the answer field and its button together.
+     */
+    private void setAnswerEnabled(boolean enabled)
+    {
+        answerField.setEnabled(enabled);
+        submitButton.setEnabled(enabled);
+        for (JButton choiceButton : choiceButtons)
+        {
+            choiceButton.setEnabled(enabled);
+        } // end of for (JButton choiceButton : choiceButtons)
+    } // end of method setAnswerEnabled(boolean enabled)
+
+    /*
+     * Shows the choices a multiple-choice prompt offers, as pictures if every choice has one and
+     * the game is played with pictures, else as words. Unused buttons are hidden.
+     */
+    private void showChoices(Prompt prompt, String[] choiceImageNames)
+    {
+        shownPrompt = prompt;
+        List<String> choices = prompt.getChoices();
+
+        // the atlas is read once, so every picture comes from the same one
+        ImageAtlas atlas = imageAtlas;
+        ImageAtlas.Region[] regions = new ImageAtlas.Region[choiceImageNames.length];
+        boolean pictures = (answerMode == AnswerMode.PICTURES) && atlas != null;
+        for (int choice = 0; choice < choiceImageNames.length && pictures; choice++)
+        {
+            regions[choice] = (choiceImageNames[choice] == null) ? null : atlas.getRegion(choiceImageNames[choice]);
+            pictures = (regions[choice] != null);
+        } // end of for (int choice = 0; choice < choiceImageNames.length && pictures; choice++)
+
+        for (int choice = 0; choice < choiceButtons.length; choice++)
+        {
+            JButton choiceButton = choiceButtons[choice];
+            choiceButton.setVisible(choice < choices.size());
+            choiceButton.setIcon(null);
+            choiceButton.setText("");
+            if (choice < choices.size() && pictures)
+            {
+                showChoicePicture(choiceButton, regions[choice], choices.get(choice), prompt);
             }
-            else
+            else if (choice < choices.size())
             {
-                // display an English phrase to be translated into French
-                playerInput = JOptionPane.showInputDialog(null, englishSentence, "INPUT", JOptionPane.QUESTION_MESSAGE);
-                checkTranslation(promptEnglishOrFrench, integerKey);
-            } // end of if (englishOrFrench)
-        } while (phrasesPosed != NUMBER_OF_PHRASES);
+                choiceButton.setText(choices.get(choice));
+            } // end of if (choice < choices.size() && pictures)
+        } // end of for (int choice = 0; choice < choiceButtons.length; choice++)
+    } // end of method showChoices(Prompt prompt, String[] choiceImageNames)
 
-        // end game after 10 phrases have been prompted
-        gameOver();
-    } // end of method promptSentences()
+    /*
+     * Puts a picture on a choice button once the image cache has decoded it, unless the player
+     * has moved on. A picture that cannot be decoded is replaced by its word.
+     */
+    private void showChoicePicture(JButton choiceButton, ImageAtlas.Region region, String choice, Prompt prompt)
+    {
+        imageCache.request(region.getSheetFileName()).whenComplete((sheetImage, exception) ->
+            EventQueue.invokeLater(() ->
+        {
+            if (shownPrompt != prompt)
+            {
+                return;
+            } // end of if (shownPrompt != prompt)
+
+            if (sheetImage == null)
+            {
+                choiceButton.setText(choice);
+                return;
+            } // end of if (sheetImage == null)
+
+            // keep the picture's proportions within the button's square
+            Rectangle bounds = region.getBounds();
+            BufferedImage picture = sheetImage.getSubimage(bounds.x, bounds.y, bounds.width, bounds.height);
+            double scale = Math.min((double) CHOICE_PICTURE_SIZE / bounds.width,
+                (double) CHOICE_PICTURE_SIZE / bounds.height);
+            choiceButton.setIcon(new ImageIcon(picture.getScaledInstance(Math.max(1, (int) (bounds.width * scale)),
+                Math.max(1, (int) (bounds.height * scale)), Image.SCALE_SMOOTH)));
+        }));
+    } // end of method showChoicePicture(JButton choiceButton, ImageAtlas.Region region, String choice, ...)
 
     /*
-     * Prompts phrase to be translated by user and checks if user's translation is correct.
+     * Shows the next phrase to translate, with the pictures the game worker named for it, and
+     * waits for the player's answer, or ends the game if there are no phrases left. Runs on the
+     * event dispatch thread.
      */
-    private void checkTranslation(boolean promptEnglishOrFrench, int integerKey)
+    private void promptSentence(Prompt prompt, PromptPictures pictures)
     {
-        final String CORRECT_MESSAGE = "Correct! Nice!";
-        final String INCORRECT_MESSAGE = "Incorrect!";
-        final String EXIT_MESSAGE = "FINAL SCORE: " + correctSentences + "/10 - " + ((correctSentences * 100) / 10) + "%. Goodbye!";
+        // the session ends early if the deck runs out before ten phrases are posed
+        if (prompt == null)
+        {
+            finishGame();
+            return;
+        } // end of if (prompt == null)
 
-        String englishSentence = gamePhrases.get(integerKey).getEnglish();
-        String frenchSentence = gamePhrases.get(integerKey).getFrench();
+        // display corresponding image by name after default image, unless it would give the answer away
+        if (answerMode != AnswerMode.PICTURES)
+        {
+            replaceImage(pictures.imageName);
 
-        /* although the method is 'setIsCorrectlyTranslated', my game will not repeat the same question twice regardless if the user has  
-         * correctly translated it or not. Thus, 'setIsCorrectlyTranslated' will be true for all situations.
-         */
-        if (promptEnglishOrFrench)
-        {
-            if (playerInput.toLowerCase().trim().equals(englishSentence.toLowerCase().trim()))
-            {
-                JOptionPane.showMessageDialog(null, CORRECT_MESSAGE, TITLE, 
-                    JOptionPane.INFORMATION_MESSAGE);
-
-                // update scores  
-                correctEnglishSentences++;
-                setEnglishCorrectLabel(correctEnglishSentences);
-                correctSentences++;
-                setTotalScoreLabel(correctSentences);
-                phrasesPosed++;
-                setQuestionsAskedLabel(phrasesPosed);
-
-                // make sure the certain phrase pair won't be used again in the duration of the game
-                gamePhrases.get(integerKey).setIsCorrectlyTranslated(true);
-            } // end of if (playerInput.toLowerCase().trim().equals(englishSentence.toLowerCase().trim()))
-            else if (playerInput.equals(SENTINEL_EXIT_VALUE))
-            {
-                JOptionPane.showMessageDialog(null, EXIT_MESSAGE, TITLE,
-                    JOptionPane.INFORMATION_MESSAGE);
-                System.exit(0);
-            } // end of else if (playerInput.equals(SENTINEL_EXIT_VALUE))
+            // decode the next phrase's image while the player answers this one
+            prefetchImage(pictures.upcomingImageName);
+        } // end of if (answerMode != AnswerMode.PICTURES)
+
+        if (prompt.isMultipleChoice())
+        {
+            showChoices(prompt, pictures.choiceImageNames);
+        } // end of if (prompt.isMultipleChoice())
+
+        // display a French phrase to be translated into English, or an English phrase into French
+        promptLabel.setText(prompt.getSentence());
+        answerField.setText("");
+        state = GameState.ANSWERING;
+        setAnswerEnabled(true);
+        answerField.requestFocusInWindow();
+    } // end of method promptSentence(Prompt prompt, PromptPictures pictures)
+
+    /*
+     * Hands the typed answer to the game worker, which grades it, saves it and draws the next
+     * phrase, then comes back to the event dispatch thread to show the result.
+     */
+    private void submitAnswer()
+    {
+        if (state != GameState.ANSWERING)
+        {
+            return;
+        } // end of if (state != GameState.ANSWERING)
+
+        state = GameState.GRADING;
+        setAnswerEnabled(false);
+        String playerInput = answerField.getText();
+        long submittedAt = GameMetrics.start();
+
+        gameWorker.execute(() ->
+        {
+            try
+            {
+                GradeResult gradeResult = session.submit(playerInput);
+                Prompt nextPrompt = session.isOver() ? null : session.nextPrompt();
+                PromptPictures nextPictures = namePictures(nextPrompt, session.getUpcomingKey());
+
+                EventQueue.invokeLater(() ->
+                {
+                    GameMetrics.ANSWER_FEEDBACK.stop(submittedAt);
+                    checkTranslation(gradeResult);
+                    if (gradeResult.getOutcome() != GradeResult.Outcome.EXIT)
+                    {
+                        promptSentence(nextPrompt, nextPictures);
+                    } // end of if (gradeResult.getOutcome() != GradeResult.Outcome.EXIT)
+                });
+            }
+            catch (RuntimeException exception)
+            {
+                recoverPrompt("grade the answer", exception);
+            } // end of catch (RuntimeException exception)
+        });
+    } // end of method submitAnswer()
+
+    /*
+     * Reports a failure on the game worker and lets the player go on. The phrase waiting for an
+     * answer is shown again, or the next one if the answer was graded; if even that fails, the
+     * answer field is enabled so the player can try again. Runs on the game worker.
+     */
+    private void recoverPrompt(String task, RuntimeException exception)
+    {
+        final String FAILURE_MESSAGE = "Something went wrong. Please try again.";
+
+        System.err.println("Could not " + task + ": " + exception);
+        Prompt prompt = null;
+        PromptPictures pictures = null;
+        boolean recovered;
+        try
+        {
+            prompt = session.isOver() ? null : session.nextPrompt();
+            pictures = namePictures(prompt, session.getUpcomingKey());
+            recovered = true;
+        }
+        catch (RuntimeException retryException)
+        {
+            System.err.println("Could not draw the phrase again: " + retryException);
+            recovered = false;
+        } // end of catch (RuntimeException retryException)
+
+        Prompt recoveredPrompt = prompt;
+        PromptPictures recoveredPictures = pictures;
+        boolean promptRecovered = recovered;
+        EventQueue.invokeLater(() ->
+        {
+            feedbackLabel.setForeground(Color.RED);
+            feedbackLabel.setText(FAILURE_MESSAGE);
+            if (promptRecovered)
+            {
+                promptSentence(recoveredPrompt, recoveredPictures);
+            }
             else
             {
-                JOptionPane.showMessageDialog(null, INCORRECT_MESSAGE, TITLE,
-                    JOptionPane.INFORMATION_MESSAGE);
+                state = GameState.ANSWERING;
+                setAnswerEnabled(true);
+                answerField.requestFocusInWindow();
+            } // end of if (promptRecovered)
+        });
+    } // end of method recoverPrompt(String task, RuntimeException exception)
 
-                // update score 
-                phrasesPosed++;
-                setQuestionsAskedLabel(phrasesPosed);
+    /*
+     * Answers with the translation on the chosen button, as if the player had typed it.
+     */
+    private void submitChoice(int choice)
+    {
+        if (state != GameState.ANSWERING || shownPrompt == null || choice >= shownPrompt.getChoices().size())
+        {
+            return;
+        } // end of if (state != GameState.ANSWERING || ...)
 
-                // make sure the certain phrase pair won't be used again in the duration of the game
-                gamePhrases.get(integerKey).setIsCorrectlyTranslated(true);
-            } // end of else
-        } // end of if (promptEnglishOrFrench)
-        else
+        answerField.setText(shownPrompt.getChoices().get(choice));
+        submitAnswer();
+    } // end of method submitChoice(int choice)
+
+    /*
+     * Shows whether the player's translation was correct and updates the scoreboard.
+     */
+    private void checkTranslation(GradeResult gradeResult)
+    {
+        final String CORRECT_MESSAGE = "Correct! Nice!";
+        final String INCORRECT_MESSAGE = "Incorrect!";
+
+        Score score = gradeResult.getScore();
+
+        if (gradeResult.getOutcome() == GradeResult.Outcome.CORRECT)
         {
-            if (playerInput.toLowerCase().trim().equals(frenchSentence.toLowerCase().trim()))
+            // show the accepted spelling when a typing mistake was forgiven
+            String correctMessage = CORRECT_MESSAGE;
+            AnswerMatch answerMatch = gradeResult.getAnswerMatch();
+            if (!answerMatch.isExact())
             {
-                JOptionPane.showMessageDialog(null, CORRECT_MESSAGE, TITLE, 
-                    JOptionPane.INFORMATION_MESSAGE);
+                correctMessage = CORRECT_MESSAGE + " (Accepted as: " + answerMatch.getAcceptedForm() + ")";
+            } // end of if (!answerMatch.isExact())
 
-                // update scores  
-                correctFrenchSentences++;
-                setFrenchCorrectLabel(correctFrenchSentences);
-                correctSentences++;
-                setTotalScoreLabel(correctSentences);
-                phrasesPosed++;
-                setQuestionsAskedLabel(phrasesPosed);
+            feedbackLabel.setForeground(Color.GREEN.darker());
+            feedbackLabel.setText(correctMessage);
 
-                // make sure the certain phrase pair won't be used again in the duration of the game
-                gamePhrases.get(integerKey).setIsCorrectlyTranslated(true);
-            } // end of if (playerInput.toLowerCase().trim().equals(frenchSentence.toLowerCase().trim()))
-            else if (playerInput.equals(SENTINEL_EXIT_VALUE))
+            // update scores  
+            if (gradeResult.getPrompt().getPromptEnglishOrFrench())
             {
-                JOptionPane.showMessageDialog(null, EXIT_MESSAGE, TITLE,
-                    JOptionPane.INFORMATION_MESSAGE);
-                System.exit(0);
-            } // end of else if (playerInput.equals(SENTINEL_EXIT_VALUE))
+                setEnglishCorrectLabel(score.getCorrectEnglishSentences());
+            }
             else
             {
-                JOptionPane.showMessageDialog(null, INCORRECT_MESSAGE, TITLE,
-                    JOptionPane.INFORMATION_MESSAGE);
+                setFrenchCorrectLabel(score.getCorrectFrenchSentences());
+            } // end of if (gradeResult.getPrompt().getPromptEnglishOrFrench())
+            setTotalScoreLabel(score.getCorrectSentences());
+            setQuestionsAskedLabel(score.getPhrasesPosed());
+        }
+        else if (gradeResult.getOutcome() == GradeResult.Outcome.EXIT)
+        {
+            final String EXIT_MESSAGE = "FINAL SCORE: " + score + ". Goodbye!";
 
-                // update score 
-                phrasesPosed++;
-                setQuestionsAskedLabel(phrasesPosed);
+            state = GameState.OVER;
+            cancelImagePrefetch();
+            JOptionPane.showMessageDialog(frame, EXIT_MESSAGE, TITLE,
+                JOptionPane.INFORMATION_MESSAGE);
+            System.exit(0);
+        }
+        else
+        {
+            feedbackLabel.setForeground(Color.RED);
+            feedbackLabel.setText(INCORRECT_MESSAGE);
 
-                // make sure the certain phrase pair won't be used again in the duration of the game
-                gamePhrases.get(integerKey).setIsCorrectlyTranslated(true);
-            } // end of else
-        } // end of else
-    } // end of method checkTranslation(boolean promptEnglishOrFrench, int integerKey)
+            // update score 
+            setQuestionsAskedLabel(score.getPhrasesPosed());
+        } // end of if (gradeResult.getOutcome() == GradeResult.Outcome.CORRECT)
+    } // end of method checkTranslation(GradeResult gradeResult)
 
     /*
-     * Prompts translation game to finish and exit.
+     * Posts the final score on the game worker, then shows it along with the player's rank. If
+     * the score cannot be posted, the game still ends and shows the score without a rank.
      */
-    private void gameOver()
+    private void finishGame()
     {
-        final String GAME_OVER_MESSAGE = "Game over! Your final score is: " + correctSentences + "/10 - " + ((correctSentences * 100) /10) + "%. Thanks for playing!";
+        state = GameState.OVER;
+        setAnswerEnabled(false);
 
-        JOptionPane.showMessageDialog(null, GAME_OVER_MESSAGE, TITLE,
+        gameWorker.execute(() ->
+        {
+            Score score = session.score();
+            try
+            {
+                postHighscore(score);
+                Leaderboard.Entry bestEntry = leaderboard.getSnapshot().get(0);
+                int rank = leaderboard.getRank(playerName);
+                int players = leaderboard.size();
+
+                EventQueue.invokeLater(() ->
+                {
+                    setPlayerHighscoreLabel(bestEntry);
+                    gameOver(score, rank, players);
+                });
+            }
+            catch (RuntimeException exception)
+            {
+                System.err.println("Could not post the final score: " + exception);
+                EventQueue.invokeLater(() -> gameOver(score, 0, 0));
+            } // end of catch (RuntimeException exception)
+        });
+    } // end of method finishGame()
+
+    /*
+     * Prompts translation game to finish and exit. A rank of 0 means the score was not posted.
+     */
+    private void gameOver(Score score, int rank, int players)
+    {
+        final String GAME_OVER_MESSAGE = "Game over! Your final score is: " + score + ". "
+            + ((rank > 0) ? "You are ranked #" + rank + " of " + players + ". " : "")
+            + "Thanks for playing!";
+
+        promptLabel.setText(GAME_OVER_MESSAGE);
+        JOptionPane.showMessageDialog(frame, GAME_OVER_MESSAGE, TITLE,
             JOptionPane.INFORMATION_MESSAGE);
 
         System.exit(0);
-    } // end of method gameOver()
+    } // end of method gameOver(Score score, int rank, int players)
 
     /*
-     * Runs the translation game.
+     * Runs the translation game: loads it on the game worker and shows the first phrase once it
+     * is ready. Runs on the event dispatch thread and returns at once.
      */
-    private void playGame() throws IOException
+    private void playGame()
     {
-        loadSentences();
-        loadImageData();
-        promptSentences();
-        gameOver();
-    } // end of method run()
+        final String LOADING_MESSAGE = "Loading...";
+
+        setAnswerEnabled(false);
+        promptLabel.setText(LOADING_MESSAGE);
+
+        gameWorker.execute(() ->
+        {
+            try
+            {
+                loadSentences();
+            }
+            catch (IOException | RuntimeException exception)
+            {
+                EventQueue.invokeLater(() -> promptLabel.setText("Unable to load the sentences: "
+                    + exception.getMessage()));
+                return;
+            } // end of catch (IOException | RuntimeException exception)
+
+            try
+            {
+                // a resumed game starts from the score it was left with
+                Score score = session.score();
+                List<Leaderboard.Entry> topEntries = leaderboard.getSnapshot();
+                Leaderboard.Entry bestEntry = topEntries.isEmpty() ? null : topEntries.get(0);
+                Prompt prompt = session.nextPrompt();
+                PromptPictures pictures = namePictures(prompt, session.getUpcomingKey());
+
+                EventQueue.invokeLater(() ->
+                {
+                    showScore(score);
+                    setPlayerHighscoreLabel(bestEntry);
+                    promptSentence(prompt, pictures);
+                });
+            }
+            catch (RuntimeException exception)
+            {
+                recoverPrompt("show the first phrase", exception);
+            } // end of catch (RuntimeException exception)
+        });
+    } // end of method playGame()
 
     /* private classes */
+    /*
+     * The stages of a game. Only the event dispatch thread reads or changes the state.
+     */
+    private enum GameState
+    {
+        LOADING, ANSWERING, GRADING, OVER
+    } // end of enum GameState
+
+    /*
+     * The names of the pictures a prompt needs, worked out on the game worker and handed to the
+     * event dispatch thread with the prompt. A name is null if its phrase has no English text.
+     */
+    private static class PromptPictures
+    {
+        // instance fields
+        private final String imageName;
+        private final String upcomingImageName;
+        private final String[] choiceImageNames;
+
+        /* constructors */
+        /*
+         * Constructs the picture names for a prompt, the phrase after it and its choices.
+         */
+        private PromptPictures(String imageName, String upcomingImageName, String[] choiceImageNames)
+        {
+            this.imageName = imageName;
+            this.upcomingImageName = upcomingImageName;
+            this.choiceImageNames = choiceImageNames;
+        } // end of constructor PromptPictures(String imageName, String upcomingImageName, ...)
+    } // end of class PromptPictures
+
+    /* public classes */
+    /**
+     * How the player gives answers: by typing them, or by picking one of a few choices shown as
+     * words or as pictures. An answer can always be typed, so EXIT still ends the game.
+     */
+    public enum AnswerMode
+    {
+        /** Answers are typed. */
+        TYPED,
+        /** The translation is picked from among a few look-alike words. */
+        CHOICES,
+        /** The picture of the phrase is picked from among a few others. */
+        PICTURES
+    } // end of enum AnswerMode
+
     private class ImageComponent extends Component
     {
         // class fields
@@ -515,28 +1151,26 @@ public class TranslationGame
         private static final int PROBLEMS_ENCOUNTERED = -1;
 
         // instance fields
-        private BufferedImage bufferedImage;
-        private int status;
+        private volatile String imageName;
+        private volatile int status;
+        private volatile boolean requested;
+        private ScaledImageRenderer renderer;
+        private String renderedImageName;
 
         /* constructors */
         /*
-         * Creates a component with a drawn image. If the image was
-         * drawn, the component's status is NO_PROBLEMS_ENCOUNTERED;
-         * otherwise, PROBLEMS_ENCOUNTERED.
+         * Creates a component for the picture with the given name in the atlas, drawn from its
+         * sheet once the image cache has decoded it. If the image was drawn, the component's
+         * status is NO_PROBLEMS_ENCOUNTERED; otherwise, PROBLEMS_ENCOUNTERED.
          */
-        public ImageComponent(String fileName)
+        public ImageComponent(String imageName)
         {
-            bufferedImage = null;
+            this.imageName = imageName;
             status = NO_PROBLEMS_ENCOUNTERED;
-            try
-            {
-                bufferedImage = ImageIO.read(new File(fileName));
-            }
-            catch (IOException exception)
-            {
-                status = PROBLEMS_ENCOUNTERED;
-            } // end of catch (IOException exception)
-        } // end of method ImageComponent(String fileName)
+            requested = false;
+            renderer = new ScaledImageRenderer();
+            renderedImageName = imageName;
+        } // end of method ImageComponent(String imageName)
 
         /* accessors */
         /*
@@ -549,6 +1183,38 @@ public class TranslationGame
         } // end of method getStatus()
 
         /* mutators */
+        /*
+         * Shows the picture with the given name instead of the current one, repainting only this
+         * component. A name with no picture in the atlas shows nothing.
+         */
+        public void setImageName(String imageName)
+        {
+            if (Objects.equals(imageName, this.imageName))
+            {
+                return;
+            } // end of if (Objects.equals(imageName, this.imageName))
+
+            this.imageName = imageName;
+            status = NO_PROBLEMS_ENCOUNTERED;
+            requested = false;
+            repaint();
+        } // end of method setImageName(String imageName)
+
+        /*
+         * Draws the picture on show again from the atlas, because the atlas has been packed again.
+         * Safe to call from any thread.
+         */
+        public void reloadImage()
+        {
+            EventQueue.invokeLater(() ->
+            {
+                renderer.clear();
+                status = NO_PROBLEMS_ENCOUNTERED;
+                requested = false;
+                repaint();
+            });
+        } // end of method reloadImage()
+
         /*
          * Called when the contents of the component should be painted, such as
          * when the component is first being shown or is damaged and in need of
@@ -556,21 +1222,135 @@ public class TranslationGame
          */
         public void paint(Graphics graphicsContext)
         {
+            long start = GameMetrics.start();
             super.paint(graphicsContext);
-            int x = (this.getWidth() - bufferedImage.getWidth(null)) / 2;
-            int y = (this.getHeight() - bufferedImage.getHeight(null)) / 2;
-            graphicsContext.drawImage(bufferedImage, x, y, null);
+
+            // drop the scaled copy of the previous picture once the name has been swapped
+            String imageName = this.imageName;
+            if (!Objects.equals(imageName, renderedImageName))
+            {
+                renderer.clear();
+                renderedImageName = imageName;
+            } // end of if (!Objects.equals(imageName, renderedImageName))
+
+            ImageAtlas atlas = imageAtlas;
+            ImageAtlas.Region region = (atlas == null || imageName == null) ? null : atlas.getRegion(imageName);
+            if (region == null)
+            {
+                GameMetrics.IMAGE_PAINT.stop(start);
+                return;
+            } // end of if (region == null)
+
+            // the cache may have evicted the sheet since the last paint, so ask it each time
+            BufferedImage sheetImage = imageCache.getIfDecoded(region.getSheetFileName());
+            BufferedImage scaledImage;
+            if (sheetImage != null)
+            {
+                scaledImage = renderer.render(sheetImage, region.getBounds(), this.getWidth(), this.getHeight(),
+                    this.getGraphicsConfiguration());
+            }
+            else
+            {
+                // an evicted sheet need not be decoded again while the scaled copy still fits
+                scaledImage = renderer.getRendered(this.getWidth(), this.getHeight());
+                if (scaledImage == null && status == PROBLEMS_ENCOUNTERED)
+                {
+                    graphicsContext.drawString(ERROR_IMAGE_UNAVAILABLE, 0, this.getHeight() / 2);
+                }
+                else if (scaledImage == null)
+                {
+                    requestSheet(region.getSheetFileName());
+                } // end of if (scaledImage == null && status == PROBLEMS_ENCOUNTERED)
+            } // end of if (sheetImage != null)
+
+            if (scaledImage != null)
+            {
+                int x = (this.getWidth() - scaledImage.getWidth()) / 2;
+                int y = (this.getHeight() - scaledImage.getHeight()) / 2;
+                graphicsContext.drawImage(scaledImage, x, y, null);
+            } // end of if (scaledImage != null)
+
+            GameMetrics.IMAGE_PAINT.stop(start);
         } // end of method paint(Graphics graphicsContext)
+
+        /* private methods */
+        /*
+         * Starts decoding the given sheet in the background and repaints once it is ready.
+         */
+        private void requestSheet(String sheetFileName)
+        {
+            if (requested)
+            {
+                return;
+            } // end of if (requested)
+
+            requested = true;
+            String requestedImageName = imageName;
+            imageCache.request(sheetFileName).whenComplete((sheetImage, exception) ->
+            {
+                // ignore a request that finishes after the view has moved on to another picture
+                if (!Objects.equals(requestedImageName, imageName))
+                {
+                    return;
+                } // end of if (!Objects.equals(requestedImageName, imageName))
+
+                // a sheet dropped by a repack is not a broken image; the next paint asks again
+                if (exception != null && !(exception instanceof CancellationException))
+                {
+                    status = PROBLEMS_ENCOUNTERED;
+                } // end of if (exception != null && !(exception instanceof CancellationException))
+                requested = false;
+                repaint();
+            });
+        } // end of method requestSheet(String sheetFileName)
     } // end of class ImageComponent extends Component
 
     /**
      * Tests and manipulates objects of this class.
      * 
-     * @param argument not used
+     * @param argument an optional seed that makes the order of questions reproducible, optionally
+     *     "review" to play in spaced-repetition mode, and optionally "choices" or "pictures" to pick
+     *     answers from a few words or pictures
      */
-    public static void main(String[] argument) throws IOException
+    public static void main(String[] argument)
     {
-        TranslationGame game = new TranslationGame();
-        game.playGame();
+        Long seed = null;
+        boolean spacedRepetition = false;
+        AnswerMode answerMode = AnswerMode.TYPED;
+        for (String option : argument)
+        {
+            if (option.equalsIgnoreCase(REVIEW_OPTION))
+            {
+                spacedRepetition = true;
+            }
+            else if (option.equalsIgnoreCase(CHOICES_OPTION))
+            {
+                answerMode = AnswerMode.CHOICES;
+            }
+            else if (option.equalsIgnoreCase(PICTURES_OPTION))
+            {
+                answerMode = AnswerMode.PICTURES;
+            }
+            else
+            {
+                try
+                {
+                    seed = Long.valueOf(option);
+                }
+                catch (NumberFormatException exception)
+                {
+                    System.err.println("Unknown option: " + option);
+                    System.err.println("Usage: java TranslationGame [seed] [" + REVIEW_OPTION + "] ["
+                        + CHOICES_OPTION + " | " + PICTURES_OPTION + "]");
+                    System.exit(1);
+                } // end of catch (NumberFormatException exception)
+            } // end of if (option.equalsIgnoreCase(REVIEW_OPTION))
+        } // end of for (String option : argument)
+
+        final Long gameSeed = seed;
+        final boolean gameSpacedRepetition = spacedRepetition;
+        final AnswerMode gameAnswerMode = answerMode;
+        GameMetrics.startReporting();
+        EventQueue.invokeLater(() -> new TranslationGame(gameSeed, gameSpacedRepetition, gameAnswerMode).playGame());
     } // end of method
 } // end of class TranslationGame